@@ -0,0 +1,118 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.model.AccountEventTail;
+import com.finance.app.model.AccountSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures rebuilding every account from an in-memory event store of 10M events, with and without
+ * snapshots and at different parallelism. A snapshot interval of 0 replays every account's full
+ * history; otherwise each account starts from its latest {@link AccountSnapshot} and replays only
+ * the events after it, as {@code AccountEventService} does against the database.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar AccountRebuildBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AccountRebuildBenchmark {
+
+    @Param({"10000000"})
+    private int events;
+
+    @Param({"100000"})
+    private int accounts;
+
+    @Param({"0", "100", "1000"})
+    private int snapshotInterval;
+
+    @Param({"1", "8"})
+    private int parallelism;
+
+    /**
+     * The events of account {@code a} are at indexes {@code streamStart[a]} up to {@code streamStart[a + 1]}.
+     */
+    private int[] streamStart;
+
+    private long[] balanceDeltas;
+
+    private long[] creditDeltas;
+
+    private AccountSnapshot[] snapshots;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int[] counts = new int[accounts];
+        for (int i = 0; i < events; i++) {
+            counts[random.nextInt(accounts)]++;
+        }
+        streamStart = new int[accounts + 1];
+        for (int a = 0; a < accounts; a++) {
+            streamStart[a + 1] = streamStart[a] + counts[a];
+        }
+
+        balanceDeltas = new long[events];
+        creditDeltas = new long[events];
+        for (int i = 0; i < events; i++) {
+            long amount = 1 + random.nextInt(1_000_000);
+            balanceDeltas[i] = random.nextBoolean() ? amount : -amount;
+            creditDeltas[i] = -balanceDeltas[i];
+        }
+
+        snapshots = new AccountSnapshot[accounts];
+        for (int a = 0; a < accounts; a++) {
+            int length = streamStart[a + 1] - streamStart[a];
+            int folded = snapshotInterval == 0 ? 0 : length - length % snapshotInterval;
+            AccountSnapshot snapshot = new AccountSnapshot();
+            snapshot.setAccountId((long) a);
+            snapshot.apply(sum(a, streamStart[a], streamStart[a] + folded, 0));
+            snapshot.setVersion(folded);
+            snapshot.setStreamVersion(length);
+            snapshots[a] = snapshot;
+        }
+
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long rebuildAll() throws Exception {
+        return pool.submit(() -> IntStream.range(0, accounts).parallel().mapToLong(this::rebuild).sum()).get();
+    }
+
+    private long rebuild(int account) {
+        AccountSnapshot stored = snapshots[account];
+        AccountSnapshot snapshot = new AccountSnapshot();
+        snapshot.setAccountId(stored.getAccountId());
+        snapshot.setVersion(stored.getVersion());
+        snapshot.setBalance(stored.getBalance());
+        snapshot.setCreditLimit(stored.getCreditLimit());
+        snapshot.apply(sum(account, streamStart[account] + (int) stored.getVersion(), streamStart[account + 1], stored.getVersion()));
+        return snapshot.getBalance();
+    }
+
+    private AccountEventTail sum(int account, int from, int to, long afterVersion) {
+        long balance = 0;
+        long credit = 0;
+        for (int i = from; i < to; i++) {
+            balance = Math.addExact(balance, balanceDeltas[i]);
+            credit = Math.addExact(credit, creditDeltas[i]);
+        }
+        return new AccountEventTail((long) account, (long) (to - from), balance, credit, afterVersion + (to - from));
+    }
+}
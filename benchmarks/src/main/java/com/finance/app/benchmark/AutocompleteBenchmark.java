@@ -0,0 +1,58 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.model.Suggestion;
+import com.finance.app.util.PrefixIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures autocomplete against one user's full index: a one-letter prefix that matches a large
+ * share of the terms, a longer prefix that matches a few, and recording a posting's payee.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutocompleteBenchmark {
+
+    private static final String[] WORDS = {"Star", "Blue", "Green", "City", "Corner", "Main", "North", "Grand",
+            "Central", "Park", "Coffee", "Market", "Books", "Fuel", "Pharmacy", "Grill", "Bakery", "Hardware"};
+
+    @Param({"5000"})
+    private int terms;
+
+    private PrefixIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        while (counts.size() < terms) {
+            String term = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1000);
+            counts.merge(term, 1L + random.nextInt(200), Long::sum);
+        }
+        index = new PrefixIndex(counts, terms);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestShortPrefix() {
+        return index.suggest("c", 10);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggestLongPrefix() {
+        return index.suggest("star coffee 1", 10);
+    }
+
+    @Benchmark
+    public void addKnownTerm() {
+        index.add("Star Coffee 123");
+    }
+}
@@ -0,0 +1,88 @@
+package com.finance.app.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with {@code -rf json} and fails when a benchmark got slower
+ * than the baseline by more than a threshold, so a deployment pipeline can stop on a regression.
+ * <p>
+ * Throughput scores regress when they drop; time-based scores regress when they grow. Benchmarks
+ * present in only one of the files are reported but do not fail the check.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.finance.app.benchmark.BenchmarkRegressionCheck
+ * baseline.json current.json [thresholdPercent]}
+ */
+public class BenchmarkRegressionCheck {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkRegressionCheck baseline.json current.json [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", afterScore, "new");
+                continue;
+            }
+
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) / beforeScore * 100;
+            // For throughput a higher score is better, for every time-based mode a lower one
+            double slowdown = "thrpt".equals(after.path("mode").asText()) ? -change : change;
+            boolean regressed = slowdown > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), beforeScore, afterScore, change,
+                    regressed ? "  REGRESSION" : "");
+        }
+        for (String benchmark : baseline.keySet()) {
+            if (!current.containsKey(benchmark)) {
+                System.out.printf("%-80s %14s %14s %9s%n", benchmark, "", "-", "missing");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%n%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Keys every result by its benchmark name, mode and parameters.
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText().replaceAll(".*\\.(\\w+\\.\\w+)$", "$1"))
+                    .append(" ").append(result.path("mode").asText());
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            params.forEach((name, value) -> key.append(" ").append(name).append("=").append(value));
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,99 @@
+package com.finance.app.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.app.model.Account;
+import com.finance.app.model.AccountView;
+import com.finance.app.model.Category;
+import com.finance.app.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of the response bodies of the account and transaction endpoints,
+ * with an ObjectMapper configured the way Spring Boot configures the application's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"0", "50", "500"})
+    private int transactions;
+
+    private ObjectMapper objectMapper;
+
+    private Account account;
+
+    private AccountView accountView;
+
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2024, 1, 31, 12, 0);
+
+        account = new Account();
+        account.setId(1L);
+        account.setName("Everyday");
+        account.setType("SAVINGS");
+        account.setStartingBalance(new BigDecimal("1000.00"));
+        account.setCurrentBalance(new BigDecimal("2345.67"));
+        account.setCurrency("EUR");
+        account.setCreatedDate(now);
+        account.setUpdatedDate(now);
+
+        Category category = new Category();
+        category.setId(7L);
+        category.setName("groceries");
+        category.setDisplayName("Groceries");
+        category.setCreatedDate(now);
+        category.setUpdatedDate(now);
+
+        List<Transaction> rows = new ArrayList<>(transactions);
+        for (int i = 0; i < Math.max(1, transactions); i++) {
+            Transaction row = new Transaction();
+            row.setId(i + 1);
+            row.setDate(now.minusDays(i));
+            row.setStatus("COMPLETED");
+            row.setType("WITHDRAWAL");
+            row.setAmount(BigDecimal.valueOf(1000 + i, 2));
+            row.setPayee("Corner Shop " + i % 20);
+            row.setDescription("Weekly shopping");
+            row.setCategory(category);
+            row.setCreatedDate(now);
+            row.setUpdatedDate(now);
+            row.setAccount(account);
+            if (i < transactions) {
+                rows.add(row);
+            }
+            transaction = row;
+        }
+        account.setTransactions(rows);
+        accountView = AccountView.of(account);
+    }
+
+    @Benchmark
+    public byte[] account() throws Exception {
+        return objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] accountView() throws Exception {
+        return objectMapper.writeValueAsBytes(accountView);
+    }
+
+    @Benchmark
+    public byte[] transaction() throws Exception {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+}
@@ -0,0 +1,136 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.security.SecurityEventLog;
+import com.finance.app.security.jwt.JwtUtils;
+import com.finance.app.security.model.UserDetailsImpl;
+import com.finance.app.util.CommonUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request authentication work: issuing a token on signin, verifying it with and
+ * without the verified-token cache, rejecting a replayed bad token with and without the
+ * rejected-token cache, and cutting it out of the Authorization header.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtils cachedJwtUtils;
+
+    private JwtUtils uncachedJwtUtils;
+
+    private Authentication authentication;
+
+    private String token;
+
+    private String forgedToken;
+
+    private String header;
+
+    @Setup
+    public void setUp() {
+        String secret = Base64.getEncoder().encodeToString(new byte[64]);
+        cachedJwtUtils = newJwtUtils(secret, 10_000);
+        // Caches of size 0 never keep an entry, so every call verifies the signature
+        uncachedJwtUtils = newJwtUtils(secret, 0);
+
+        UserDetailsImpl user = new UserDetailsImpl(1L, "benchmark-user", "benchmark@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        token = cachedJwtUtils.generateJwtToken(authentication);
+        header = "Bearer " + token;
+        // Same header and claims, signed with a different key
+        byte[] otherKey = new byte[64];
+        Arrays.fill(otherKey, (byte) 1);
+        forgedToken = newJwtUtils(Base64.getEncoder().encodeToString(otherKey), 0).generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return cachedJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateJwtTokenCached() {
+        return cachedJwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateJwtTokenUncached() {
+        return uncachedJwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public boolean validateForgedJwtTokenCached() {
+        return cachedJwtUtils.validateJwtToken(forgedToken);
+    }
+
+    @Benchmark
+    public boolean validateForgedJwtTokenUncached() {
+        return uncachedJwtUtils.validateJwtToken(forgedToken);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtTokenCached() {
+        return cachedJwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtTokenUncached() {
+        return uncachedJwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public String extractToken() {
+        return CommonUtil.extractToken(header);
+    }
+
+    /**
+     * The previous implementation of {@link CommonUtil#extractToken}, kept as a baseline.
+     */
+    @Benchmark
+    public String extractTokenSplit() {
+        return header.startsWith("Bearer ") ? header.split(" ")[1] : null;
+    }
+
+    /**
+     * Creates a JwtUtils outside of Spring by setting its configuration fields and running its
+     * initialization the way the container would.
+     */
+    private static JwtUtils newJwtUtils(String secret, int cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        setField(jwtUtils, "securityEventLog", new SecurityEventLog(60_000));
+        setField(jwtUtils, "jwtSecret", secret);
+        setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+        setField(jwtUtils, "verifiedTokenCacheSize", cacheSize);
+        setField(jwtUtils, "rejectedTokenCacheSize", cacheSize * 10);
+        setField(jwtUtils, "rejectedTokenTtlMs", 600_000L);
+        Method init = ReflectionUtils.findMethod(JwtUtils.class, "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, jwtUtils);
+        return jwtUtils;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
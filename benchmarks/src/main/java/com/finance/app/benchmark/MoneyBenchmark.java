@@ -0,0 +1,119 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.model.ETransactionType;
+import com.finance.app.model.Money;
+import com.finance.app.service.PostingDeltas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ledger arithmetic on {@link BigDecimal}, as postings used to be computed, with the
+ * {@code long} minor unit arithmetic of {@link Money} and {@link PostingDeltas}. Run with
+ * {@code -prof gc} to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final int AMOUNTS = 1024;
+
+    private static final int POSTINGS_PER_CHUNK = 500;
+
+    private BigDecimal[] amounts;
+
+    private long[] minorUnits;
+
+    private ETransactionType[] types;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new BigDecimal[AMOUNTS];
+        minorUnits = new long[AMOUNTS];
+        types = new ETransactionType[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            minorUnits[i] = 1 + random.nextInt(1_000_000);
+            amounts[i] = BigDecimal.valueOf(minorUnits[i], Money.LEDGER_SCALE);
+            types[i] = ETransactionType.values()[random.nextInt(3)];
+        }
+    }
+
+    /**
+     * Sums amounts the way a report aggregation loop over BigDecimal does.
+     */
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public long sumMinorUnits() {
+        long total = 0;
+        for (long amount : minorUnits) {
+            total = Math.addExact(total, amount);
+        }
+        return total;
+    }
+
+    /**
+     * Accumulates the deltas of a bulk chunk with BigDecimal, as PostingDeltas did before.
+     */
+    @Benchmark
+    @OperationsPerInvocation(POSTINGS_PER_CHUNK)
+    public void chunkDeltasBigDecimal(Blackhole blackhole) {
+        Map<Long, BigDecimal[]> deltas = new TreeMap<>();
+        for (int i = 0; i < POSTINGS_PER_CHUNK; i++) {
+            BigDecimal amount = amounts[i];
+            switch (types[i]) {
+                case DEPOSIT -> addBigDecimal(deltas, 1L, amount.negate(), amount);
+                case WITHDRAWAL -> addBigDecimal(deltas, 1L, amount, amount.negate());
+                case TRANSFER -> {
+                    addBigDecimal(deltas, 2L, amount.negate(), amount.negate());
+                    addBigDecimal(deltas, 3L, amount, amount);
+                }
+            }
+        }
+        deltas.forEach((accountId, delta) -> {
+            blackhole.consume(delta[0]);
+            blackhole.consume(delta[1]);
+        });
+    }
+
+    /**
+     * Accumulates the same deltas with PostingDeltas, converting each amount to minor units once.
+     */
+    @Benchmark
+    @OperationsPerInvocation(POSTINGS_PER_CHUNK)
+    public void chunkDeltasMinorUnits(Blackhole blackhole) throws Exception {
+        PostingDeltas deltas = new PostingDeltas();
+        for (int i = 0; i < POSTINGS_PER_CHUNK; i++) {
+            deltas.addPosting(1L, types[i], amounts[i], 2L, 3L);
+        }
+        deltas.forEach((accountId, balanceDelta, creditDelta) -> {
+            blackhole.consume(balanceDelta);
+            blackhole.consume(creditDelta);
+        });
+    }
+
+    private static void addBigDecimal(Map<Long, BigDecimal[]> deltas, Long accountId, BigDecimal balance, BigDecimal credit) {
+        BigDecimal[] delta = deltas.computeIfAbsent(accountId, id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        delta[0] = delta[0].add(balance);
+        delta[1] = delta[1].add(credit);
+    }
+}
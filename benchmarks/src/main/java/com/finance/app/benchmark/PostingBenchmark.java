@@ -0,0 +1,45 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.model.ETransactionType;
+import com.finance.app.service.PostingDeltas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the balance math {@code TransactionService} runs for a single posting: converting the
+ * request amount to minor units, accumulating the deltas and visiting them in lock order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostingBenchmark {
+
+    private final BigDecimal amount = new BigDecimal("1234.56");
+
+    @Benchmark
+    public void deposit(Blackhole blackhole) throws Exception {
+        PostingDeltas deltas = new PostingDeltas();
+        deltas.addPosting(1L, ETransactionType.DEPOSIT, amount, null, null);
+        deltas.forEach((accountId, balanceDelta, creditDelta) -> {
+            blackhole.consume(balanceDelta);
+            blackhole.consume(creditDelta);
+        });
+    }
+
+    @Benchmark
+    public void transfer(Blackhole blackhole) throws Exception {
+        PostingDeltas deltas = new PostingDeltas();
+        deltas.addPosting(1L, ETransactionType.TRANSFER, amount, 2L, 3L);
+        blackhole.consume(deltas.accountIds());
+        deltas.forEach((accountId, balanceDelta, creditDelta) -> {
+            blackhole.consume(balanceDelta);
+            blackhole.consume(creditDelta);
+        });
+    }
+}
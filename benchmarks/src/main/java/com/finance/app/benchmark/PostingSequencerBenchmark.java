@@ -0,0 +1,69 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.service.PostingSequencer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures postings per second through the {@link PostingSequencer} for a hot account, for
+ * postings spread over many accounts and for transfers between random account pairs. The
+ * critical section stands in for the database work of a posting by updating an in-memory
+ * balance and burning a fixed number of CPU tokens.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostingSequencerBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+
+    @Param({"1024"})
+    public int stripes;
+
+    @Param({"100"})
+    public int workTokens;
+
+    private PostingSequencer sequencer;
+
+    private long[] balances;
+
+    @Setup
+    public void setUp() {
+        sequencer = new PostingSequencer(stripes);
+        balances = new long[ACCOUNTS];
+    }
+
+    @Benchmark
+    public long hotAccount() throws Exception {
+        return sequencer.execute(List.of(0L), () -> post(0, 1));
+    }
+
+    @Benchmark
+    public long spreadAccounts() throws Exception {
+        int accountId = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        return sequencer.execute(List.of((long) accountId), () -> post(accountId, 1));
+    }
+
+    @Benchmark
+    public long transfer() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int fromAccountId = random.nextInt(ACCOUNTS);
+        int toAccountId = random.nextInt(ACCOUNTS);
+        return sequencer.execute(List.of((long) fromAccountId, (long) toAccountId), () -> {
+            post(fromAccountId, -1);
+            return post(toAccountId, 1);
+        });
+    }
+
+    private long post(int accountId, long delta) {
+        Blackhole.consumeCPU(workTokens);
+        return balances[accountId] += delta;
+    }
+}
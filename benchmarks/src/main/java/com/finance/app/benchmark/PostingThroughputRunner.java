@@ -0,0 +1,42 @@
+package com.finance.app.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs {@link PostingSequencerBenchmark} at growing thread counts and prints postings/sec per
+ * benchmark and thread count.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.finance.app.benchmark.PostingThroughputRunner [maxThreads]}
+ */
+public class PostingThroughputRunner {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+
+        List<String> lines = new ArrayList<>();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(PostingSequencerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                lines.add(String.format("%-16s %8d %16.0f",
+                        result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                        threads,
+                        result.getPrimaryResult().getScore()));
+            }
+        }
+
+        System.out.printf("%n%-16s %8s %16s%n", "benchmark", "threads", "postings/sec");
+        lines.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,39 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.importer.StatementFormat;
+import com.finance.app.importer.StatementParser;
+import com.finance.app.importer.StatementRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures statement parsing in rows/sec. Statements are generated while they are read, so the
+ * heap profile of a run ({@code -prof gc}) shows whether memory stays flat as the row count grows
+ * from thousands to millions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementImportBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Param({"CSV", "OFX"})
+    public StatementFormat format;
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parse(Blackhole blackhole) throws Exception {
+        try (StatementParser parser = format.open(new SyntheticStatementReader(format, ROWS))) {
+            StatementRecord record;
+            while ((record = parser.next()) != null) {
+                blackhole.consume(record);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.finance.app.benchmark;
+
+import com.finance.app.importer.StatementFormat;
+
+import java.io.Reader;
+import java.time.LocalDate;
+
+/**
+ * Generates a bank statement of a given number of entries on the fly, so that statements of any
+ * size can be parsed without holding them in memory.
+ */
+class SyntheticStatementReader extends Reader {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    private final StatementFormat format;
+
+    private final int entries;
+
+    private int entry = -1;
+
+    private String current = "";
+
+    private int position;
+
+    SyntheticStatementReader(StatementFormat format, int entries) {
+        this.format = format;
+        this.entries = entries;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        int written = 0;
+        while (written < length) {
+            if (position == current.length()) {
+                if (!advance()) {
+                    return written == 0 ? -1 : written;
+                }
+            }
+            int count = Math.min(length - written, current.length() - position);
+            current.getChars(position, position + count, buffer, offset + written);
+            position += count;
+            written += count;
+        }
+        return written;
+    }
+
+    private boolean advance() {
+        entry++;
+        position = 0;
+        if (entry == 0) {
+            current = format == StatementFormat.CSV
+                    ? "date,amount,payee,description\n"
+                    : "OFXHEADER:100\nDATA:OFXSGML\n\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n";
+            return true;
+        }
+        if (entry > entries + 1) {
+            current = "";
+            return false;
+        }
+        if (entry == entries + 1) {
+            current = format == StatementFormat.CSV ? "" : "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+            return true;
+        }
+
+        LocalDate date = START.plusDays(entry % 3650);
+        String amount = (entry % 3 == 0 ? "" : "-") + (entry % 1000) + "." + (10 + entry % 90);
+        String payee = "Merchant " + (entry % 500);
+        if (format == StatementFormat.CSV) {
+            current = date + "," + amount + "," + payee + ",\"Purchase, ref " + entry + "\"\n";
+        } else {
+            current = "<STMTTRN>\n<TRNTYPE>" + (entry % 3 == 0 ? "CREDIT" : "DEBIT")
+                    + "\n<DTPOSTED>" + date.toString().replace("-", "") + "120000.000[-5:EST]"
+                    + "\n<TRNAMT>" + amount
+                    + "\n<FITID>" + entry
+                    + "\n<NAME>" + payee
+                    + "\n<MEMO>Purchase ref " + entry
+                    + "\n</STMTTRN>\n";
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,81 @@
+package com.finance.app.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counts and latencies of the measured requests to one endpoint.
+ */
+class EndpointStats {
+
+    private final String endpoint;
+
+    private final double rate;
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private long[] latencies = new long[1024];
+
+    private int count;
+
+    EndpointStats(String endpoint, double rate) {
+        this.endpoint = endpoint;
+        this.rate = rate;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    double rate() {
+        return rate;
+    }
+
+    /**
+     * Records a completed request. The latency is measured from the moment the request was
+     * scheduled to be sent, so time spent queuing behind slow requests is included.
+     */
+    synchronized void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Records a request that was not sent because too many requests were already in flight.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    synchronized int completed() {
+        return count;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the latency in milliseconds below which the given fraction of requests completed
+     */
+    synchronized double percentileMillis(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.max(0, Math.ceil(fraction * count) - 1));
+        return sorted[index] / 1_000_000.0;
+    }
+}
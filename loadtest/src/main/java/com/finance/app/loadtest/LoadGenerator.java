@@ -0,0 +1,106 @@
+package com.finance.app.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Sends requests to each endpoint at a fixed arrival rate, independent of how fast responses come
+ * back (an open workload model). A request that finds {@code maxInFlight} requests outstanding
+ * is dropped and counted instead of delaying the schedule.
+ */
+class LoadGenerator {
+
+    private final HttpClient httpClient;
+
+    private final Semaphore inFlight;
+
+    private final int maxInFlight;
+
+    private final List<Target> targets = new ArrayList<>();
+
+    LoadGenerator(HttpClient httpClient, int maxInFlight) {
+        this.httpClient = httpClient;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    private record Target(EndpointStats stats, LongFunction<HttpRequest> requests) {
+    }
+
+    /**
+     * Adds an endpoint to the load.
+     *
+     * @param stats    collects the results, and carries the endpoint name and its rate per second
+     * @param requests creates the n-th request to send
+     */
+    void add(EndpointStats stats, LongFunction<HttpRequest> requests) {
+        if (stats.rate() > 0) {
+            targets.add(new Target(stats, requests));
+        }
+    }
+
+    /**
+     * Runs the load for the warmup and the measurement period and waits for the outstanding
+     * requests. Only requests scheduled after the warmup are recorded.
+     *
+     * @param onMeasurementStart run once when the warmup ends
+     */
+    void run(long warmupSeconds, long durationSeconds, Runnable onMeasurementStart) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Thread> schedulers = new ArrayList<>();
+        for (Target target : targets) {
+            Thread scheduler = new Thread(() -> schedule(target, start, measureFrom, end),
+                    "loadtest-" + target.stats().endpoint());
+            scheduler.start();
+            schedulers.add(scheduler);
+        }
+
+        LockSupport.parkNanos(measureFrom - System.nanoTime());
+        onMeasurementStart.run();
+
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+        inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS);
+    }
+
+    private void schedule(Target target, long start, long measureFrom, long end) {
+        long interval = (long) (1_000_000_000L / target.stats().rate());
+        for (long n = 0; ; n++) {
+            long intended = start + n * interval;
+            if (intended >= end) {
+                return;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = intended >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    target.stats().drop();
+                }
+                continue;
+            }
+            httpClient.sendAsync(target.requests().apply(n), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        inFlight.release();
+                        if (measured) {
+                            boolean success = failure == null && response.statusCode() / 100 == 2;
+                            target.stats().record(System.nanoTime() - intended, success);
+                        }
+                    });
+        }
+    }
+}
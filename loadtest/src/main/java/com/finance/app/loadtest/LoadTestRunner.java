@@ -0,0 +1,136 @@
+package com.finance.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.app.FinanceAppApplication;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the application against an in-memory database, seeds it and drives a fixed-rate mix of
+ * signin, account and transaction listing requests, then prints throughput, latency percentiles
+ * and SQL statements per request for each endpoint.
+ * <p>
+ * Settings are the {@code loadtest.*} properties of {@code application-loadtest.properties} and
+ * can be overridden on the command line, e.g.
+ * {@code java -jar loadtest/target/loadtest.jar --loadtest.rate.account=500 --loadtest.duration-seconds=120}.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FinanceAppApplication.class)
+                .profiles("loadtest")
+                .run(args);
+        int exitCode = 0;
+        ExecutorService clientThreads = null;
+        try {
+            Environment environment = context.getEnvironment();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            clientThreads = Executors.newFixedThreadPool(environment.getProperty("loadtest.client-threads", Integer.class, 64));
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(clientThreads)
+                    .build();
+
+            List<Seeder.SeededUser> users = new Seeder(httpClient, objectMapper, baseUrl).seed(
+                    environment.getProperty("loadtest.users", Integer.class, 50),
+                    environment.getProperty("loadtest.accounts-per-user", Integer.class, 2),
+                    environment.getProperty("loadtest.transactions-per-account", Integer.class, 500));
+
+            EndpointStats signin = new EndpointStats("POST /api/v1/users/signin",
+                    environment.getProperty("loadtest.rate.signin", Double.class, 20.0));
+            EndpointStats account = new EndpointStats("GET /api/v1/account/{accountId}",
+                    environment.getProperty("loadtest.rate.account", Double.class, 200.0));
+            EndpointStats transactions = new EndpointStats("GET /api/v1/transaction/{accountId}",
+                    environment.getProperty("loadtest.rate.transactions", Double.class, 200.0));
+
+            LoadGenerator generator = new LoadGenerator(httpClient, environment.getProperty("loadtest.max-in-flight", Integer.class, 512));
+            generator.add(signin, n -> {
+                Seeder.SeededUser user = users.get((int) (n % users.size()));
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users/signin"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"" + user.username() + "\",\"password\":\"" + user.password() + "\"}"))
+                        .build();
+            });
+            generator.add(account, n -> {
+                Seeder.SeededUser user = users.get((int) (n % users.size()));
+                Long accountId = user.accountIds().get((int) (n / users.size() % user.accountIds().size()));
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/account/" + accountId))
+                        .header("Authorization", user.token()).GET().build();
+            });
+            generator.add(transactions, n -> {
+                Seeder.SeededUser user = users.get((int) (n % users.size()));
+                Long accountId = user.accountIds().get((int) (n / users.size() % user.accountIds().size()));
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transaction/" + accountId + "?limit=50"))
+                        .header("Authorization", user.token()).GET().build();
+            });
+
+            List<EndpointStats> endpoints = List.of(signin, account, transactions);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            Map<String, Double> statementsAtStart = new HashMap<>();
+            long durationSeconds = environment.getProperty("loadtest.duration-seconds", Long.class, 60L);
+            generator.run(environment.getProperty("loadtest.warmup-seconds", Long.class, 10L), durationSeconds,
+                    () -> endpoints.forEach(stats -> statementsAtStart.put(stats.endpoint(), statements(meterRegistry, stats))));
+
+            Map<String, Double> measuredStatements = new HashMap<>();
+            endpoints.forEach(stats -> measuredStatements.put(stats.endpoint(),
+                    statements(meterRegistry, stats) - statementsAtStart.getOrDefault(stats.endpoint(), 0.0)));
+            report(endpoints, measuredStatements, durationSeconds);
+        } catch (Exception exception) {
+            exception.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+            if (clientThreads != null) {
+                clientThreads.shutdownNow();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Reads the SQL statements the application counted for an endpoint so far from its
+     * {@code finance.sql.statements} metric, whose {@code uri} tag is the matched route pattern.
+     */
+    private static double statements(MeterRegistry meterRegistry, EndpointStats stats) {
+        String[] methodAndUri = stats.endpoint().split(" ", 2);
+        DistributionSummary summary = meterRegistry.find("finance.sql.statements")
+                .tag("method", methodAndUri[0])
+                .tag("uri", methodAndUri[1])
+                .summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
+    private static void report(List<EndpointStats> endpoints, Map<String, Double> statements, long durationSeconds) {
+        System.out.printf("%n%-38s %8s %9s %7s %8s %10s %8s %8s %8s %8s %8s %9s%n",
+                "endpoint", "target/s", "completed", "errors", "dropped", "achieved/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "sql/req");
+        for (EndpointStats stats : endpoints) {
+            int completed = stats.completed();
+            System.out.printf("%-38s %8.0f %9d %7d %8d %10.1f %8.2f %8.2f %8.2f %8.2f %8.2f %9.2f%n",
+                    stats.endpoint(), stats.rate(), completed, stats.errors(), stats.dropped(),
+                    (double) completed / durationSeconds,
+                    stats.percentileMillis(0.50), stats.percentileMillis(0.90), stats.percentileMillis(0.99),
+                    stats.percentileMillis(0.999), stats.percentileMillis(1.0),
+                    completed > 0 ? statements.get(stats.endpoint()) / completed : 0);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.finance.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds users, accounts and transactions through the public API, so that seeding takes the same
+ * path as real clients.
+ */
+class Seeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(Seeder.class);
+
+    private static final int BULK_CHUNK = 500;
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final String baseUrl;
+
+    Seeder(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * A seeded user with a valid token and the ids of its accounts.
+     */
+    record SeededUser(String username, String password, String token, List<Long> accountIds) {
+    }
+
+    List<SeededUser> seed(int users, int accountsPerUser, int transactionsPerAccount) throws Exception {
+        long started = System.nanoTime();
+        Random random = new Random(42);
+        List<SeededUser> seeded = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            String username = "loadtest-user-" + u;
+            String password = "password-" + u;
+            post("/api/v1/users/signup", null, Map.of(
+                    "username", username, "password", password,
+                    "email", username + "@example.com", "firstName", "Load", "lastName", "Test " + u));
+            String token = "Bearer " + post("/api/v1/users/signin", null, Map.of("username", username, "password", password))
+                    .path("token").asText();
+
+            for (int a = 0; a < accountsPerUser; a++) {
+                post("/api/v1/account/add", token, Map.of(
+                        "name", "Account " + a, "type", "SAVINGS", "currency", "EUR",
+                        "startingBalance", new BigDecimal("1000.00"), "currentBalance", new BigDecimal("1000.00")));
+            }
+
+            List<Long> accountIds = new ArrayList<>();
+            for (JsonNode account : get("/api/v1/users/user", token).path("accounts")) {
+                accountIds.add(account.path("id").asLong());
+            }
+            for (Long accountId : accountIds) {
+                for (int start = 0; start < transactionsPerAccount; start += BULK_CHUNK) {
+                    int size = Math.min(BULK_CHUNK, transactionsPerAccount - start);
+                    post("/api/v1/transaction/" + accountId + "/bulk", token, transactions(random, size));
+                }
+            }
+            seeded.add(new SeededUser(username, password, token, accountIds));
+        }
+        logger.info("Seeded {} users, {} accounts and {} transactions in {} ms", users, users * accountsPerUser,
+                (long) users * accountsPerUser * transactionsPerAccount, (System.nanoTime() - started) / 1_000_000);
+        return seeded;
+    }
+
+    private static List<Map<String, Object>> transactions(Random random, int size) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Map<String, Object>> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> transaction = new LinkedHashMap<>();
+            transaction.put("type", random.nextInt(3) == 0 ? "DEPOSIT" : "WITHDRAWAL");
+            transaction.put("amount", BigDecimal.valueOf(1 + random.nextInt(100_000), 2));
+            transaction.put("date", now.minusMinutes(random.nextInt(60 * 24 * 365)).toString());
+            transaction.put("status", "COMPLETED");
+            transaction.put("payee", "Payee " + random.nextInt(200));
+            transaction.put("description", "Seeded transaction");
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private JsonNode post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", token);
+        }
+        return send(request.build());
+    }
+
+    private JsonNode get(String path, String token) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", token).GET().build());
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed: " + request.method() + " " + request.uri().getPath()
+                    + " returned " + response.statusCode() + " " + new String(response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
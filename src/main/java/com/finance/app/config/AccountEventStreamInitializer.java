@@ -0,0 +1,40 @@
+package com.finance.app.config;
+
+import com.finance.app.service.AccountEventService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares account event streams before the application starts serving requests.
+ * <p>
+ * Accounts created before event streams existed get a stream that opens with their current
+ * balance. With {@code account.events.rebuild-on-startup} every account balance is then rebuilt
+ * from its snapshot and events, which is the way back to consistent balances after restoring the
+ * event tables from a backup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class AccountEventStreamInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountEventStreamInitializer.class);
+
+    @Autowired
+    AccountEventService accountEventService;
+
+    @Value("${account.events.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @PostConstruct
+    void initializeStreams() throws Exception {
+        long opened = accountEventService.openMissingStreams();
+        logger.info("Account event streams checked, {} stream(s) started", opened);
+        if (rebuildOnStartup) {
+            accountEventService.rebuildAllAccounts();
+        }
+    }
+}
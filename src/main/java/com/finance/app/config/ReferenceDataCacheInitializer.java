@@ -0,0 +1,61 @@
+package com.finance.app.config;
+
+import com.finance.app.service.CategoryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the category cache before the application starts serving requests and reloads it every
+ * {@code reference-data.refresh-interval-ms}, which picks up rows added or changed by other
+ * instances.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ReferenceDataCacheInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCacheInitializer.class);
+
+    @Autowired
+    CategoryService categoryService;
+
+    @Value("${reference-data.refresh-interval-ms:300000}")
+    private long refreshIntervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void loadCaches() {
+        int categories = categoryService.refresh();
+        logger.info("Reference data loaded: {} categories", categories);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reference-data-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            categoryService.refresh();
+        } catch (RuntimeException exception) {
+            // Keep serving the previous copy and try again at the next interval
+            logger.warn("Reference data refresh failed: {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.finance.app.config;
+
+import com.finance.app.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the transaction id sequence past the ids already in use.
+ * <p>
+ * Transaction ids used to come from an identity column. The sequence table that replaced it
+ * starts at 1, so on an existing database it is advanced beyond the highest existing id before
+ * the first insert. The pooled optimizer hands out the block of ids below the value it reads,
+ * hence the extra allocation size of headroom.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class TransactionIdSequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIdSequenceInitializer.class);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void advanceSequence() {
+        int updated = jdbcTemplate.update(
+                "update transaction_seq set next_val = greatest(next_val, (select coalesce(max(id), 0) + ? from transaction))",
+                Transaction.ID_ALLOCATION_SIZE + 1);
+        logger.info("Transaction id sequence checked, {} row(s) updated", updated);
+    }
+}
@@ -1,13 +1,21 @@
 package com.finance.app.controller;
 
 import com.finance.app.model.Account;
+import com.finance.app.model.AccountView;
 import com.finance.app.model.Status;
+import com.finance.app.model.TransactionFilter;
+import com.finance.app.service.AccountEventService;
 import com.finance.app.service.AccountService;
+import com.finance.app.service.BalanceCheckpointService;
+import com.finance.app.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/v1/account")
 public class AccountController {
@@ -15,6 +23,15 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Autowired
+    private AccountEventService accountEventService;
+
+    @Autowired
+    private TransactionService transactionService;
+
     /**
      * Adds an account to the system.
      *
@@ -43,16 +60,29 @@ public class AccountController {
     }
 
     /**
-     * Retrieves an account based on the provided accountId.
+     * Retrieves an account of the authenticated user based on the provided accountId. The account's
+     * transactions are only included when requested, one page at a time.
      *
-     * @param accountId The unique identifier of the account to retrieve.
-     * @return ResponseEntity containing the retrieved Account if successful, or a status message indicating an error.
+     * @param token               The Authorization token for authentication.
+     * @param accountId           The unique identifier of the account to retrieve.
+     * @param includeTransactions Whether to include the newest page of the account's transactions.
+     * @param cursor              The nextCursor of the previous page of transactions.
+     * @param limit               The maximum number of transactions to include.
+     * @return ResponseEntity containing the AccountView if successful, or a status message indicating an error.
      */
     @GetMapping("/{accountId}")
-    public ResponseEntity<?> getAccount(@PathVariable("accountId") String accountId) {
+    public ResponseEntity<?> getAccount(@RequestHeader("Authorization") String token,
+                                        @PathVariable("accountId") String accountId,
+                                        @RequestParam(value = "transactions", defaultValue = "false") boolean includeTransactions,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "limit", defaultValue = "50") int limit) {
         try {
             if (accountId != null && !accountId.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.OK).body(accountService.getAccount(Long.parseLong(accountId)));
+                AccountView account = accountService.getAccountView(token, Long.parseLong(accountId));
+                if (includeTransactions) {
+                    account.setTransactions(transactionService.listTransactions(token, account.getId(), new TransactionFilter(), cursor, limit));
+                }
+                return ResponseEntity.status(HttpStatus.OK).body(account);
             } else {
                 Status status = new Status();
                 status.setStatus(HttpStatus.BAD_REQUEST.toString());
@@ -69,18 +99,90 @@ public class AccountController {
         }
     }
 
+    /**
+     * Retrieves the balance of an account at the end of a given day.
+     *
+     * @param token     The Authorization token for authentication.
+     * @param accountId The unique identifier of the account.
+     * @param date      The day in ISO format, for example 2024-01-31.
+     * @return ResponseEntity containing the AccountBalance if successful, or a status message indicating an error.
+     */
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<?> getBalance(@RequestHeader("Authorization") String token, @PathVariable Long accountId,
+                                        @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(balanceCheckpointService.getBalance(token, accountId, date));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Recomputes the balance checkpoints of an account from its transactions.
+     *
+     * @param token     The Authorization token for authentication.
+     * @param accountId The unique identifier of the account.
+     * @return ResponseEntity with status and message indicating the outcome of the operation.
+     */
+    @PostMapping("/{accountId}/checkpoints/rebuild")
+    public ResponseEntity<Status> rebuildCheckpoints(@RequestHeader("Authorization") String token, @PathVariable Long accountId) {
+        try {
+            int checkpoints = balanceCheckpointService.rebuildCheckpoints(token, accountId);
+
+            Status status = new Status();
+            status.setStatus(HttpStatus.OK.toString());
+            status.setMessage("Rebuilt " + checkpoints + " balance checkpoints");
+            status.setCode(HttpStatus.OK.value());
+            return ResponseEntity.status(HttpStatus.OK).body(status);
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Rebuilds the balance and credit limit of an account from its latest snapshot and the events
+     * recorded after it.
+     *
+     * @param token     The Authorization token for authentication.
+     * @param accountId The unique identifier of the account.
+     * @return ResponseEntity containing the rebuilt AccountBalance, or a status message if an error occurs.
+     */
+    @PostMapping("/{accountId}/events/rebuild")
+    public ResponseEntity<?> rebuildFromEvents(@RequestHeader("Authorization") String token, @PathVariable Long accountId) {
+        try {
+            accountService.verifyAccountAccess(token, accountId);
+            return ResponseEntity.status(HttpStatus.OK).body(accountEventService.rebuildAccount(accountId));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
 
     /**
-     * Updates an existing account with the provided details.
+     * Updates an existing account of the authenticated user with the provided details.
      *
-     * @param account The Account object containing updated information.
-     * @return ResponseEntity containing the updated Account if successful, or a status message if an error occurs.
+     * @param token     The Authorization token for authentication.
+     * @param accountId The unique identifier of the account to be updated.
+     * @param account   The Account object containing updated information.
+     * @return ResponseEntity containing the AccountView of the updated account if successful, or a status message if an error occurs.
      */
     @PutMapping("/{accountId}")
-    ResponseEntity<?> updateAccount(@PathVariable Long accountId, @RequestBody Account account) {
+    ResponseEntity<?> updateAccount(@RequestHeader("Authorization") String token, @PathVariable Long accountId,
+                                    @RequestBody Account account) {
         try {
-            Account updatedAccount = accountService.updateAccount(accountId, account);
-            return ResponseEntity.status(HttpStatus.OK).body(updatedAccount);
+            Account updatedAccount = accountService.updateAccount(token, accountId, account);
+            return ResponseEntity.status(HttpStatus.OK).body(AccountView.of(updatedAccount));
         } catch (Exception exception) {
             Status status = new Status();
             status.setStatus(HttpStatus.BAD_REQUEST.toString());
@@ -91,15 +193,16 @@ public class AccountController {
     }
 
     /**
-     * Deletes the account with the specified accountId.
+     * Deletes the account of the authenticated user with the specified accountId.
      *
+     * @param token     The Authorization token for authentication.
      * @param accountId The unique identifier of the account to be deleted.
      * @return ResponseEntity representing the status of the account deletion operation.
      */
     @DeleteMapping("/{accountId}")
-    ResponseEntity<?> deleteAccount(@PathVariable Long accountId) {
+    ResponseEntity<?> deleteAccount(@RequestHeader("Authorization") String token, @PathVariable Long accountId) {
         try {
-            accountService.deleteAccount(accountId);
+            accountService.deleteAccount(token, accountId);
             Status status = new Status();
             status.setStatus(HttpStatus.OK.toString());
             status.setMessage("Account deleted successfully");
@@ -0,0 +1,50 @@
+package com.finance.app.controller;
+
+import com.finance.app.model.EAutocompleteField;
+import com.finance.app.model.Status;
+import com.finance.app.service.AutocompleteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/autocomplete")
+public class AutocompleteController {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    /**
+     * Suggests the user's most used payees or descriptions starting with the text typed so far.
+     *
+     * @param token  The Authorization token for authentication.
+     * @param field  What to suggest, payee or description.
+     * @param prefix The text typed so far, matched ignoring case.
+     * @param limit  The maximum number of suggestions.
+     * @return ResponseEntity containing the suggestions, most used first, or a status message indicating an error.
+     */
+    @GetMapping
+    public ResponseEntity<?> suggest(@RequestHeader("Authorization") String token,
+                                     @RequestParam("field") String field,
+                                     @RequestParam(value = "prefix", defaultValue = "") String prefix,
+                                     @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            EAutocompleteField autocompleteField;
+            try {
+                autocompleteField = EAutocompleteField.valueOf(field.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException exception) {
+                throw new Exception("Invalid autocomplete field: " + field);
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(autocompleteService.suggest(token, autocompleteField, prefix, limit));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.finance.app.controller;
+
+import com.finance.app.model.Status;
+import com.finance.app.service.JournalDeadLetterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/journal")
+public class JournalController {
+
+    @Autowired
+    private JournalDeadLetterService journalDeadLetterService;
+
+    /**
+     * Lists the ledger journal records that could not be applied to the database. Administrators only.
+     *
+     * @param token    The Authorization token for authentication.
+     * @param replayed Whether to include the records that were already replayed.
+     * @return ResponseEntity containing the dead letters in journal order, or a status message indicating an error.
+     */
+    @GetMapping("/dead-letters")
+    public ResponseEntity<?> getDeadLetters(@RequestHeader("Authorization") String token,
+                                            @RequestParam(value = "replayed", defaultValue = "false") boolean replayed) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(journalDeadLetterService.getDeadLetters(token, replayed));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Applies a ledger journal record that could not be applied before. Administrators only.
+     *
+     * @param token    The Authorization token for authentication.
+     * @param sequence The journal sequence of the record.
+     * @return ResponseEntity containing the replayed dead letter, or a status message indicating an error.
+     */
+    @PostMapping("/dead-letters/{sequence}/replay")
+    public ResponseEntity<?> replay(@RequestHeader("Authorization") String token, @PathVariable long sequence) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(journalDeadLetterService.replay(token, sequence));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.finance.app.controller;
+
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.Category;
+import com.finance.app.model.Status;
+import com.finance.app.service.CategoryService;
+import com.finance.app.service.PayeeService;
+import com.finance.app.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/reference")
+public class ReferenceDataController {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PayeeService payeeService;
+
+    /**
+     * Lists every category, ordered by name.
+     *
+     * @param token The Authorization token for authentication.
+     * @return ResponseEntity containing the categories, or a status message indicating an error.
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<?> getCategories(@RequestHeader("Authorization") String token) {
+        try {
+            userService.getUser(token);
+            return ResponseEntity.status(HttpStatus.OK).body(categoryService.getCategories());
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Adds a category. Requires the ADMIN role, since categories are shared by all users.
+     *
+     * @param token    The Authorization token for authentication.
+     * @param category The category with its name and optional display name.
+     * @return ResponseEntity containing the saved category, or a status message indicating an error.
+     */
+    @PostMapping("/categories/add")
+    public ResponseEntity<?> addCategory(@RequestHeader("Authorization") String token, @RequestBody Category category) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(categoryService.addCategory(token, category));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Lists the payees of the authenticated user, ordered by name.
+     *
+     * @param token The Authorization token for authentication.
+     * @return ResponseEntity containing the payees, or a status message indicating an error.
+     */
+    @GetMapping("/payees")
+    public ResponseEntity<?> getPayees(@RequestHeader("Authorization") String token) {
+        try {
+            AuthenticatedUser user = userService.getUser(token);
+            return ResponseEntity.status(HttpStatus.OK).body(payeeService.getPayees(user.getId()));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+}
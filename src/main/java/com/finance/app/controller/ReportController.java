@@ -0,0 +1,115 @@
+package com.finance.app.controller;
+
+import com.finance.app.model.Status;
+import com.finance.app.report.ReportQuery;
+import com.finance.app.service.AdHocReportService;
+import com.finance.app.service.SpendingRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/report")
+public class ReportController {
+
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+
+    @Autowired
+    private AdHocReportService adHocReportService;
+
+    /**
+     * Retrieves the spending of the user in one month per category and transaction type.
+     *
+     * @param token     The Authorization token for authentication.
+     * @param year      The year of the month to report.
+     * @param month     The month to report, 1 to 12.
+     * @param accountId The account to restrict the report to; all accounts of the user when absent.
+     * @return ResponseEntity containing the SpendingReport if successful, or a status message indicating an error.
+     */
+    @GetMapping("/spending/monthly")
+    public ResponseEntity<?> getMonthlyReport(@RequestHeader("Authorization") String token,
+                                              @RequestParam("year") int year,
+                                              @RequestParam("month") int month,
+                                              @RequestParam(value = "accountId", required = false) Long accountId) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(spendingRollupService.getMonthlyReport(token, year, month, accountId));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Retrieves the spending of the user in every month of a year per category and transaction type.
+     *
+     * @param token     The Authorization token for authentication.
+     * @param year      The year to report.
+     * @param accountId The account to restrict the report to; all accounts of the user when absent.
+     * @return ResponseEntity containing the SpendingReport if successful, or a status message indicating an error.
+     */
+    @GetMapping("/spending/yearly")
+    public ResponseEntity<?> getYearlyReport(@RequestHeader("Authorization") String token,
+                                             @RequestParam("year") int year,
+                                             @RequestParam(value = "accountId", required = false) Long accountId) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(spendingRollupService.getYearlyReport(token, year, accountId));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Recomputes the spending rollups of the user from all of the user's transactions.
+     *
+     * @param token The Authorization token for authentication.
+     * @return ResponseEntity with status and message indicating the outcome of the operation.
+     */
+    @PostMapping("/spending/rebuild")
+    public ResponseEntity<Status> rebuildRollups(@RequestHeader("Authorization") String token) {
+        try {
+            int rows = spendingRollupService.rebuildRollups(token);
+
+            Status status = new Status();
+            status.setStatus(HttpStatus.OK.toString());
+            status.setMessage("Rebuilt " + rows + " spending rollups");
+            status.setCode(HttpStatus.OK.value());
+            return ResponseEntity.status(HttpStatus.OK).body(status);
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Runs an ad-hoc report over the transactions of the user's accounts, for example totals by
+     * payee, by transaction type or by week, or the top merchants.
+     *
+     * @param token The Authorization token for authentication.
+     * @param query The group-by dimensions, filter, ordering, top-N and time budget of the report.
+     * @return ResponseEntity containing the ReportResult if successful, or a status message indicating an error.
+     */
+    @PostMapping("/query")
+    public ResponseEntity<?> runReport(@RequestHeader("Authorization") String token, @RequestBody ReportQuery query) {
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(adHocReportService.runReport(token, query));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+}
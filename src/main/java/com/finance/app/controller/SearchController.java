@@ -0,0 +1,67 @@
+package com.finance.app.controller;
+
+import com.finance.app.model.Status;
+import com.finance.app.model.TransactionSearchFilter;
+import com.finance.app.service.TransactionSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    /**
+     * Searches the user's transactions by the words in their payee and description.
+     *
+     * @param token      The Authorization token for authentication.
+     * @param query      Words that must all appear in the payee or description; omit to list by filters only.
+     * @param from       First day to include, as yyyy-MM-dd.
+     * @param to         Last day to include, as yyyy-MM-dd.
+     * @param minAmount  Smallest amount to include.
+     * @param maxAmount  Largest amount to include.
+     * @param type       Transaction type to include.
+     * @param categoryId Category to include.
+     * @param accountId  Account to include.
+     * @param limit      The maximum number of transactions returned.
+     * @return ResponseEntity containing the matching transactions, or a status message indicating an error.
+     */
+    @GetMapping("/transactions")
+    public ResponseEntity<?> searchTransactions(@RequestHeader("Authorization") String token,
+                                                @RequestParam(value = "q", required = false) String query,
+                                                @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(value = "minAmount", required = false) BigDecimal minAmount,
+                                                @RequestParam(value = "maxAmount", required = false) BigDecimal maxAmount,
+                                                @RequestParam(value = "type", required = false) String type,
+                                                @RequestParam(value = "categoryId", required = false) Long categoryId,
+                                                @RequestParam(value = "accountId", required = false) Long accountId,
+                                                @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            TransactionSearchFilter filter = new TransactionSearchFilter();
+            filter.setQuery(query);
+            filter.setFrom(from);
+            filter.setTo(to);
+            filter.setMinAmount(minAmount);
+            filter.setMaxAmount(maxAmount);
+            filter.setType(type);
+            filter.setCategoryId(categoryId);
+            filter.setAccountId(accountId);
+            return ResponseEntity.status(HttpStatus.OK).body(transactionSearchService.search(token, filter, limit));
+        } catch (Exception exception) {
+            Status status = new Status();
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            status.setMessage(exception.getMessage());
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+}
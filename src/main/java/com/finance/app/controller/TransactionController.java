@@ -1,20 +1,54 @@
 package com.finance.app.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.app.exporter.TransactionExportFormat;
+import com.finance.app.exporter.TransactionRowWriter;
+import com.finance.app.importer.StatementFormat;
+import com.finance.app.importer.StatementParser;
+import com.finance.app.model.BulkTransactionResult;
 import com.finance.app.model.Status;
 import com.finance.app.model.Transaction;
+import com.finance.app.model.TransactionFilter;
+import com.finance.app.model.TransactionPage;
+import com.finance.app.service.AccountService;
 import com.finance.app.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/v1/transaction")
 public class TransactionController {
 
+    private static final String EXPORT_SLOT = TransactionController.class.getName() + ".EXPORT_SLOT";
+
     @Autowired
     TransactionService transactionService;
 
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
     /**
      * Adds a new transaction for a given account.
      *
@@ -27,7 +61,13 @@ public class TransactionController {
     public ResponseEntity<Status> addTransaction(@RequestHeader("Authorization") String token, @PathVariable Long accountId, @RequestBody Transaction transaction) {
         try {
             Transaction newTransaction = transactionService.addTransaction(token, accountId, transaction);
-            if (newTransaction != null) {
+            if (newTransaction != null && transactionService.isJournalEnabled()) {
+                Status status = new Status();
+                status.setCode(HttpStatus.ACCEPTED.value());
+                status.setMessage("Transaction accepted");
+                status.setStatus(HttpStatus.ACCEPTED.toString());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+            } else if (newTransaction != null) {
                 Status status = new Status();
                 status.setCode(HttpStatus.CREATED.value());
                 status.setMessage("Transaction added successfully");
@@ -49,4 +89,162 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
         }
     }
+
+    /**
+     * Lists the transactions of a given account, newest first, one page at a time.
+     *
+     * @param token      The authorization token for the user.
+     * @param accountId  The unique identifier of the account to list.
+     * @param from       The first day to include, in ISO format.
+     * @param to         The last day to include, in ISO format.
+     * @param type       The transaction type to include.
+     * @param status     The transaction status to include.
+     * @param categoryId The category to include.
+     * @param cursor     The nextCursor returned with the previous page; omitted for the first page.
+     * @param limit      The maximum number of transactions per page.
+     * @return ResponseEntity containing a TransactionPage, or a Status if the listing failed.
+     */
+    @GetMapping("/{accountId}")
+    public ResponseEntity<?> listTransactions(@RequestHeader("Authorization") String token, @PathVariable Long accountId,
+                                              @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @RequestParam(value = "type", required = false) String type,
+                                              @RequestParam(value = "status", required = false) String status,
+                                              @RequestParam(value = "categoryId", required = false) Long categoryId,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        try {
+            TransactionFilter filter = new TransactionFilter();
+            filter.setFrom(from);
+            filter.setTo(to);
+            filter.setType(type);
+            filter.setStatus(status);
+            filter.setCategoryId(categoryId);
+            TransactionPage page = transactionService.listTransactions(token, accountId, filter, cursor, limit);
+            return ResponseEntity.status(HttpStatus.OK).body(page);
+        } catch (Exception e) {
+            Status responseStatus = new Status();
+            responseStatus.setCode(HttpStatus.BAD_REQUEST.value());
+            responseStatus.setMessage("Transaction listing failed :: " + e.getMessage());
+            responseStatus.setStatus(HttpStatus.BAD_REQUEST.toString());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseStatus);
+        }
+    }
+
+    /**
+     * Adds a batch of transactions to a given account, written in chunks with batched inserts.
+     *
+     * @param token        The authorization token for the user.
+     * @param accountId    The unique identifier of the account to add the transactions to.
+     * @param transactions The Transaction objects to be added.
+     * @return ResponseEntity containing a BulkTransactionResult with the created count and per-row errors, or a Status if the request failed.
+     */
+    @PostMapping("/{accountId}/bulk")
+    public ResponseEntity<?> addTransactions(@RequestHeader("Authorization") String token, @PathVariable Long accountId, @RequestBody List<Transaction> transactions) {
+        try {
+            BulkTransactionResult result = transactionService.addTransactions(token, accountId, transactions);
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (Exception e) {
+            Status status = new Status();
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            status.setMessage("Transaction bulk add failed :: " + e.getMessage());
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Imports a CSV or OFX bank statement into a given account. The statement is parsed as a
+     * stream and written in bounded chunks, so its size does not affect memory use.
+     *
+     * @param token     The authorization token for the user.
+     * @param accountId The unique identifier of the account to import the statement into.
+     * @param file      The uploaded statement file.
+     * @param format    The statement format, csv or ofx; derived from the file name when absent.
+     * @return ResponseEntity containing a BulkTransactionResult with the imported count and per-line errors, or a Status if the import failed.
+     */
+    @PostMapping("/{accountId}/import")
+    public ResponseEntity<?> importStatement(@RequestHeader("Authorization") String token, @PathVariable Long accountId,
+                                             @RequestParam("file") MultipartFile file,
+                                             @RequestParam(value = "format", required = false) String format) {
+        try {
+            StatementFormat statementFormat = StatementFormat.resolve(format, file.getOriginalFilename());
+            try (StatementParser parser = statementFormat.open(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+                BulkTransactionResult result = transactionService.importTransactions(token, accountId, parser);
+                return ResponseEntity.status(HttpStatus.OK).body(result);
+            }
+        } catch (Exception e) {
+            Status status = new Status();
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            status.setMessage("Statement import failed :: " + e.getMessage());
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
+
+    /**
+     * Streams all transactions of an account as NDJSON or CSV. Rows are written as they are read
+     * from the database, so memory use stays constant and the first rows arrive immediately. Only
+     * {@code transaction.export.max-concurrent} exports run at once; further ones get 429. The slot
+     * is released when the export finishes, and also when the request completes without running it,
+     * such as when the client disconnects or the request times out.
+     *
+     * @param request   The current request.
+     * @param token     The authorization token for the user.
+     * @param accountId The unique identifier of the account to export.
+     * @param format    The export format, ndjson (default) or csv.
+     * @return ResponseEntity streaming the exported rows, or a Status if the export could not be started.
+     */
+    @GetMapping("/{accountId}/export")
+    public ResponseEntity<?> exportTransactions(WebRequest request, @RequestHeader("Authorization") String token, @PathVariable Long accountId,
+                                                @RequestParam(value = "format", required = false) String format) {
+        try {
+            TransactionExportFormat exportFormat = TransactionExportFormat.resolve(format);
+            accountService.verifyAccountAccess(token, accountId);
+            if (!transactionService.tryReserveExport()) {
+                Status status = new Status();
+                status.setCode(HttpStatus.TOO_MANY_REQUESTS.value());
+                status.setMessage("Too many exports in progress, try again later");
+                status.setStatus(HttpStatus.TOO_MANY_REQUESTS.toString());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(status);
+            }
+
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    transactionService.releaseExport();
+                }
+            };
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_SLOT, new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest completed, Callable<T> task) {
+                    release.run();
+                }
+            });
+
+            StreamingResponseBody body = outputStream -> {
+                try (TransactionRowWriter writer = exportFormat.open(outputStream, objectMapper)) {
+                    transactionService.exportTransactions(accountId, writer);
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Transaction export failed", e);
+                } finally {
+                    release.run();
+                }
+            };
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"transactions-" + accountId + "." + exportFormat.getExtension() + "\"")
+                    .body(body);
+        } catch (Exception e) {
+            Status status = new Status();
+            status.setCode(HttpStatus.BAD_REQUEST.value());
+            status.setMessage("Transaction export failed :: " + e.getMessage());
+            status.setStatus(HttpStatus.BAD_REQUEST.toString());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(status);
+        }
+    }
 }
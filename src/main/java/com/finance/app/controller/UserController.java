@@ -4,13 +4,16 @@ import com.finance.app.model.JwtResponse;
 import com.finance.app.model.LoginRequest;
 import com.finance.app.model.Status;
 import com.finance.app.model.User;
+import com.finance.app.model.UserProfile;
 import com.finance.app.repository.RoleRepository;
 import com.finance.app.repository.UserRepository;
+import com.finance.app.security.PasswordHashingRejectedException;
 import com.finance.app.security.jwt.JwtUtils;
 import com.finance.app.security.model.UserDetailsImpl;
 import com.finance.app.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -72,6 +75,8 @@ public class UserController {
             status.setStatus(HttpStatus.OK.getReasonPhrase());
             status.setMessage("User registered successfully");
             return ResponseEntity.status(HttpStatus.OK).body(status);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Status status = new Status();
             status.setCode(HttpStatus.BAD_REQUEST.value());
@@ -116,6 +121,11 @@ public class UserController {
             // Return the JWT token and user details in the response
             return ResponseEntity.status(HttpStatus.OK).body(status);
         } catch (Exception exception) {
+            // The authentication provider may wrap the rejection in an InternalAuthenticationServiceException
+            PasswordHashingRejectedException rejected = findPasswordHashingRejected(exception);
+            if (rejected != null) {
+                return tooManyRequests(rejected);
+            }
             Status status = new Status();
             status.setCode(HttpStatus.UNAUTHORIZED.value());
             status.setStatus(HttpStatus.UNAUTHORIZED.getReasonPhrase());
@@ -129,14 +139,14 @@ public class UserController {
      * Retrieves the profile information of the currently authenticated user.
      *
      * @param token the authorization token in the format "Bearer <token>"
-     * @return a ResponseEntity containing a Status object with details on the operation result
+     * @return a ResponseEntity containing the UserProfile with a summary of the user's accounts, or a Status object with details on the operation result
      */
     @GetMapping("/user")
     public ResponseEntity<?> getMyProfile(@RequestHeader("Authorization") String token) {
         try {
-            User user = userService.getUser(token);
-            if (user != null) {
-                return ResponseEntity.status(HttpStatus.OK).body(user);
+            UserProfile profile = userService.getProfile(token);
+            if (profile != null) {
+                return ResponseEntity.status(HttpStatus.OK).body(profile);
             } else {
                 Status status = new Status();
                 status.setCode(HttpStatus.OK.value());
@@ -159,12 +169,12 @@ public class UserController {
      *
      * @param token the authentication token for user validation.
      * @param user the User object containing updated user information like first name, last name, and email.
-     * @return a ResponseEntity with the updated User object if successful, or a Status object with details of the error.
+     * @return a ResponseEntity with the UserProfile of the updated user if successful, or a Status object with details of the error.
      */
     @PutMapping("/update")
     public ResponseEntity<?> updateUser(@RequestHeader("Authorization") String token, @Valid @RequestBody User user) {
         try {
-            User updatedUser = userService.updateUser(token, user);
+            UserProfile updatedUser = userService.updateUser(token, user);
             if (updatedUser != null) {
                 return ResponseEntity.status(HttpStatus.OK).body(updatedUser);
             } else {
@@ -183,4 +193,31 @@ public class UserController {
         }
     }
 
+    /**
+     * Returns the password hashing rejection in the cause chain of the given exception, or null if there is none.
+     */
+    private static PasswordHashingRejectedException findPasswordHashingRejected(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException rejected) {
+                return rejected;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the 429 response for a signin or signup turned away because password hashing is saturated.
+     *
+     * @param exception the rejection, carrying how long the client should wait before retrying
+     * @return a ResponseEntity with a Retry-After header and a Status object describing the rejection
+     */
+    private ResponseEntity<Status> tooManyRequests(PasswordHashingRejectedException exception) {
+        Status status = new Status();
+        status.setCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        status.setStatus(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        status.setMessage(exception.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(exception.getRetryAfterSeconds()))
+                .body(status);
+    }
 }
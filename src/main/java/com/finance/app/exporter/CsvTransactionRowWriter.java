@@ -0,0 +1,85 @@
+package com.finance.app.exporter;
+
+import com.finance.app.model.TransactionRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes rows as RFC 4180 CSV with a header line.
+ */
+public class CsvTransactionRowWriter implements TransactionRowWriter {
+
+    private static final String HEADER = "id,accountId,date,status,type,amount,payee,description,fromAccountId,toAccountId,categoryId,categoryName";
+
+    private final Writer writer;
+
+    public CsvTransactionRowWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(TransactionRow row) throws IOException {
+        writeField(row.getId());
+        writer.write(',');
+        writeField(row.getAccountId());
+        writer.write(',');
+        writeField(row.getDate());
+        writer.write(',');
+        writeField(row.getStatus());
+        writer.write(',');
+        writeField(row.getType());
+        writer.write(',');
+        writeField(row.getAmount() != null ? row.getAmount().toPlainString() : null);
+        writer.write(',');
+        writeField(row.getPayee());
+        writer.write(',');
+        writeField(row.getDescription());
+        writer.write(',');
+        writeField(row.getFromAccountId());
+        writer.write(',');
+        writeField(row.getToAccountId());
+        writer.write(',');
+        writeField(row.getCategoryId());
+        writer.write(',');
+        writeField(row.getCategoryName());
+        writer.write('\n');
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Flush only: the response stream is closed by the servlet container
+        writer.flush();
+    }
+}
@@ -0,0 +1,44 @@
+package com.finance.app.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.finance.app.model.TransactionRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes one JSON object per line through a single reused generator.
+ */
+public class NdjsonTransactionRowWriter implements TransactionRowWriter {
+
+    private final JsonGenerator generator;
+
+    private final ObjectWriter rowWriter;
+
+    public NdjsonTransactionRowWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.rowWriter = objectMapper.writerFor(TransactionRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    @Override
+    public void write(TransactionRow row) throws IOException {
+        rowWriter.writeValue(generator, row);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
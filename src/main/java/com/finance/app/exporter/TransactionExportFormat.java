@@ -0,0 +1,51 @@
+package com.finance.app.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+public enum TransactionExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"), CSV("text/csv", "csv");
+
+    private final String contentType;
+
+    private final String extension;
+
+    TransactionExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Opens a row writer for this format over the given output stream.
+     *
+     * @param outputStream the stream to write to
+     * @param objectMapper the mapper used for JSON output
+     * @return a writer producing this format
+     * @throws IOException if the writer cannot be created
+     */
+    public TransactionRowWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        return this == NDJSON ? new NdjsonTransactionRowWriter(outputStream, objectMapper) : new CsvTransactionRowWriter(outputStream);
+    }
+
+    /**
+     * Resolves an export format by name, case-insensitively, defaulting to NDJSON.
+     *
+     * @param format the format name, may be null
+     * @return the export format
+     * @throws IllegalArgumentException if the name does not denote a known format
+     */
+    public static TransactionExportFormat resolve(String format) {
+        return format == null || format.isBlank() ? NDJSON : valueOf(format.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,28 @@
+package com.finance.app.exporter;
+
+import com.finance.app.model.TransactionRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes transaction rows to an output stream one at a time, in a specific export format.
+ * Closing the writer flushes it but leaves the underlying stream open.
+ */
+public interface TransactionRowWriter extends Closeable {
+
+    /**
+     * Writes one row.
+     *
+     * @param row the row to write
+     * @throws IOException if the output cannot be written
+     */
+    void write(TransactionRow row) throws IOException;
+
+    /**
+     * Pushes everything written so far to the client.
+     *
+     * @throws IOException if the output cannot be written
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,179 @@
+package com.finance.app.importer;
+
+import com.finance.app.model.ETransactionStatus;
+import com.finance.app.model.ETransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams transactions out of a CSV bank statement, one line at a time.
+ * <p>
+ * The first line must be a header. Recognised columns, in any order and case, are {@code date},
+ * {@code amount} (or separate {@code debit} and {@code credit} columns), and the optional
+ * {@code type}, {@code status}, {@code payee} and {@code description}. Dates are ISO-8601 dates or
+ * date-times. Quoted fields may contain commas and doubled quotes but not line breaks.
+ */
+public class CsvStatementParser implements StatementParser {
+
+    private final BufferedReader reader;
+
+    private int lineNumber;
+
+    private int dateColumn = -1;
+    private int amountColumn = -1;
+    private int debitColumn = -1;
+    private int creditColumn = -1;
+    private int typeColumn = -1;
+    private int statusColumn = -1;
+    private int payeeColumn = -1;
+    private int descriptionColumn = -1;
+
+    private boolean headerRead;
+
+    public CsvStatementParser(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public StatementRecord next() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        try {
+            List<String> fields = split(line);
+            return StatementRecord.of(lineNumber, StatementTransactions.create(
+                    parseDate(field(fields, dateColumn)),
+                    parseSignedAmount(fields),
+                    parseType(field(fields, typeColumn)),
+                    parseStatus(field(fields, statusColumn)),
+                    field(fields, payeeColumn),
+                    field(fields, descriptionColumn)));
+        } catch (RuntimeException exception) {
+            return StatementRecord.error(lineNumber, "Line " + lineNumber + ": " + exception.getMessage());
+        }
+    }
+
+    private void readHeader() throws IOException {
+        headerRead = true;
+        String header = reader.readLine();
+        lineNumber++;
+        if (header == null) {
+            throw new IOException("Statement is empty");
+        }
+
+        List<String> columns = split(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "date", "transaction date", "posted date" -> dateColumn = i;
+                case "amount" -> amountColumn = i;
+                case "debit", "withdrawal" -> debitColumn = i;
+                case "credit", "deposit" -> creditColumn = i;
+                case "type" -> typeColumn = i;
+                case "status" -> statusColumn = i;
+                case "payee", "name", "merchant" -> payeeColumn = i;
+                case "description", "memo", "narration" -> descriptionColumn = i;
+                default -> {
+                }
+            }
+        }
+
+        if (dateColumn < 0 || (amountColumn < 0 && debitColumn < 0 && creditColumn < 0)) {
+            throw new IOException("Statement header must contain a date and an amount column");
+        }
+    }
+
+    private BigDecimal parseSignedAmount(List<String> fields) {
+        String amount = field(fields, amountColumn);
+        if (amount != null) {
+            return StatementTransactions.parseAmount(amount);
+        }
+        String debit = field(fields, debitColumn);
+        if (debit != null) {
+            return StatementTransactions.parseAmount(debit).abs().negate();
+        }
+        String credit = field(fields, creditColumn);
+        if (credit != null) {
+            return StatementTransactions.parseAmount(credit).abs();
+        }
+        throw new IllegalArgumentException("amount is missing");
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("date is missing");
+        }
+        try {
+            return value.length() > 10 ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("invalid date " + value);
+        }
+    }
+
+    private static ETransactionType parseType(String value) {
+        return value != null ? ETransactionType.valueOf(value.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    private static ETransactionStatus parseStatus(String value) {
+        return value != null ? ETransactionStatus.valueOf(value.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? StatementTransactions.emptyToNull(fields.get(column)) : null;
+    }
+
+    /**
+     * Splits one CSV line into its fields, honouring double-quoted fields.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,194 @@
+package com.finance.app.importer;
+
+import com.finance.app.model.ETransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Streams transactions out of an OFX bank statement, one {@code <STMTTRN>} block at a time.
+ * <p>
+ * Both the SGML flavour of OFX 1.x, where leaf elements have no closing tags, and the XML flavour
+ * of OFX 2.x are understood. Only {@code TRNTYPE}, {@code DTPOSTED}, {@code TRNAMT}, {@code NAME},
+ * {@code PAYEE} and {@code MEMO} are read; everything outside a transaction block is skipped.
+ */
+public class OfxStatementParser implements StatementParser {
+
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    private final BufferedReader reader;
+
+    private final StringBuilder token = new StringBuilder();
+
+    private int lineNumber = 1;
+
+    private int pending = -2;
+
+    public OfxStatementParser(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public StatementRecord next() throws IOException {
+        // Skip ahead to the start of the next transaction block
+        String tag;
+        do {
+            tag = nextTag();
+            if (tag == null) {
+                return null;
+            }
+        } while (!tag.equals("STMTTRN"));
+
+        int startLine = lineNumber;
+        String transactionType = null;
+        String datePosted = null;
+        String amount = null;
+        String name = null;
+        String memo = null;
+
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            if (tag.startsWith("/")) {
+                continue;
+            }
+            String value = nextText();
+            switch (tag) {
+                case "TRNTYPE" -> transactionType = value;
+                case "DTPOSTED" -> datePosted = value;
+                case "TRNAMT" -> amount = value;
+                case "NAME", "PAYEE" -> name = name == null ? value : name;
+                case "MEMO" -> memo = value;
+                default -> {
+                }
+            }
+        }
+
+        try {
+            if (datePosted == null || amount == null) {
+                throw new IllegalArgumentException("DTPOSTED and TRNAMT are required");
+            }
+            BigDecimal signedAmount = StatementTransactions.parseAmount(amount);
+            return StatementRecord.of(startLine, StatementTransactions.create(
+                    parseDate(datePosted), signedAmount, mapType(transactionType), null, name, memo));
+        } catch (RuntimeException exception) {
+            return StatementRecord.error(startLine, "Line " + startLine + ": " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Maps an OFX transaction type onto a transaction type. Types that do not say which way money
+     * moved, such as XFER or OTHER, are left to the sign of the amount.
+     */
+    private static ETransactionType mapType(String transactionType) {
+        if (transactionType == null) {
+            return null;
+        }
+        return switch (transactionType.trim().toUpperCase(Locale.ROOT)) {
+            case "CREDIT", "DEP", "INT", "DIV", "DIRECTDEP" -> ETransactionType.DEPOSIT;
+            case "DEBIT", "ATM", "POS", "PAYMENT", "FEE", "SRVCHG", "CHECK", "CASH", "DIRECTDEBIT", "REPEATPMT" ->
+                    ETransactionType.WITHDRAWAL;
+            default -> null;
+        };
+    }
+
+    /**
+     * Parses an OFX date such as {@code 20240131}, {@code 20240131120000} or
+     * {@code 20240131120000.000[-5:EST]}; the time zone suffix is ignored.
+     */
+    private static LocalDateTime parseDate(String value) {
+        String digits = value.trim();
+        int end = 0;
+        while (end < digits.length() && Character.isDigit(digits.charAt(end))) {
+            end++;
+        }
+        digits = digits.substring(0, end);
+        try {
+            LocalDate date = LocalDate.of(
+                    Integer.parseInt(digits.substring(0, 4)),
+                    Integer.parseInt(digits.substring(4, 6)),
+                    Integer.parseInt(digits.substring(6, 8)));
+            if (digits.length() >= 14) {
+                return date.atTime(LocalTime.of(
+                        Integer.parseInt(digits.substring(8, 10)),
+                        Integer.parseInt(digits.substring(10, 12)),
+                        Integer.parseInt(digits.substring(12, 14))));
+            }
+            return date.atStartOfDay();
+        } catch (RuntimeException exception) {
+            throw new DateTimeParseException("invalid date " + value, value, 0);
+        }
+    }
+
+    /**
+     * Reads up to and including the next tag and returns its upper-cased name, with a leading
+     * slash for closing tags.
+     */
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // text between tags outside a value is ignored
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        token.setLength(0);
+        while ((c = read()) != -1 && c != '>') {
+            if (token.length() < MAX_TOKEN_LENGTH) {
+                token.append((char) c);
+            }
+        }
+        String tag = token.toString().trim();
+        int space = tag.indexOf(' ');
+        return (space > 0 ? tag.substring(0, space) : tag).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads the text value following a tag, up to but not including the next tag.
+     */
+    private String nextText() throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) != -1 && c != '<') {
+            read();
+            if (token.length() < MAX_TOKEN_LENGTH) {
+                token.append((char) c);
+            }
+        }
+        return StatementTransactions.emptyToNull(decodeEntities(token.toString()));
+    }
+
+    private static String decodeEntities(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private int peek() throws IOException {
+        if (pending == -2) {
+            pending = reader.read();
+        }
+        return pending;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        pending = -2;
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.finance.app.importer;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.Locale;
+
+public enum StatementFormat {
+    CSV, OFX;
+
+    /**
+     * Opens a streaming parser for this format over the given reader.
+     *
+     * @param reader the statement content
+     * @return a parser reading entries from the reader
+     */
+    public StatementParser open(Reader reader) {
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        return this == CSV ? new CsvStatementParser(bufferedReader) : new OfxStatementParser(bufferedReader);
+    }
+
+    /**
+     * Determines the statement format from an explicit format name or, failing that, from the
+     * extension of the uploaded file name.
+     *
+     * @param format   the requested format name, may be null
+     * @param filename the name of the uploaded file, may be null
+     * @return the statement format
+     * @throws IllegalArgumentException if the format cannot be determined
+     */
+    public static StatementFormat resolve(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+        if (filename != null) {
+            String lowerCaseName = filename.toLowerCase(Locale.ROOT);
+            if (lowerCaseName.endsWith(".csv")) {
+                return CSV;
+            }
+            if (lowerCaseName.endsWith(".ofx") || lowerCaseName.endsWith(".qfx")) {
+                return OFX;
+            }
+        }
+        throw new IllegalArgumentException("Statement format could not be determined, use format=csv or format=ofx");
+    }
+}
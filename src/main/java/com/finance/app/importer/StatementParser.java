@@ -0,0 +1,19 @@
+package com.finance.app.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads bank statement entries one at a time from an underlying stream. Parsers never buffer
+ * more than the entry being read, so memory use does not depend on the size of the statement.
+ */
+public interface StatementParser extends Closeable {
+
+    /**
+     * Reads the next entry of the statement.
+     *
+     * @return the next entry, or null once the statement is exhausted
+     * @throws IOException if the underlying stream cannot be read
+     */
+    StatementRecord next() throws IOException;
+}
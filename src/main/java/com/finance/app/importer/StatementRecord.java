@@ -0,0 +1,29 @@
+package com.finance.app.importer;
+
+import com.finance.app.model.Transaction;
+import lombok.Data;
+
+/**
+ * One entry read from a bank statement: either a parsed transaction or the reason the entry
+ * could not be parsed.
+ */
+@Data
+public class StatementRecord {
+    private int lineNumber;
+    private Transaction transaction;
+    private String error;
+
+    public static StatementRecord of(int lineNumber, Transaction transaction) {
+        StatementRecord record = new StatementRecord();
+        record.setLineNumber(lineNumber);
+        record.setTransaction(transaction);
+        return record;
+    }
+
+    public static StatementRecord error(int lineNumber, String error) {
+        StatementRecord record = new StatementRecord();
+        record.setLineNumber(lineNumber);
+        record.setError(error);
+        return record;
+    }
+}
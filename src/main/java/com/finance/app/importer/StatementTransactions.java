@@ -0,0 +1,61 @@
+package com.finance.app.importer;
+
+import com.finance.app.model.ETransactionStatus;
+import com.finance.app.model.ETransactionType;
+import com.finance.app.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Maps the fields of a statement entry onto a {@link Transaction}.
+ */
+final class StatementTransactions {
+
+    private StatementTransactions() {
+    }
+
+    /**
+     * Creates a transaction from a statement entry.
+     * <p>
+     * Statements use signed amounts: money leaving the account is negative. When the statement
+     * does not state the type, a negative amount becomes a WITHDRAWAL and any other amount a
+     * DEPOSIT. The transaction amount is always stored as a positive value, with the direction
+     * carried by the type. Entries without a status are imported as UNRECONCILED.
+     */
+    static Transaction create(LocalDateTime date, BigDecimal signedAmount, ETransactionType type,
+                              ETransactionStatus status, String payee, String description) {
+        if (type == null) {
+            type = signedAmount.signum() < 0 ? ETransactionType.WITHDRAWAL : ETransactionType.DEPOSIT;
+        }
+        if (type == ETransactionType.TRANSFER) {
+            throw new IllegalArgumentException("Transfers cannot be imported from a statement");
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setDate(date);
+        transaction.setAmount(signedAmount.abs());
+        transaction.setType(type.name());
+        transaction.setStatus((status != null ? status : ETransactionStatus.UNRECONCILED).name());
+        transaction.setPayee(emptyToNull(payee));
+        transaction.setDescription(emptyToNull(description));
+        return transaction;
+    }
+
+    static BigDecimal parseAmount(String value) {
+        String amount = value.trim().replace(",", "");
+        if (amount.startsWith("(") && amount.endsWith(")")) {
+            // Accounting notation for negative amounts
+            amount = "-" + amount.substring(1, amount.length() - 1);
+        }
+        return new BigDecimal(amount);
+    }
+
+    static String emptyToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,47 @@
+package com.finance.app.journal;
+
+/**
+ * Reads durable journal records in sequence order, following the journal from segment to segment.
+ * A cursor is used by one thread at a time.
+ */
+public class JournalCursor {
+
+    private final LedgerJournal journal;
+
+    private final long afterSequence;
+
+    private JournalSegment segment;
+
+    private int position;
+
+    JournalCursor(LedgerJournal journal, JournalSegment segment, long afterSequence) {
+        this.journal = journal;
+        this.segment = segment;
+        this.afterSequence = afterSequence;
+    }
+
+    /**
+     * @return the next durable record, or null if there is none yet
+     */
+    public JournalRecord next() {
+        while (true) {
+            if (position < segment.readLimit()) {
+                JournalRecord record = segment.read(position);
+                position += segment.frameSize(position);
+                if (record.sequence() > afterSequence) {
+                    return record;
+                }
+                continue;
+            }
+            if (!segment.isSealed()) {
+                return null;
+            }
+            JournalSegment next = journal.segmentAfter(segment);
+            if (next == null) {
+                return null;
+            }
+            segment = next;
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.finance.app.journal;
+
+import com.finance.app.model.JournalOffset;
+import com.finance.app.repository.JournalOffsetRepository;
+import com.finance.app.service.JournalDeadLetterService;
+import com.finance.app.service.TransactionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Applies the ledger journal to the database in the background.
+ * <p>
+ * On startup the projector continues after the last sequence recorded in {@code journal_offset},
+ * which replays every record that was journaled but not yet applied before a crash. Records are
+ * applied in batches of {@code ledger.journal.projector-batch-size}, each in one database
+ * transaction together with the new offset. If a batch fails its records are applied one by one;
+ * a record that cannot be applied, for example because its account was deleted after the posting
+ * was accepted, is moved to the {@code journal_dead_letter} table to be replayed later, while
+ * database outages are retried until the database is back.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.journal.enabled", havingValue = "true")
+public class JournalProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalProjector.class);
+
+    private static final long IDLE_WAIT_MS = 100;
+
+    private static final long RETRY_DELAY_MS = 1000;
+
+    @Autowired
+    LedgerJournal ledgerJournal;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    JournalDeadLetterService journalDeadLetterService;
+
+    @Autowired
+    JournalOffsetRepository journalOffsetRepository;
+
+    @Value("${ledger.journal.projector-batch-size:500}")
+    private int batchSize;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (journalOffsetRepository.findAppliedSequence().isEmpty()) {
+            JournalOffset offset = new JournalOffset();
+            offset.setId(JournalOffset.LEDGER);
+            offset.setAppliedSequence(0);
+            journalOffsetRepository.save(offset);
+        }
+        running = true;
+        thread = new Thread(this::run, "journal-projector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+    private void run() {
+        long appliedSequence = journalOffsetRepository.findAppliedSequence().orElse(0L);
+        logger.info("Applying ledger journal after sequence {} (durable up to {})", appliedSequence, ledgerJournal.durableSequence());
+        JournalCursor cursor = ledgerJournal.openCursor(appliedSequence);
+        List<JournalRecord> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                JournalRecord record;
+                while (batch.size() < batchSize && (record = cursor.next()) != null) {
+                    batch.add(record);
+                }
+                if (batch.isEmpty()) {
+                    ledgerJournal.awaitRecordsAfter(appliedSequence, IDLE_WAIT_MS);
+                    continue;
+                }
+
+                long lastSequence = batch.get(batch.size() - 1).sequence();
+                apply(batch);
+                appliedSequence = lastSequence;
+                batch.clear();
+                ledgerJournal.release(appliedSequence);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The batch is kept and retried once the database is reachable again
+                logger.error("Applying ledger journal failed, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(List<JournalRecord> batch) throws Exception {
+        try {
+            transactionService.applyJournalRecords(batch);
+            return;
+        } catch (Exception e) {
+            if (isRetryable(e)) {
+                throw e;
+            }
+        }
+
+        // Isolate the records that cannot be applied; records are removed from the batch once
+        // applied or dead-lettered, so a retry after an outage does not apply them again
+        Iterator<JournalRecord> records = batch.iterator();
+        while (records.hasNext()) {
+            JournalRecord record = records.next();
+            try {
+                transactionService.applyJournalRecords(List.of(record));
+            } catch (Exception e) {
+                if (isRetryable(e)) {
+                    throw e;
+                }
+                logger.error("Moving ledger journal record {} for account {} to the dead letters: {}", record.sequence(), record.accountId(), e.getMessage());
+                journalDeadLetterService.deadLetter(record, e);
+            }
+            records.remove();
+        }
+    }
+
+    private static boolean isRetryable(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+}
@@ -0,0 +1,128 @@
+package com.finance.app.journal;
+
+import com.finance.app.model.ETransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * A posting as it is written to the ledger journal: everything needed to apply the transaction to
+ * the database later, in a compact binary form. Amounts are minor units of the ledger scale,
+ * absent ids are stored as 0 and the type is stored as a fixed code, so reordering or adding
+ * transaction types cannot change the meaning of records already in the journal.
+ *
+ * @param sequence the position of the record in the journal, assigned when it is appended
+ */
+public record JournalRecord(long sequence, long userId, long accountId, ETransactionType type, long amount,
+                            long fromAccountId, long toAccountId, long categoryId, LocalDateTime date,
+                            String status, String payee, String description) {
+
+    private static final int FIXED_SIZE = 7 * Long.BYTES + 1 + Integer.BYTES;
+
+    private static final int MAX_STRING_BYTES = 0xFFFF - 1;
+
+    private static final int NULL_STRING = 0xFFFF;
+
+    /**
+     * Encodes the record without its sequence, which the journal writes into the frame header.
+     *
+     * @return the encoded payload
+     * @throws IllegalArgumentException if a text field is longer than 65534 bytes in UTF-8
+     */
+    byte[] encode() {
+        byte[] statusBytes = bytesOf(status);
+        byte[] payeeBytes = bytesOf(payee);
+        byte[] descriptionBytes = bytesOf(description);
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + 3 * Short.BYTES
+                + length(statusBytes) + length(payeeBytes) + length(descriptionBytes));
+        buffer.putLong(userId)
+                .putLong(accountId)
+                .put(typeCode(type))
+                .putLong(amount)
+                .putLong(fromAccountId)
+                .putLong(toAccountId)
+                .putLong(categoryId)
+                .putLong(date.toEpochSecond(ZoneOffset.UTC))
+                .putInt(date.getNano());
+        putString(buffer, statusBytes);
+        putString(buffer, payeeBytes);
+        putString(buffer, descriptionBytes);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a payload written by {@link #encode()}.
+     *
+     * @param sequence the sequence from the frame header
+     * @param payload  a buffer positioned at the start of the payload
+     * @return the decoded record
+     * @throws IllegalArgumentException if the payload has an unknown type code
+     */
+    static JournalRecord decode(long sequence, ByteBuffer payload) {
+        long userId = payload.getLong();
+        long accountId = payload.getLong();
+        ETransactionType type = typeOf(payload.get(), sequence);
+        long amount = payload.getLong();
+        long fromAccountId = payload.getLong();
+        long toAccountId = payload.getLong();
+        long categoryId = payload.getLong();
+        LocalDateTime date = LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(), ZoneOffset.UTC);
+        return new JournalRecord(sequence, userId, accountId, type, amount, fromAccountId, toAccountId, categoryId,
+                date, getString(payload), getString(payload), getString(payload));
+    }
+
+    /**
+     * The journal codes of the transaction types, the ordinals they were first written with.
+     */
+    private static byte typeCode(ETransactionType type) {
+        return switch (type) {
+            case WITHDRAWAL -> 0;
+            case DEPOSIT -> 1;
+            case TRANSFER -> 2;
+        };
+    }
+
+    private static ETransactionType typeOf(byte code, long sequence) {
+        return switch (code) {
+            case 0 -> ETransactionType.WITHDRAWAL;
+            case 1 -> ETransactionType.DEPOSIT;
+            case 2 -> ETransactionType.TRANSFER;
+            default -> throw new IllegalArgumentException("Unknown transaction type code " + code + " in journal record " + sequence);
+        };
+    }
+
+    private static byte[] bytesOf(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Text field is too long for the journal");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) NULL_STRING);
+        } else {
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
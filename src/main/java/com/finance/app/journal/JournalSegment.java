@@ -0,0 +1,203 @@
+package com.finance.app.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped, preallocated file of the ledger journal.
+ * <p>
+ * The file is a sequence of frames {@code [int length][int crc][long sequence][payload]}, where
+ * length counts the sequence and payload bytes and the CRC-32C covers them. A zero length marks
+ * the end of the written frames. Frames are only appended by the journal while it holds its lock;
+ * readers may read concurrently up to {@link #readLimit()}, which only covers frames that have
+ * been forced to disk.
+ */
+class JournalSegment implements Closeable {
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final Path path;
+
+    private final long firstSequence;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private int position;
+
+    private long lastSequence;
+
+    private volatile int readLimit;
+
+    private volatile boolean sealed;
+
+    private JournalSegment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    /**
+     * Creates and maps a new, zero-filled segment file.
+     */
+    static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = directory.resolve(fileName(firstSequence));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new JournalSegment(path, firstSequence, channel, buffer);
+    }
+
+    /**
+     * Maps an existing segment file and finds the end of its valid frames. A frame that is torn or
+     * fails its checksum, as left behind by a crash, ends the segment.
+     */
+    static JournalSegment open(Path path) throws IOException {
+        long firstSequence = Long.parseLong(path.getFileName().toString().replaceAll("\\D", ""));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        JournalSegment segment = new JournalSegment(path, firstSequence, channel, buffer);
+
+        int position = 0;
+        while (segment.isValidFrame(position)) {
+            segment.lastSequence = buffer.getLong(position + HEADER_SIZE);
+            position += HEADER_SIZE + buffer.getInt(position);
+        }
+        segment.position = position;
+        segment.readLimit = position;
+        if (position + Integer.BYTES <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+        return segment;
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("journal-%020d.log", firstSequence);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        return path.getFileName().toString().matches("journal-\\d{20}\\.log");
+    }
+
+    /**
+     * Appends a frame, leaving room for the end marker behind it.
+     *
+     * @return false if the segment is too full to take the frame
+     */
+    boolean append(long sequence, byte[] payload) {
+        int length = Long.BYTES + payload.length;
+        int end = position + HEADER_SIZE + length;
+        if (end + Integer.BYTES > buffer.capacity()) {
+            return false;
+        }
+        buffer.putInt(end, 0);
+        buffer.putLong(position + HEADER_SIZE, sequence);
+        buffer.put(position + HEADER_SIZE + Long.BYTES, payload);
+        buffer.putInt(position + Integer.BYTES, checksum(position + HEADER_SIZE, length));
+        buffer.putInt(position, length);
+        position = end;
+        lastSequence = sequence;
+        return true;
+    }
+
+    /**
+     * Reads the frame at the given position, which must be below {@link #readLimit()}.
+     */
+    JournalRecord read(int position) {
+        int length = buffer.getInt(position);
+        long sequence = buffer.getLong(position + HEADER_SIZE);
+        return JournalRecord.decode(sequence, buffer.slice(position + HEADER_SIZE + Long.BYTES, length - Long.BYTES));
+    }
+
+    /**
+     * @return the total size of the frame at the given position, which must be below {@link #readLimit()}
+     */
+    int frameSize(int position) {
+        return HEADER_SIZE + buffer.getInt(position);
+    }
+
+    /**
+     * Forces the written frames to disk.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Makes the frames up to the given position visible to readers; the limit never moves back.
+     */
+    synchronized void publish(int limit) {
+        if (limit > readLimit) {
+            readLimit = limit;
+        }
+    }
+
+    /**
+     * Marks the segment as complete; no further frames will be appended.
+     */
+    void seal() {
+        publish(position);
+        sealed = true;
+    }
+
+    int position() {
+        return position;
+    }
+
+    int readLimit() {
+        return readLimit;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    boolean isEmpty() {
+        return position == 0;
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean isValidFrame(int position) {
+        if (position + HEADER_SIZE + Long.BYTES > buffer.capacity()) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        if (length < Long.BYTES || position + HEADER_SIZE + length > buffer.capacity()) {
+            return false;
+        }
+        return buffer.getInt(position + Integer.BYTES) == checksum(position + HEADER_SIZE, length);
+    }
+
+    private int checksum(int offset, int length) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer frame = buffer.slice(offset, length);
+        crc.update(frame);
+        return (int) crc.getValue();
+    }
+}
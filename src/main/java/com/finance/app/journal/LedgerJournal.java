@@ -0,0 +1,316 @@
+package com.finance.app.journal;
+
+import com.finance.app.repository.JournalOffsetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local log of postings, written ahead of the database.
+ * <p>
+ * Records go into memory-mapped segment files of {@code ledger.journal.segment-size} bytes; a new
+ * segment is started when the active one is full. Appends only copy the record into the mapping.
+ * A single flusher thread forces the active segment to disk every
+ * {@code ledger.journal.fsync-interval-ms}, or as soon as {@code ledger.journal.fsync-batch-bytes}
+ * have been appended, so one fsync covers every record appended since the previous one (group
+ * commit). With {@code ledger.journal.await-durable=true} an append returns only once its record
+ * is on disk; with false it returns as soon as the record is in the mapping, which survives a
+ * crash of the application but not of the operating system.
+ * <p>
+ * Only records on disk are handed to readers, and segments are deleted once every record in them
+ * has been applied to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "ledger.journal.enabled", havingValue = "true")
+public class LedgerJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+
+    @Autowired
+    JournalOffsetRepository journalOffsetRepository;
+
+    @Value("${ledger.journal.directory:journal}")
+    private String directory;
+
+    @Value("${ledger.journal.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${ledger.journal.fsync-interval-ms:2}")
+    private long fsyncIntervalMs;
+
+    @Value("${ledger.journal.fsync-batch-bytes:1048576}")
+    private int fsyncBatchBytes;
+
+    @Value("${ledger.journal.await-durable:true}")
+    private boolean awaitDurable;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition flushNeeded = lock.newCondition();
+
+    private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+
+    private final Object durableMonitor = new Object();
+
+    private Path directoryPath;
+
+    private JournalSegment active;
+
+    private long nextSequence;
+
+    private long appendedSequence;
+
+    private int unflushedBytes;
+
+    private volatile long durableSequence;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    /**
+     * Recovers the segments left by a previous run and starts the flusher.
+     */
+    @PostConstruct
+    void open() throws IOException {
+        directoryPath = Paths.get(directory);
+        Files.createDirectories(directoryPath);
+
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(directoryPath)) {
+            files = paths.filter(JournalSegment::isSegmentFile).sorted().toList();
+        }
+        for (Path file : files) {
+            JournalSegment segment = JournalSegment.open(file);
+            if (!segments.isEmpty()) {
+                segments.get(segments.size() - 1).seal();
+            }
+            segments.add(segment);
+        }
+
+        // Never reuse sequences the database has already applied, even if the files are gone
+        long appliedSequence = journalOffsetRepository.findAppliedSequence().orElse(0L);
+        long lastSequence = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).lastSequence();
+        nextSequence = Math.max(lastSequence, appliedSequence) + 1;
+        if (segments.isEmpty() || segments.get(segments.size() - 1).lastSequence() < appliedSequence) {
+            if (!segments.isEmpty()) {
+                segments.get(segments.size() - 1).seal();
+            }
+            segments.add(JournalSegment.create(directoryPath, nextSequence, segmentSize));
+        }
+        active = segments.get(segments.size() - 1);
+        active.force();
+        active.publish(active.position());
+        appendedSequence = nextSequence - 1;
+        durableSequence = appendedSequence;
+        logger.info("Ledger journal opened with {} segment(s), next sequence {}", segments.size(), nextSequence);
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param record the record to append; its sequence is ignored
+     * @return the sequence assigned to the record
+     * @throws IOException          if the journal is closed or the record cannot be written
+     * @throws InterruptedException if interrupted while waiting for the record to become durable
+     */
+    public long append(JournalRecord record) throws IOException, InterruptedException {
+        byte[] payload = record.encode();
+        long sequence;
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IOException("Ledger journal is closed");
+            }
+            sequence = nextSequence;
+            if (!active.append(sequence, payload)) {
+                roll();
+                if (!active.append(sequence, payload)) {
+                    throw new IOException("Journal record does not fit in a segment");
+                }
+            }
+            nextSequence++;
+            appendedSequence = sequence;
+            unflushedBytes += JournalSegment.HEADER_SIZE + Long.BYTES + payload.length;
+            if (unflushedBytes >= fsyncBatchBytes) {
+                flushNeeded.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (awaitDurable) {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * Opens a cursor over the durable records following the given sequence.
+     *
+     * @param afterSequence the last sequence the reader has already processed
+     * @return a cursor positioned before the first record with a higher sequence
+     */
+    public JournalCursor openCursor(long afterSequence) {
+        JournalSegment start = segments.get(0);
+        for (JournalSegment segment : segments) {
+            if (segment.firstSequence() <= afterSequence + 1) {
+                start = segment;
+            }
+        }
+        return new JournalCursor(this, start, afterSequence);
+    }
+
+    /**
+     * Waits until records after the given sequence are durable or the timeout elapses.
+     */
+    public void awaitRecordsAfter(long sequence, long timeoutMs) throws InterruptedException {
+        synchronized (durableMonitor) {
+            if (durableSequence <= sequence && running) {
+                durableMonitor.wait(timeoutMs);
+            }
+        }
+    }
+
+    /**
+     * Deletes the segments whose records have all been applied.
+     *
+     * @param appliedSequence the highest sequence applied to the database
+     */
+    public void release(long appliedSequence) {
+        for (JournalSegment segment : segments) {
+            if (segment.isSealed() && segment.lastSequence() <= appliedSequence) {
+                segments.remove(segment);
+                try {
+                    segment.delete();
+                } catch (IOException e) {
+                    logger.warn("Could not delete journal segment {}: {}", JournalSegment.fileName(segment.firstSequence()), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the highest sequence that is on disk
+     */
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Returns the segment following the given one, which may already have been released.
+     */
+    JournalSegment segmentAfter(JournalSegment segment) {
+        for (JournalSegment candidate : segments) {
+            if (candidate.firstSequence() > segment.firstSequence()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join();
+        for (JournalSegment segment : segments) {
+            segment.force();
+            segment.close();
+        }
+        synchronized (durableMonitor) {
+            durableMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Seals the full active segment and starts a new one. Must be called while holding the lock.
+     */
+    private void roll() throws IOException {
+        active.force();
+        active.seal();
+        publishDurable(appendedSequence);
+        unflushedBytes = 0;
+        active = JournalSegment.create(directoryPath, nextSequence, segmentSize);
+        segments.add(active);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            JournalSegment segment;
+            long target;
+            int position;
+            lock.lock();
+            try {
+                if (running && unflushedBytes < fsyncBatchBytes) {
+                    flushNeeded.await(fsyncIntervalMs, TimeUnit.MILLISECONDS);
+                }
+                segment = active;
+                target = appendedSequence;
+                position = segment.position();
+                unflushedBytes = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (target > durableSequence) {
+                // Forced outside the lock, so appends continue while the disk catches up
+                segment.force();
+                segment.publish(position);
+                publishDurable(target);
+            }
+            if (!running) {
+                return;
+            }
+        }
+    }
+
+    private void publishDurable(long sequence) {
+        synchronized (durableMonitor) {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+            }
+            durableMonitor.notifyAll();
+        }
+    }
+
+    private void awaitDurable(long sequence) throws IOException, InterruptedException {
+        synchronized (durableMonitor) {
+            while (durableSequence < sequence) {
+                if (!running) {
+                    throw new IOException("Ledger journal closed before the record became durable");
+                }
+                durableMonitor.wait();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The balance of an account at the end of a given day.
+ */
+@Data
+@AllArgsConstructor
+public class AccountBalance {
+    private Long accountId;
+    private LocalDate date;
+    private BigDecimal balance;
+}
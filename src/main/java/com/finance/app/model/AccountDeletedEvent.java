@@ -0,0 +1,13 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published inside the database transaction that deletes an account.
+ */
+@Data
+@AllArgsConstructor
+public class AccountDeletedEvent {
+    private Long accountId;
+}
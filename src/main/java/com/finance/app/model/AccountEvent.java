@@ -0,0 +1,53 @@
+package com.finance.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to the state of an account. The events of an account form an append-only stream
+ * numbered by {@code version}, starting with the OPENED event that carries the opening balance and
+ * credit limit; the account's state is the sum of the changes of all its events.
+ * <p>
+ * Amounts are in minor units of {@link Money#LEDGER_SCALE}. A posting only changes the credit
+ * limit of a credit card account that has one, so other postings record no credit limit change.
+ * Each event also records the type of the account at the time, and a TYPE_CHANGED event the new type.
+ */
+@Entity
+@Immutable
+@Table(name = "account_event", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_event_account_version", columnNames = {"account_id", "version"})
+})
+@Data
+public class AccountEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_event_seq")
+    @SequenceGenerator(name = "account_event_seq", sequenceName = "account_event_seq", allocationSize = 50)
+    private long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "balance_delta", nullable = false)
+    private long balanceDelta;
+
+    @Column(name = "credit_delta", nullable = false)
+    private long creditDelta;
+
+    @Column(name = "account_type")
+    private String accountType;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,17 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The summed changes of the events of an account after a given version.
+ */
+@Data
+@AllArgsConstructor
+public class AccountEventTail {
+    private Long accountId;
+    private Long events;
+    private Long balanceDelta;
+    private Long creditDelta;
+    private Long lastVersion;
+}
@@ -0,0 +1,49 @@
+package com.finance.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * The state of an account folded from its event stream up to and including {@code version}, so
+ * that rebuilding the account only has to replay the events after it.
+ * <p>
+ * The row also records the version of the newest event in the stream. Appending events locks the
+ * row, which numbers the events of an account without gaps even across application instances.
+ * Amounts are in minor units of {@link Money#LEDGER_SCALE}.
+ */
+@Entity
+@Table(name = "account_snapshot")
+@Data
+public class AccountSnapshot {
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "balance", nullable = false)
+    private long balance;
+
+    @Column(name = "credit_limit", nullable = false)
+    private long creditLimit;
+
+    @Column(name = "stream_version", nullable = false)
+    private long streamVersion;
+
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+
+    /**
+     * Folds the given tail of events into this snapshot.
+     *
+     * @param tail the summed changes of the events after this snapshot's version
+     */
+    public void apply(AccountEventTail tail) {
+        balance = Math.addExact(balance, tail.getBalanceDelta());
+        creditLimit = Math.addExact(creditLimit, tail.getCreditDelta());
+        version = Math.max(version, tail.getLastVersion());
+    }
+}
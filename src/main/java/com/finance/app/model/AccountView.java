@@ -0,0 +1,48 @@
+package com.finance.app.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an account without its user or transactions. A page of transactions is only
+ * attached when it is explicitly requested.
+ */
+@Data
+@NoArgsConstructor
+public class AccountView {
+    private Long id;
+    private String name;
+    private String type;
+    private BigDecimal startingBalance;
+    private BigDecimal currentBalance;
+    private BigDecimal creditLimit;
+    private String currency;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TransactionPage transactions;
+
+    public AccountView(Long id, String name, String type, BigDecimal startingBalance, BigDecimal currentBalance,
+                       BigDecimal creditLimit, String currency, LocalDateTime createdDate, LocalDateTime updatedDate) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.startingBalance = startingBalance;
+        this.currentBalance = currentBalance;
+        this.creditLimit = creditLimit;
+        this.currency = currency;
+        this.createdDate = createdDate;
+        this.updatedDate = updatedDate;
+    }
+
+    public static AccountView of(Account account) {
+        return new AccountView(account.getId(), account.getName(), account.getType(), account.getStartingBalance(),
+                account.getCurrentBalance(), account.getCreditLimit(), account.getCurrency(),
+                account.getCreatedDate(), account.getUpdatedDate());
+    }
+}
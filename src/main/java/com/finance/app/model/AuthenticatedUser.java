@@ -0,0 +1,24 @@
+package com.finance.app.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable view of an authenticated user, safe to cache and share between requests. Load the
+ * {@link User} entity when it has to be modified or referenced from another entity.
+ */
+@Value
+public class AuthenticatedUser {
+    Long id;
+    String username;
+    List<String> roles;
+
+    /**
+     * @param user the user, with its roles loaded
+     */
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(),
+                user.getRoles().stream().map(role -> role.getName().name()).toList());
+    }
+}
@@ -0,0 +1,34 @@
+package com.finance.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The balance of an account at the end of a period, kept up to date as transactions are posted so
+ * that the balance on any date can be computed from the nearest earlier checkpoint.
+ */
+@Entity
+@Table(name = "balance_checkpoint", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_balance_checkpoint_account_period", columnNames = {"account_id", "period_end"})
+})
+@Data
+public class BalanceCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    /**
+     * Last day of the period; the balance includes every transaction dated on or before this day.
+     */
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+}
@@ -0,0 +1,14 @@
+package com.finance.app.model;
+
+import lombok.Data;
+
+@Data
+public class BulkTransactionError {
+    private int index;
+    private String message;
+
+    public BulkTransactionError(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+}
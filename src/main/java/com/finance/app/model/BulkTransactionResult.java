@@ -0,0 +1,32 @@
+package com.finance.app.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkTransactionResult {
+    /**
+     * Maximum number of row errors listed in a result; further failures are only counted.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int received;
+    private int created;
+    private int failed;
+    private List<BulkTransactionError> errors = new ArrayList<>();
+
+    /**
+     * Records that a row could not be added.
+     *
+     * @param index   the zero-based position of the row in the submitted batch, or its line number for imports
+     * @param message the reason the row was rejected
+     */
+    public void addError(int index, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new BulkTransactionError(index, message));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.finance.app.model;
+
+public enum EAccountEventType {
+    OPENED("Opened"), DEPOSIT("Deposit"), WITHDRAWAL("Withdrawal"), TRANSFER_OUT("Transfer out"),
+    TRANSFER_IN("Transfer in"), ADJUSTMENT("Adjustment"), TYPE_CHANGED("Type changed");
+
+    EAccountEventType(String type) {
+    }
+}
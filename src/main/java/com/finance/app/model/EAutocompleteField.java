@@ -0,0 +1,6 @@
+package com.finance.app.model;
+
+public enum EAutocompleteField {
+    PAYEE,
+    DESCRIPTION
+}
@@ -0,0 +1,71 @@
+package com.finance.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A ledger journal record that could not be applied to the database, kept with the reason it
+ * failed so that it can be inspected and replayed instead of being lost. The client was already
+ * told the posting was accepted, so every row here is a posting still owed to an account.
+ */
+@Entity
+@Table(name = "journal_dead_letter", indexes = {
+        @Index(name = "idx_journal_dead_letter_replayed_date", columnList = "replayed_date")
+})
+@Data
+public class JournalDeadLetter {
+    /**
+     * The sequence of the record in the ledger journal.
+     */
+    @Id
+    @Column(name = "journal_sequence")
+    private long sequence;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "from_account_id")
+    private Long fromAccountId;
+
+    @Column(name = "to_account_id")
+    private Long toAccountId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDateTime date;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "payee")
+    private String payee;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "error", nullable = false, length = 1000)
+    private String error;
+
+    @Column(name = "failed_date", nullable = false)
+    private LocalDateTime failedDate;
+
+    /**
+     * When the record was applied by a replay; null while it is still owed.
+     */
+    @Column(name = "replayed_date")
+    private LocalDateTime replayedDate;
+}
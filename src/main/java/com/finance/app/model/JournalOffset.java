@@ -0,0 +1,22 @@
+package com.finance.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * The sequence of the last ledger journal record applied to the database. Updated in the same
+ * database transaction as the postings it covers, so after a crash the journal is replayed from
+ * exactly the first record that was not applied.
+ */
+@Entity
+@Table(name = "journal_offset")
+@Data
+public class JournalOffset {
+    public static final int LEDGER = 1;
+
+    @Id
+    private int id;
+
+    @Column(name = "applied_sequence", nullable = false)
+    private long appliedSequence;
+}
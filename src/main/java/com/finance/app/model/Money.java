@@ -0,0 +1,165 @@
+package com.finance.app.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * An amount of money held as a whole number of minor units, such as cents, together with the
+ * number of decimal places those units represent.
+ * <p>
+ * Arithmetic is exact and overflow-checked: operations throw {@link ArithmeticException} instead of
+ * rounding or wrapping. Hot paths that must not allocate use the static helpers on plain
+ * {@code long} minor units and only convert to {@link BigDecimal} at the database or JSON boundary.
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * Scale of the amount and balance columns, which are created as {@code DECIMAL(38,2)}. Ledger
+     * arithmetic on these columns is done in minor units of this scale.
+     */
+    public static final int LEDGER_SCALE = 2;
+
+    /**
+     * Scale used for currencies without a defined number of fraction digits.
+     */
+    private static final int DEFAULT_SCALE = 2;
+
+    private static final int MAX_SCALE = 18;
+
+    private final long minorUnits;
+
+    private final int scale;
+
+    private Money(long minorUnits, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE);
+        }
+        this.minorUnits = minorUnits;
+        this.scale = scale;
+    }
+
+    /**
+     * @param minorUnits the amount in minor units
+     * @param scale      the number of decimal places of a minor unit
+     * @return the amount
+     */
+    public static Money ofMinor(long minorUnits, int scale) {
+        return new Money(minorUnits, scale);
+    }
+
+    /**
+     * @param amount the amount
+     * @param scale  the number of decimal places of a minor unit
+     * @return the amount in minor units of the given scale
+     * @throws ArithmeticException if the amount has more decimal places than the scale or does not fit
+     */
+    public static Money of(BigDecimal amount, int scale) {
+        return new Money(toMinorUnits(amount, scale), scale);
+    }
+
+    /**
+     * @param amount       the amount
+     * @param currencyCode the ISO 4217 code of the currency the amount is in
+     * @return the amount in minor units of the currency
+     * @throws ArithmeticException      if the amount has more decimal places than the currency or does not fit
+     * @throws IllegalArgumentException if the currency code is unknown
+     */
+    public static Money of(BigDecimal amount, String currencyCode) {
+        return of(amount, scaleOf(currencyCode));
+    }
+
+    /**
+     * @param currencyCode the ISO 4217 code of a currency
+     * @return the number of decimal places of the currency's minor unit, for example 2 for USD and 0 for JPY
+     * @throws IllegalArgumentException if the currency code is unknown
+     */
+    public static int scaleOf(String currencyCode) {
+        int digits = Currency.getInstance(currencyCode).getDefaultFractionDigits();
+        return digits < 0 ? DEFAULT_SCALE : digits;
+    }
+
+    /**
+     * Converts an amount to minor units without rounding.
+     *
+     * @param amount the amount
+     * @param scale  the number of decimal places of a minor unit
+     * @return the amount in minor units
+     * @throws ArithmeticException if the amount has more decimal places than the scale or does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount, int scale) {
+        try {
+            return amount.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException exception) {
+            throw new ArithmeticException("Amount " + amount.toPlainString() + " does not fit in minor units of scale " + scale);
+        }
+    }
+
+    /**
+     * @param minorUnits the amount in minor units
+     * @param scale      the number of decimal places of a minor unit
+     * @return the amount as a BigDecimal of the given scale
+     */
+    public static BigDecimal toBigDecimal(long minorUnits, int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public Money plus(Money other) {
+        checkScale(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), scale);
+    }
+
+    public Money minus(Money other) {
+        checkScale(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), scale);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), scale);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minorUnits, scale);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkScale(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.minorUnits == minorUnits && money.scale == scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + scale;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private void checkScale(Money other) {
+        if (other.scale != scale) {
+            throw new ArithmeticException("Cannot combine amounts of scale " + scale + " and " + other.scale);
+        }
+    }
+}
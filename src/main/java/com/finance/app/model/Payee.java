@@ -6,14 +6,21 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payee")
+@Table(name = "payee", uniqueConstraints = @UniqueConstraint(name = "uk_payee_user_name", columnNames = {"user_id", "name"}))
 @Data
 public class Payee {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "name", nullable = false, unique = true)
+    /**
+     * The user who entered the payee; every user has their own payees. Payees stored before they
+     * were kept per user have none and are no longer served.
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "name", nullable = false)
     private String name;
 
     @Column(name = "created_date", nullable = false)
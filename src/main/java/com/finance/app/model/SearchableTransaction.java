@@ -0,0 +1,26 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a transaction kept in the full-text search index, which are also what a search returns.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchableTransaction {
+    private Long id;
+    private Long userId;
+    private Long accountId;
+    private LocalDateTime date;
+    private String type;
+    private BigDecimal amount;
+    private Long categoryId;
+    private String payee;
+    private String description;
+}
@@ -0,0 +1,21 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SpendingReport {
+    /**
+     * First day of the reported period.
+     */
+    private LocalDate from;
+    /**
+     * First day after the reported period.
+     */
+    private LocalDate to;
+    private List<SpendingReportRow> rows;
+}
@@ -0,0 +1,29 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Total of the transactions of one type in one category and month, across the selected accounts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingReportRow {
+    /**
+     * First day of the month.
+     */
+    private LocalDate month;
+    /**
+     * Category id, or null for transactions without a category.
+     */
+    private Long categoryId;
+    private String categoryName;
+    private String type;
+    private BigDecimal amount;
+    private Long transactionCount;
+}
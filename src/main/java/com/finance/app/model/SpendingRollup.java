@@ -0,0 +1,52 @@
+package com.finance.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running total of the transactions of one type posted to an account in one category and month,
+ * kept up to date as transactions are posted so that spending reports never scan transactions.
+ */
+@Entity
+@Table(name = "spending_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_spending_rollup_key",
+                columnNames = {"user_id", "month", "account_id", "category_id", "type"})
+})
+@Data
+public class SpendingRollup {
+    /**
+     * Category id stored for transactions without a category, so that they still have a unique key.
+     */
+    public static final long NO_CATEGORY = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    /**
+     * First day of the month.
+     */
+    @Column(name = "month", nullable = false)
+    private LocalDate month;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
@@ -0,0 +1,14 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * An autocomplete suggestion with the number of the user's transactions that use it.
+ */
+@Data
+@AllArgsConstructor
+public class Suggestion {
+    private String text;
+    private Long count;
+}
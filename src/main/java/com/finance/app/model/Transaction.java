@@ -8,11 +8,23 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = {
+        @Index(name = "idx_transaction_account_date_id", columnList = "account_id, date, id"),
+        @Index(name = "idx_transaction_from_account_date", columnList = "from_account_id, date"),
+        @Index(name = "idx_transaction_to_account_date", columnList = "to_account_id, date"),
+        @Index(name = "idx_transaction_created_date", columnList = "created_date")
+})
 @Data
 public class Transaction {
+    /**
+     * Number of ids reserved per round-trip to the id sequence. A sequence, unlike an identity
+     * column, lets Hibernate batch transaction inserts.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = ID_ALLOCATION_SIZE)
     private long id;
 
     @Column(name = "date", nullable = false)
@@ -30,6 +42,12 @@ public class Transaction {
     @Column(name = "payee")
     private String payee;
 
+    /**
+     * The {@link Payee} the payee name was resolved to when the transaction was posted.
+     */
+    @Column(name = "payee_id")
+    private Long payeeId;
+
     @ManyToOne
     @JoinColumn(name = "from_account_id")
     private Account fromAccount;
@@ -0,0 +1,23 @@
+package com.finance.app.model;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria narrowing down a transaction listing. Null fields do not filter.
+ */
+@Data
+public class TransactionFilter {
+    /**
+     * First day to include.
+     */
+    private LocalDate from;
+    /**
+     * Last day to include.
+     */
+    private LocalDate to;
+    private String type;
+    private String status;
+    private Long categoryId;
+}
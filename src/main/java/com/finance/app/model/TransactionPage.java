@@ -0,0 +1,19 @@
+package com.finance.app.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TransactionPage {
+    private List<TransactionRow> items;
+    /**
+     * Opaque cursor to pass back for the next page, or null on the last page.
+     */
+    private String nextCursor;
+
+    public TransactionPage(List<TransactionRow> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
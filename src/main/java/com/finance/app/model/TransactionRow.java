@@ -0,0 +1,30 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only view of a transaction that references related accounts and the category by id
+ * instead of embedding the entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRow {
+    private Long id;
+    private Long accountId;
+    private LocalDateTime date;
+    private String status;
+    private String type;
+    private BigDecimal amount;
+    private String payee;
+    private String description;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private Long categoryId;
+    private String categoryName;
+}
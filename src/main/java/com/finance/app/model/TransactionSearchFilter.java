@@ -0,0 +1,30 @@
+package com.finance.app.model;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A full-text search over a user's transactions. Null fields do not filter.
+ */
+@Data
+public class TransactionSearchFilter {
+    /**
+     * Words that must all appear in the payee or description, in any order.
+     */
+    private String query;
+    /**
+     * First day to include.
+     */
+    private LocalDate from;
+    /**
+     * Last day to include.
+     */
+    private LocalDate to;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private String type;
+    private Long categoryId;
+    private Long accountId;
+}
@@ -0,0 +1,16 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The best matches of a transaction search, with the number of transactions that matched in total.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionSearchResult {
+    private Long totalHits;
+    private List<SearchableTransaction> transactions;
+}
@@ -0,0 +1,19 @@
+package com.finance.app.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published inside the database transaction that posts transactions to an account. Listeners that
+ * maintain derived, in-memory state should use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so they only see committed postings.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionsPostedEvent {
+    private Long userId;
+    private Long accountId;
+    private List<Transaction> transactions;
+}
@@ -0,0 +1,41 @@
+package com.finance.app.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only view of a user with a summary of the user's accounts, without credentials or
+ * transactions.
+ */
+@Data
+public class UserProfile {
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private List<String> roles;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+    private List<AccountView> accounts;
+
+    /**
+     * @param user     the user, with its roles loaded
+     * @param accounts the views of the user's accounts
+     */
+    public static UserProfile of(User user, List<AccountView> accounts) {
+        UserProfile profile = new UserProfile();
+        profile.setId(user.getId());
+        profile.setUsername(user.getUsername());
+        profile.setEmail(user.getEmail());
+        profile.setFirstName(user.getFirstName());
+        profile.setLastName(user.getLastName());
+        profile.setRoles(user.getRoles().stream().map(role -> role.getName().name()).toList());
+        profile.setCreatedDate(user.getCreatedDate());
+        profile.setUpdatedDate(user.getUpdatedDate());
+        profile.setAccounts(accounts);
+        return profile;
+    }
+}
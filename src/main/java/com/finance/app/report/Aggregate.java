@@ -0,0 +1,27 @@
+package com.finance.app.report;
+
+/**
+ * Count, total, minimum and maximum of a set of amounts in minor units. Aggregates of disjoint
+ * sets can be merged in any order, which is what lets report chunks be aggregated in parallel.
+ * All measures are primitives, so adding a row allocates nothing.
+ */
+class Aggregate {
+    long count;
+    long total;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+
+    void add(long amount) {
+        count++;
+        total = Math.addExact(total, amount);
+        min = Math.min(min, amount);
+        max = Math.max(max, amount);
+    }
+
+    void merge(Aggregate other) {
+        count += other.count;
+        total = Math.addExact(total, other.total);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+}
@@ -0,0 +1,48 @@
+package com.finance.app.report;
+
+import com.finance.app.model.Money;
+import com.finance.app.model.TransactionRow;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The aggregates of a part of a report's rows, keyed by their group-by keys.
+ */
+class PartialReport {
+    final Map<List<String>, Aggregate> groups = new HashMap<>();
+
+    void add(TransactionRow row, List<ReportDimension> groupBy) {
+        List<String> key;
+        if (groupBy.size() == 1) {
+            key = List.of(groupBy.get(0).keyOf(row));
+        } else {
+            String[] keys = new String[groupBy.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = groupBy.get(i).keyOf(row);
+            }
+            key = List.of(keys);
+        }
+        groups.computeIfAbsent(key, k -> new Aggregate()).add(Money.toMinorUnits(row.getAmount(), Money.LEDGER_SCALE));
+    }
+
+    /**
+     * Merges the other report into this one; the smaller map is always folded into the larger.
+     *
+     * @return the merged report, which is either this or the other instance
+     */
+    PartialReport merge(PartialReport other) {
+        PartialReport target = groups.size() >= other.groups.size() ? this : other;
+        PartialReport source = target == this ? other : this;
+        for (Map.Entry<List<String>, Aggregate> entry : source.groups.entrySet()) {
+            Aggregate aggregate = target.groups.get(entry.getKey());
+            if (aggregate == null) {
+                target.groups.put(entry.getKey(), entry.getValue());
+            } else {
+                aggregate.merge(entry.getValue());
+            }
+        }
+        return target;
+    }
+}
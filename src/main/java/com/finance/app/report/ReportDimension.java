@@ -0,0 +1,40 @@
+package com.finance.app.report;
+
+import com.finance.app.model.TransactionRow;
+
+import java.time.DayOfWeek;
+import java.time.temporal.TemporalAdjusters;
+import java.util.function.Function;
+
+/**
+ * A property of a transaction that report rows can be grouped by. Every dimension maps a row onto
+ * a string key, so grouping by several dimensions composes into a list of keys.
+ */
+public enum ReportDimension {
+    PAYEE(row -> row.getPayee() != null ? row.getPayee() : ""),
+    TYPE(TransactionRow::getType),
+    STATUS(TransactionRow::getStatus),
+    ACCOUNT(row -> String.valueOf(row.getAccountId())),
+    CATEGORY(row -> row.getCategoryName() != null ? row.getCategoryName() : ""),
+    DAY(row -> row.getDate().toLocalDate().toString()),
+    /**
+     * The Monday starting the ISO week of the transaction.
+     */
+    WEEK(row -> row.getDate().toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString()),
+    MONTH(row -> row.getDate().toLocalDate().withDayOfMonth(1).toString()),
+    YEAR(row -> String.valueOf(row.getDate().getYear()));
+
+    private final Function<TransactionRow, String> key;
+
+    ReportDimension(Function<TransactionRow, String> key) {
+        this.key = key;
+    }
+
+    /**
+     * @param row the transaction row
+     * @return the key of the row in this dimension
+     */
+    public String keyOf(TransactionRow row) {
+        return key.apply(row);
+    }
+}
@@ -0,0 +1,161 @@
+package com.finance.app.report;
+
+import com.finance.app.model.Money;
+import com.finance.app.model.TransactionRow;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates transaction rows for ad-hoc reports on a dedicated fork/join pool.
+ * <p>
+ * Rows arrive in chunks. While the caller reads the next chunk, the current one is split
+ * recursively and its halves are aggregated in parallel into partial reports, which are merged on
+ * the way back up and finally into the report. Reading and aggregating therefore overlap, and
+ * memory stays bounded by roughly two chunks plus the groups. Once the time budget is used up no
+ * further rows are aggregated and the report is returned as partial.
+ */
+@Component
+public class ReportEngine {
+
+    /**
+     * Number of rows below which a chunk is no longer split.
+     */
+    private static final int LEAF_SIZE = 2048;
+
+    private final ForkJoinPool pool;
+
+    public ReportEngine(@Value("${report.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Runs a report over the rows of the given source.
+     *
+     * @param query        the report to run; its filter must already be applied by the source for
+     *                     dates and accounts
+     * @param source       the chunks of rows to aggregate
+     * @param timeBudgetMs the time after which no further rows are aggregated
+     * @return the report result
+     * @throws Exception if the source fails
+     */
+    public ReportResult run(ReportQuery query, ChunkSource source, long timeBudgetMs) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+        AtomicBoolean timedOut = new AtomicBoolean();
+        LongAdder rowsScanned = new LongAdder();
+
+        PartialReport report = new PartialReport();
+        ForkJoinTask<PartialReport> pending = null;
+        List<TransactionRow> chunk;
+        while (!timedOut.get() && (chunk = source.next()) != null) {
+            ForkJoinTask<PartialReport> task = pool.submit(
+                    new AggregateTask(chunk, 0, chunk.size(), query, deadline, timedOut, rowsScanned));
+            if (pending != null) {
+                report = report.merge(pending.join());
+            }
+            pending = task;
+            if (System.nanoTime() > deadline) {
+                timedOut.set(true);
+            }
+        }
+        if (pending != null) {
+            report = report.merge(pending.join());
+        }
+
+        return new ReportResult(query.getGroupBy(), toGroups(report, query), rowsScanned.sum(), timedOut.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static List<ReportGroup> toGroups(PartialReport report, ReportQuery query) {
+        List<ReportGroup> groups = new ArrayList<>(report.groups.size());
+        report.groups.forEach((key, aggregate) -> groups.add(new ReportGroup(key, aggregate.count,
+                Money.toBigDecimal(aggregate.total, Money.LEDGER_SCALE),
+                Money.toBigDecimal(aggregate.min, Money.LEDGER_SCALE),
+                Money.toBigDecimal(aggregate.max, Money.LEDGER_SCALE))));
+
+        Comparator<ReportGroup> order = query.getSort() == ReportSort.COUNT
+                ? Comparator.comparingLong(ReportGroup::getCount).reversed()
+                : Comparator.comparing(ReportGroup::getTotal).reversed();
+        groups.sort(order.thenComparing(group -> String.join("\u0000", group.getKey())));
+
+        Integer top = query.getTop();
+        return top != null && top < groups.size() ? new ArrayList<>(groups.subList(0, top)) : groups;
+    }
+
+    /**
+     * Supplies the rows of a report one chunk at a time.
+     */
+    @FunctionalInterface
+    public interface ChunkSource {
+        /**
+         * @return the next chunk of rows, or null when all rows have been read
+         * @throws Exception if the rows cannot be read
+         */
+        List<TransactionRow> next() throws Exception;
+    }
+
+    private static class AggregateTask extends RecursiveTask<PartialReport> {
+        private final List<TransactionRow> rows;
+        private final int from;
+        private final int to;
+        private final ReportQuery query;
+        private final long deadline;
+        private final AtomicBoolean timedOut;
+        private final LongAdder rowsScanned;
+
+        AggregateTask(List<TransactionRow> rows, int from, int to, ReportQuery query, long deadline,
+                      AtomicBoolean timedOut, LongAdder rowsScanned) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.query = query;
+            this.deadline = deadline;
+            this.timedOut = timedOut;
+            this.rowsScanned = rowsScanned;
+        }
+
+        @Override
+        protected PartialReport compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                AggregateTask left = new AggregateTask(rows, from, middle, query, deadline, timedOut, rowsScanned);
+                AggregateTask right = new AggregateTask(rows, middle, to, query, deadline, timedOut, rowsScanned);
+                left.fork();
+                PartialReport rightReport = right.compute();
+                return left.join().merge(rightReport);
+            }
+
+            PartialReport report = new PartialReport();
+            if (timedOut.get() || System.nanoTime() > deadline) {
+                timedOut.set(true);
+                return report;
+            }
+            ReportFilter filter = query.getFilter();
+            List<ReportDimension> groupBy = query.getGroupBy();
+            for (int i = from; i < to; i++) {
+                TransactionRow row = rows.get(i);
+                if (filter.matches(row)) {
+                    report.add(row, groupBy);
+                }
+            }
+            rowsScanned.add(to - from);
+            return report;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.finance.app.report;
+
+import com.finance.app.model.TransactionRow;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Criteria selecting the transactions a report covers. Null fields do not filter; all non-null
+ * fields must match.
+ */
+@Data
+public class ReportFilter {
+    /**
+     * First day to include.
+     */
+    private LocalDate from;
+    /**
+     * Last day to include.
+     */
+    private LocalDate to;
+    /**
+     * Accounts to include; all accounts of the user when null.
+     */
+    private Set<Long> accountIds;
+    private Set<String> types;
+    private Set<String> statuses;
+    private Set<Long> categoryIds;
+    /**
+     * Case-insensitive text the payee must contain.
+     */
+    private String payee;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    /**
+     * Checks the criteria that are not already applied by the database query, that is everything
+     * but the date range and the accounts.
+     *
+     * @param row the transaction row
+     * @return true if the row is included in the report
+     */
+    public boolean matches(TransactionRow row) {
+        if (types != null && !types.contains(row.getType())) {
+            return false;
+        }
+        if (statuses != null && !statuses.contains(row.getStatus())) {
+            return false;
+        }
+        if (categoryIds != null && !categoryIds.contains(row.getCategoryId())) {
+            return false;
+        }
+        if (payee != null && (row.getPayee() == null
+                || !row.getPayee().toLowerCase(Locale.ROOT).contains(payee.toLowerCase(Locale.ROOT)))) {
+            return false;
+        }
+        if (minAmount != null && row.getAmount().compareTo(minAmount) < 0) {
+            return false;
+        }
+        return maxAmount == null || row.getAmount().compareTo(maxAmount) <= 0;
+    }
+}
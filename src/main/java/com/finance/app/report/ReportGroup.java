@@ -0,0 +1,23 @@
+package com.finance.app.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The aggregated measures of the transactions sharing one key.
+ */
+@Data
+@AllArgsConstructor
+public class ReportGroup {
+    /**
+     * One key per group-by dimension, in the order of the query.
+     */
+    private List<String> key;
+    private long count;
+    private BigDecimal total;
+    private BigDecimal min;
+    private BigDecimal max;
+}
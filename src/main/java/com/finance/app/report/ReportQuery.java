@@ -0,0 +1,27 @@
+package com.finance.app.report;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * An ad-hoc report: which transactions to include, how to group them and which groups to return.
+ */
+@Data
+public class ReportQuery {
+    /**
+     * Dimensions to group by, outermost first; an empty list reports a single grand total.
+     */
+    private List<ReportDimension> groupBy = List.of();
+    private ReportFilter filter = new ReportFilter();
+    private ReportSort sort = ReportSort.TOTAL;
+    /**
+     * Maximum number of groups to return, largest first; all groups when null.
+     */
+    private Integer top;
+    /**
+     * Time after which the report stops reading and returns what it has aggregated so far; the
+     * configured default when null.
+     */
+    private Long timeBudgetMs;
+}
@@ -0,0 +1,22 @@
+package com.finance.app.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ReportResult {
+    private List<ReportDimension> groupBy;
+    private List<ReportGroup> groups;
+    /**
+     * Number of transaction rows aggregated.
+     */
+    private long rowsScanned;
+    /**
+     * True if the time budget ran out before all rows were aggregated.
+     */
+    private boolean partial;
+    private long elapsedMs;
+}
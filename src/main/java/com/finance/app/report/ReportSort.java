@@ -0,0 +1,8 @@
+package com.finance.app.report;
+
+/**
+ * The measure report groups are ordered by, largest first.
+ */
+public enum ReportSort {
+    TOTAL, COUNT
+}
@@ -0,0 +1,38 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.AccountEvent;
+import com.finance.app.model.AccountEventTail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountEventRepository extends JpaRepository<AccountEvent, Long> {
+
+    String TAIL = "select new com.finance.app.model.AccountEventTail(e.accountId, count(e), sum(e.balanceDelta), " +
+            "sum(e.creditDelta), max(e.version)) ";
+
+    /**
+     * @return the summed changes of the events of the account after the given version, empty if there are none
+     */
+    @Query(TAIL + "from AccountEvent e where e.accountId = :accountId and e.version > :afterVersion group by e.accountId")
+    Optional<AccountEventTail> sumTail(@Param("accountId") Long accountId, @Param("afterVersion") long afterVersion);
+
+    /**
+     * @return for each of the given accounts that has events after its snapshot, the summed changes of those events
+     */
+    @Query(TAIL + "from AccountEvent e, AccountSnapshot s " +
+            "where s.accountId = e.accountId and e.accountId in :accountIds and e.version > s.version " +
+            "group by e.accountId")
+    List<AccountEventTail> sumTailsAfterSnapshots(@Param("accountIds") Collection<Long> accountIds);
+
+    @Modifying
+    @Query("delete from AccountEvent e where e.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -1,12 +1,83 @@
 package com.finance.app.repository;
 
 import com.finance.app.model.Account;
+import com.finance.app.model.AccountView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    /**
+     * JPQL select clause building an {@link AccountView} from an account {@code a}.
+     */
+    String ACCOUNT_VIEW = "select new com.finance.app.model.AccountView(a.id, a.name, a.type, a.startingBalance, " +
+            "a.currentBalance, a.creditLimit, a.currency, a.createdDate, a.updatedDate) from Account a ";
+
     Optional<Account> findById(Long Id);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    @Query(ACCOUNT_VIEW + "where a.id = :accountId")
+    Optional<AccountView> findViewById(@Param("accountId") Long accountId);
+
+    @Query(ACCOUNT_VIEW + "where a.id = :accountId and a.user.id = :userId")
+    Optional<AccountView> findViewByIdAndUserId(@Param("accountId") Long accountId, @Param("userId") Long userId);
+
+    @Query(ACCOUNT_VIEW + "where a.user.id = :userId order by a.id")
+    List<AccountView> findViewsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Atomically adds the given deltas to an account's current balance and, for credit card
+     * accounts, to its credit limit, without reading the account first.
+     *
+     * @return the number of updated rows, 0 if the account does not exist
+     */
+    @Modifying
+    @Query("update Account a set a.currentBalance = a.currentBalance + :balanceDelta, " +
+            "a.creditLimit = case when a.type = 'CREDIT_CARD' then a.creditLimit + :creditDelta else a.creditLimit end, " +
+            "a.updatedDate = :updatedDate " +
+            "where a.id = :accountId")
+    int applyBalanceDelta(@Param("accountId") Long accountId,
+                          @Param("balanceDelta") BigDecimal balanceDelta,
+                          @Param("creditDelta") BigDecimal creditDelta,
+                          @Param("updatedDate") LocalDateTime updatedDate);
+
+    @Query("select a.id from Account a where a.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select a.startingBalance from Account a where a.id = :accountId")
+    Optional<BigDecimal> findStartingBalance(@Param("accountId") Long accountId);
+
+    @Query("select a.id from Account a where a.id in :accountIds and a.user.id = :userId")
+    List<Long> findIdsOwnedBy(@Param("accountIds") Collection<Long> accountIds, @Param("userId") Long userId);
+
+    @Query(ACCOUNT_VIEW + "where a.id in :accountIds")
+    List<AccountView> findViewsByIds(@Param("accountIds") Collection<Long> accountIds);
+
+    @Query("select a.id from Account a where a.id > :afterId order by a.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select a.id from Account a where a.id > :afterId " +
+            "and not exists (select s.accountId from AccountSnapshot s where s.accountId = a.id) order by a.id")
+    List<Long> findIdsWithoutEventStreamAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Loads the given accounts and locks them until the end of the database transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :accountIds order by a.id")
+    List<Account> findAllForUpdate(@Param("accountIds") Collection<Long> accountIds);
 }
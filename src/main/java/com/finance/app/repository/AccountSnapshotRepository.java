@@ -0,0 +1,36 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.AccountSnapshot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountSnapshotRepository extends JpaRepository<AccountSnapshot, Long> {
+
+    /**
+     * Loads the snapshot of an account and locks it until the end of the database transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountSnapshot s where s.accountId = :accountId")
+    Optional<AccountSnapshot> findForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Loads the snapshots of the given accounts and locks them until the end of the database transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountSnapshot s where s.accountId in :accountIds order by s.accountId")
+    List<AccountSnapshot> findAllForUpdate(@Param("accountIds") Collection<Long> accountIds);
+
+    @Modifying
+    @Query("delete from AccountSnapshot s where s.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,45 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    boolean existsByAccountIdAndPeriodEnd(Long accountId, LocalDate periodEnd);
+
+    /**
+     * @return the latest checkpoint of the account ending on or before the given day
+     */
+    Optional<BalanceCheckpoint> findTopByAccountIdAndPeriodEndLessThanEqualOrderByPeriodEndDesc(Long accountId, LocalDate periodEnd);
+
+    /**
+     * @return the latest checkpoint of the account ending strictly before the given day
+     */
+    Optional<BalanceCheckpoint> findTopByAccountIdAndPeriodEndLessThanOrderByPeriodEndDesc(Long accountId, LocalDate periodEnd);
+
+    /**
+     * Adds a balance change to every checkpoint of the account that ends on or after the given
+     * day, which are exactly the checkpoints a transaction dated within that period affects.
+     *
+     * @return the number of updated checkpoints
+     */
+    @Modifying
+    @Query("update BalanceCheckpoint c set c.balance = c.balance + :delta " +
+            "where c.accountId = :accountId and c.periodEnd >= :periodEnd")
+    int shiftFrom(@Param("accountId") Long accountId,
+                  @Param("periodEnd") LocalDate periodEnd,
+                  @Param("delta") BigDecimal delta);
+
+    @Modifying
+    @Query("delete from BalanceCheckpoint c where c.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,32 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.JournalDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JournalDeadLetterRepository extends JpaRepository<JournalDeadLetter, Long> {
+
+    List<JournalDeadLetter> findByReplayedDateIsNullOrderBySequence();
+
+    List<JournalDeadLetter> findAllByOrderBySequence();
+
+    long countByReplayedDateIsNull();
+
+    /**
+     * Marks a dead letter as replayed unless it already is, so that two concurrent replays cannot
+     * both apply it.
+     *
+     * @return the number of updated rows, 0 if the dead letter does not exist or was already replayed
+     */
+    @Modifying
+    @Query("update JournalDeadLetter d set d.replayedDate = :replayedDate " +
+            "where d.sequence = :sequence and d.replayedDate is null")
+    int markReplayed(@Param("sequence") long sequence, @Param("replayedDate") LocalDateTime replayedDate);
+}
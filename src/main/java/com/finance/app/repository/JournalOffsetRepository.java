@@ -0,0 +1,27 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.JournalOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JournalOffsetRepository extends JpaRepository<JournalOffset, Integer> {
+
+    @Query("select o.appliedSequence from JournalOffset o where o.id = " + JournalOffset.LEDGER)
+    Optional<Long> findAppliedSequence();
+
+    /**
+     * Moves the applied sequence forward; it never moves back.
+     *
+     * @return the number of updated rows, 0 if the sequence was not ahead
+     */
+    @Modifying
+    @Query("update JournalOffset o set o.appliedSequence = :sequence " +
+            "where o.id = " + JournalOffset.LEDGER + " and o.appliedSequence < :sequence")
+    int advance(@Param("sequence") long sequence);
+}
@@ -0,0 +1,18 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.Payee;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayeeRepository extends JpaRepository<Payee, Long> {
+    Optional<Payee> findByUserIdAndName(Long userId, String name);
+
+    List<Payee> findByUserIdAndNameIn(Long userId, Collection<String> names);
+
+    List<Payee> findByUserId(Long userId);
+}
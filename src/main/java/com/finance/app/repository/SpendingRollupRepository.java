@@ -0,0 +1,56 @@
+package com.finance.app.repository;
+
+import com.finance.app.model.SpendingReportRow;
+import com.finance.app.model.SpendingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, Long>, SpendingRollupUpsert {
+
+    @Modifying
+    @Query("delete from SpendingRollup r where r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from SpendingRollup r where r.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Recomputes the rollup rows of a user from all transactions posted to the user's accounts.
+     * The existing rows must be deleted first.
+     *
+     * @return the number of inserted rows
+     */
+    @Modifying
+    @Query(value = "insert into spending_rollup (user_id, account_id, category_id, month, type, amount, transaction_count) " +
+            "select a.user_id, t.account_id, coalesce(t.category_id, 0), cast(date_format(t.date, '%Y-%m-01') as date), " +
+            "t.type, sum(t.amount), count(*) " +
+            "from transaction t join accounts a on a.id = t.account_id " +
+            "where a.user_id = :userId " +
+            "group by a.user_id, t.account_id, coalesce(t.category_id, 0), cast(date_format(t.date, '%Y-%m-01') as date), t.type",
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+
+    /**
+     * Sums the rollup rows of a user per month, category and type for the months in
+     * {@code [fromMonth, toMonth)}, optionally restricted to one account.
+     */
+    @Query("select new com.finance.app.model.SpendingReportRow(r.month, nullif(r.categoryId, 0), c.name, r.type, " +
+            "sum(r.amount), sum(r.transactionCount)) " +
+            "from SpendingRollup r left join Category c on c.id = r.categoryId " +
+            "where r.userId = :userId and r.month >= :fromMonth and r.month < :toMonth " +
+            "and (:accountId is null or r.accountId = :accountId) " +
+            "group by r.month, r.categoryId, c.name, r.type " +
+            "order by r.month, r.categoryId, r.type")
+    List<SpendingReportRow> findReport(@Param("userId") Long userId,
+                                       @Param("accountId") Long accountId,
+                                       @Param("fromMonth") LocalDate fromMonth,
+                                       @Param("toMonth") LocalDate toMonth);
+}
@@ -0,0 +1,19 @@
+package com.finance.app.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The rollup upsert of {@link SpendingRollupRepository}, which needs a different statement on the
+ * embedded database the tests and the load test run on.
+ */
+public interface SpendingRollupUpsert {
+
+    /**
+     * Adds an amount and a transaction count to a rollup row of the account's owner, creating the
+     * row if it does not exist, with a single upsert.
+     *
+     * @return the number of affected rows as reported by the database
+     */
+    int addToRollup(Long accountId, Long categoryId, LocalDate month, String type, BigDecimal amount, long transactionCount);
+}
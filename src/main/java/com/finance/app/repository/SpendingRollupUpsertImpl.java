@@ -0,0 +1,59 @@
+package com.finance.app.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Upserts rollup rows with MySQL's row alias form, {@code insert ... as new on duplicate key
+ * update}, which replaces the deprecated {@code values()} function. H2 does not parse the row
+ * alias, so on H2 the {@code values()} form, which its MySQL mode supports, is used instead.
+ */
+class SpendingRollupUpsertImpl implements SpendingRollupUpsert {
+
+    private static final String INSERT = "insert into spending_rollup (user_id, account_id, category_id, month, type, amount, transaction_count) " +
+            "values ((select a.user_id from accounts a where a.id = :accountId), :accountId, :categoryId, :month, :type, " +
+            ":amount, :transactionCount) ";
+
+    private static final String ROW_ALIAS_UPSERT = INSERT +
+            "as new on duplicate key update amount = spending_rollup.amount + new.amount, " +
+            "transaction_count = spending_rollup.transaction_count + new.transaction_count";
+
+    private static final String VALUES_UPSERT = INSERT +
+            "on duplicate key update amount = amount + values(amount), " +
+            "transaction_count = transaction_count + values(transaction_count)";
+
+    @Autowired
+    DataSource dataSource;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private String upsert;
+
+    @PostConstruct
+    void chooseStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            upsert = "H2".equals(connection.getMetaData().getDatabaseProductName()) ? VALUES_UPSERT : ROW_ALIAS_UPSERT;
+        }
+    }
+
+    @Override
+    public int addToRollup(Long accountId, Long categoryId, LocalDate month, String type, BigDecimal amount, long transactionCount) {
+        return entityManager.createNativeQuery(upsert)
+                .setParameter("accountId", accountId)
+                .setParameter("categoryId", categoryId)
+                .setParameter("month", month)
+                .setParameter("type", type)
+                .setParameter("amount", amount)
+                .setParameter("transactionCount", transactionCount)
+                .executeUpdate();
+    }
+}
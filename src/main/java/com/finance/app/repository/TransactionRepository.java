@@ -1,9 +1,173 @@
 package com.finance.app.repository;
 
+import com.finance.app.model.SearchableTransaction;
 import com.finance.app.model.Transaction;
+import com.finance.app.model.TransactionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    /**
+     * JPQL select clause building a {@link TransactionRow} from a transaction {@code t} joined to its
+     * from account {@code fa}, to account {@code ta} and category {@code c}.
+     */
+    String TRANSACTION_ROW = "select new com.finance.app.model.TransactionRow(t.id, t.account.id, t.date, t.status, t.type, " +
+            "t.amount, t.payee, t.description, fa.id, ta.id, c.id, c.name) " +
+            "from Transaction t left join t.fromAccount fa left join t.toAccount ta left join t.category c ";
+
+    /**
+     * Streams all transactions of an account as flat rows, oldest first. The fetch size of
+     * {@code Integer.MIN_VALUE} makes the MySQL driver stream rows from a forward-only cursor
+     * instead of buffering the whole result. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query(TRANSACTION_ROW + "where t.account.id = :accountId order by t.date, t.id")
+    Stream<TransactionRow> streamRowsByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Lists an account's transactions, newest first, continuing after the keyset cursor
+     * {@code (cursorDate, cursorId)} when one is given. The leading {@code t.date <= :cursorDate}
+     * lets the {@code (account_id, date, id)} index seek straight to the cursor, so deep pages cost
+     * the same as the first one. Null filter parameters are ignored.
+     */
+    @Query(TRANSACTION_ROW + "where t.account.id = :accountId " +
+            "and (:fromDate is null or t.date >= :fromDate) " +
+            "and (:toDate is null or t.date < :toDate) " +
+            "and (:type is null or t.type = :type) " +
+            "and (:status is null or t.status = :status) " +
+            "and (:categoryId is null or c.id = :categoryId) " +
+            "and (:cursorDate is null or (t.date <= :cursorDate and (t.date < :cursorDate or t.id < :cursorId))) " +
+            "order by t.date desc, t.id desc")
+    List<TransactionRow> findPageByAccountId(@Param("accountId") Long accountId,
+                                             @Param("fromDate") LocalDateTime fromDate,
+                                             @Param("toDate") LocalDateTime toDate,
+                                             @Param("type") String type,
+                                             @Param("status") String status,
+                                             @Param("categoryId") Long categoryId,
+                                             @Param("cursorDate") LocalDateTime cursorDate,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    /**
+     * Reads the next chunk of an account's transactions for a report, oldest first, continuing
+     * after the keyset cursor {@code (cursorDate, cursorId)} when one is given. The order and the
+     * leading {@code t.date >= :cursorDate} match the {@code (account_id, date, id)} index, so
+     * every chunk is an index range scan that starts at the cursor and needs no sort. Null date
+     * bounds are ignored.
+     */
+    @Query(TRANSACTION_ROW + "where t.account.id = :accountId " +
+            "and (:fromDate is null or t.date >= :fromDate) " +
+            "and (:toDate is null or t.date < :toDate) " +
+            "and (:cursorDate is null or (t.date >= :cursorDate and (t.date > :cursorDate or t.id > :cursorId))) " +
+            "order by t.date, t.id")
+    List<TransactionRow> findReportChunk(@Param("accountId") Long accountId,
+                                         @Param("fromDate") LocalDateTime fromDate,
+                                         @Param("toDate") LocalDateTime toDate,
+                                         @Param("cursorDate") LocalDateTime cursorDate,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    /*
+     * The balance change queries below mirror the posting rules in PostingDeltas: a deposit
+     * decreases and a withdrawal increases the balance of the account it is posted to, and a
+     * transfer moves money from its from account to its to account. Each query only touches one
+     * of the account columns, so it is answered by a range scan of one (account, date) index.
+     */
+
+    /**
+     * @return the net balance change of the deposits and withdrawals posted to the account in
+     * {@code [fromDate, toDate)}, or since the beginning when fromDate is null
+     */
+    @Query("select coalesce(sum(case when t.type = 'DEPOSIT' then -t.amount else t.amount end), 0) from Transaction t " +
+            "where t.account.id = :accountId and t.type <> 'TRANSFER' " +
+            "and (:fromDate is null or t.date >= :fromDate) and t.date < :toDate")
+    BigDecimal sumPostingChange(@Param("accountId") Long accountId,
+                                @Param("fromDate") LocalDateTime fromDate,
+                                @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * @return the total of the transfers into the account in {@code [fromDate, toDate)}, or since
+     * the beginning when fromDate is null
+     */
+    @Query("select coalesce(sum(t.amount), 0) from Transaction t " +
+            "where t.toAccount.id = :accountId and t.type = 'TRANSFER' " +
+            "and (:fromDate is null or t.date >= :fromDate) and t.date < :toDate")
+    BigDecimal sumTransfersIn(@Param("accountId") Long accountId,
+                              @Param("fromDate") LocalDateTime fromDate,
+                              @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * @return the total of the transfers out of the account in {@code [fromDate, toDate)}, or
+     * since the beginning when fromDate is null
+     */
+    @Query("select coalesce(sum(t.amount), 0) from Transaction t " +
+            "where t.fromAccount.id = :accountId and t.type = 'TRANSFER' " +
+            "and (:fromDate is null or t.date >= :fromDate) and t.date < :toDate")
+    BigDecimal sumTransfersOut(@Param("accountId") Long accountId,
+                               @Param("fromDate") LocalDateTime fromDate,
+                               @Param("toDate") LocalDateTime toDate);
+
+    /**
+     * @return rows of year, month and the net balance change of the deposits and withdrawals
+     * posted to the account in that month
+     */
+    @Query("select year(t.date), month(t.date), sum(case when t.type = 'DEPOSIT' then -t.amount else t.amount end) " +
+            "from Transaction t where t.account.id = :accountId and t.type <> 'TRANSFER' " +
+            "group by year(t.date), month(t.date)")
+    List<Object[]> sumPostingChangeByMonth(@Param("accountId") Long accountId);
+
+    /**
+     * @return rows of year, month and the total of the transfers into the account in that month
+     */
+    @Query("select year(t.date), month(t.date), sum(t.amount) " +
+            "from Transaction t where t.toAccount.id = :accountId and t.type = 'TRANSFER' " +
+            "group by year(t.date), month(t.date)")
+    List<Object[]> sumTransfersInByMonth(@Param("accountId") Long accountId);
+
+    /**
+     * @return rows of year, month and the total of the transfers out of the account in that month
+     */
+    @Query("select year(t.date), month(t.date), sum(t.amount) " +
+            "from Transaction t where t.fromAccount.id = :accountId and t.type = 'TRANSFER' " +
+            "group by year(t.date), month(t.date)")
+    List<Object[]> sumTransfersOutByMonth(@Param("accountId") Long accountId);
+
+    /**
+     * Counts the transactions of a user per payee, most used first.
+     */
+    @Query("select t.payee, count(t) from Transaction t where t.account.user.id = :userId and t.payee is not null " +
+            "group by t.payee order by count(t) desc")
+    List<Object[]> countByPayeeForUser(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Counts the transactions of a user per description, most used first.
+     */
+    @Query("select t.description, count(t) from Transaction t where t.account.user.id = :userId and t.description is not null " +
+            "group by t.description order by count(t) desc")
+    List<Object[]> countByDescriptionForUser(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Reads the search index fields of the transactions created at or after {@code since}, in
+     * pages of ascending id after {@code afterId}.
+     */
+    @Query("select new com.finance.app.model.SearchableTransaction(t.id, a.user.id, a.id, t.date, t.type, t.amount, " +
+            "c.id, t.payee, t.description) " +
+            "from Transaction t join t.account a left join t.category c " +
+            "where t.createdDate >= :since and t.id > :afterId order by t.id")
+    List<SearchableTransaction> findSearchableCreatedSince(@Param("since") LocalDateTime since,
+                                                           @Param("afterId") long afterId,
+                                                           Pageable pageable);
 }
@@ -0,0 +1,459 @@
+package com.finance.app.search;
+
+import com.finance.app.model.AccountDeletedEvent;
+import com.finance.app.model.Money;
+import com.finance.app.model.SearchableTransaction;
+import com.finance.app.model.Transaction;
+import com.finance.app.model.TransactionSearchFilter;
+import com.finance.app.model.TransactionSearchResult;
+import com.finance.app.model.TransactionsPostedEvent;
+import com.finance.app.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A Lucene index of every transaction's payee and description with its user, account, date,
+ * amount, type and category, kept on local disk under {@code search.index.directory}.
+ * <p>
+ * Committed postings are put on a bounded queue and indexed by a single background thread, so
+ * posting never waits for the index. Searches see new postings after at most one indexing batch;
+ * the index is committed to disk every {@code search.index.commit-interval-ms}, together with the
+ * time up to which every posting was indexed. On startup, transactions created since that time,
+ * less {@code search.index.catch-up-margin-ms}, are indexed again from the database, and a missing
+ * index is built from scratch. Indexing a transaction replaces any earlier copy, so indexing one
+ * twice is harmless. If the queue is full, the postings are dropped and re-read from the database
+ * the same way once the queue drains. A catch-up that fails is retried every
+ * {@code search.index.catch-up-retry-ms}, and until one succeeds the committed time is not
+ * advanced, so a restart catches up from the same point.
+ */
+@Component
+public class TransactionSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionSearchIndex.class);
+
+    private static final String INDEXED_UNTIL = "indexedUntil";
+
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String ACCOUNT_ID = "accountId";
+    private static final String DATE = "date";
+    private static final String AMOUNT = "amount";
+    private static final String TYPE = "type";
+    private static final String CATEGORY_ID = "categoryId";
+    private static final String PAYEE = "payee";
+    private static final String DESCRIPTION = "description";
+
+    private static final float PAYEE_BOOST = 2.0f;
+
+    private static final long POLL_MS = 100;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${search.index.directory:search-index}")
+    private String indexDirectory;
+
+    @Value("${search.index.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${search.index.commit-interval-ms:1000}")
+    private long commitIntervalMs;
+
+    @Value("${search.index.catch-up-margin-ms:300000}")
+    private long catchUpMarginMs;
+
+    @Value("${search.index.catch-up-chunk-size:1000}")
+    private int catchUpChunkSize;
+
+    @Value("${search.index.catch-up-retry-ms:10000}")
+    private long catchUpRetryMs;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final AtomicReference<LocalDateTime> catchUpFrom = new AtomicReference<>();
+
+    private BlockingQueue<List<SearchableTransaction>> queue;
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    private LocalDateTime startupCatchUpFrom;
+
+    private Counter droppedPostings;
+
+    private Timer searchTimer;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    @PostConstruct
+    void open() throws IOException {
+        Path path = Path.of(indexDirectory);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        boolean exists = DirectoryReader.indexExists(directory);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, new SearcherFactory());
+
+        startupCatchUpFrom = LocalDateTime.of(1970, 1, 1, 0, 0);
+        if (exists && writer.getLiveCommitData() != null) {
+            for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+                if (entry.getKey().equals(INDEXED_UNTIL)) {
+                    startupCatchUpFrom = LocalDateTime.parse(entry.getValue()).minusNanos(TimeUnit.MILLISECONDS.toNanos(catchUpMarginMs));
+                }
+            }
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        droppedPostings = meterRegistry.counter("finance.search.index.dropped");
+        searchTimer = meterRegistry.timer("finance.search.query");
+        Gauge.builder("finance.search.index.queue", queue, BlockingQueue::size)
+                .description("Posting batches waiting to be indexed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "search-indexer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        running = false;
+        if (thread != null) {
+            // Not interrupted: an interrupt during a write would close the index files under the writer
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Queues committed postings for indexing.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionsPosted(TransactionsPostedEvent event) {
+        List<SearchableTransaction> transactions = new ArrayList<>(event.getTransactions().size());
+        for (Transaction transaction : event.getTransactions()) {
+            transactions.add(new SearchableTransaction(transaction.getId(), event.getUserId(), event.getAccountId(),
+                    transaction.getDate(), transaction.getType(), transaction.getAmount(),
+                    transaction.getCategory() != null ? transaction.getCategory().getId() : null,
+                    transaction.getPayee(), transaction.getDescription()));
+        }
+        if (!queue.offer(transactions)) {
+            droppedPostings.increment(transactions.size());
+            requestCatchUp(LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(catchUpMarginMs)));
+        }
+    }
+
+    /**
+     * Removes the transactions of a deleted account from the index.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAccountDeleted(AccountDeletedEvent event) throws IOException {
+        writer.deleteDocuments(LongPoint.newExactQuery(ACCOUNT_ID, event.getAccountId()));
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * Searches the transactions of one user. With words to look for, the best matches come first,
+     * weighing a match in the payee twice as much as one in the description; without, the newest
+     * transactions matching the filters come first.
+     *
+     * @param userId the user whose transactions are searched
+     * @param filter the words and filters
+     * @param limit  the maximum number of transactions returned
+     * @return the matching transactions and their total number
+     * @throws IOException if the index cannot be read
+     */
+    public TransactionSearchResult search(Long userId, TransactionSearchFilter filter, int limit) throws IOException {
+        long started = System.nanoTime();
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(LongPoint.newExactQuery(USER_ID, userId), BooleanClause.Occur.FILTER);
+
+        List<String> words = tokens(filter.getQuery());
+        for (String word : words) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            // Constant scores, so how common a word is in either field cannot outweigh the payee boost
+            anyField.add(new BoostQuery(new ConstantScoreQuery(new TermQuery(new Term(PAYEE, word))), PAYEE_BOOST),
+                    BooleanClause.Occur.SHOULD);
+            anyField.add(new ConstantScoreQuery(new TermQuery(new Term(DESCRIPTION, word))), BooleanClause.Occur.SHOULD);
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        if (filter.getAccountId() != null) {
+            query.add(LongPoint.newExactQuery(ACCOUNT_ID, filter.getAccountId()), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            long from = filter.getFrom() != null ? epochSecond(filter.getFrom().atStartOfDay()) : Long.MIN_VALUE;
+            long to = filter.getTo() != null ? epochSecond(filter.getTo().plusDays(1).atStartOfDay()) - 1 : Long.MAX_VALUE;
+            query.add(LongPoint.newRangeQuery(DATE, from, to), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getMinAmount() != null || filter.getMaxAmount() != null) {
+            long min = filter.getMinAmount() != null ? minorUnits(filter.getMinAmount(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long max = filter.getMaxAmount() != null ? minorUnits(filter.getMaxAmount(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            query.add(LongPoint.newRangeQuery(AMOUNT, min, max), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getType() != null) {
+            query.add(new TermQuery(new Term(TYPE, filter.getType())), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getCategoryId() != null) {
+            query.add(LongPoint.newExactQuery(CATEGORY_ID, filter.getCategoryId()), BooleanClause.Occur.FILTER);
+        }
+
+        SortField newestFirst = new SortField(DATE, SortField.Type.LONG, true);
+        Sort sort = words.isEmpty() ? new Sort(newestFirst) : new Sort(SortField.FIELD_SCORE, newestFirst);
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query.build(), limit, sort);
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchableTransaction> transactions = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                transactions.add(fromDocument(storedFields.document(scoreDoc.doc), userId));
+            }
+            return new TransactionSearchResult(topDocs.totalHits.value, transactions);
+        } finally {
+            searcherManager.release(searcher);
+            searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void run() {
+        // The startup catch-up runs like any other, so a failed one is retried
+        requestCatchUp(startupCatchUpFrom);
+
+        long lastCommit = System.currentTimeMillis();
+        long nextCatchUp = 0;
+        LocalDateTime indexedUntil = LocalDateTime.now();
+        boolean uncommitted = false;
+        List<List<SearchableTransaction>> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            LocalDateTime catchingUpFrom = null;
+            try {
+                LocalDateTime drainStarted = LocalDateTime.now();
+                List<SearchableTransaction> first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    for (List<SearchableTransaction> transactions : batch) {
+                        for (SearchableTransaction transaction : transactions) {
+                            index(transaction);
+                        }
+                    }
+                    batch.clear();
+                    searcherManager.maybeRefresh();
+                    uncommitted = true;
+                }
+                // Everything queued before the drain started is indexed now
+                indexedUntil = drainStarted;
+
+                if (System.currentTimeMillis() >= nextCatchUp) {
+                    catchingUpFrom = catchUpFrom.getAndSet(null);
+                    if (catchingUpFrom != null) {
+                        if (!catchUp(catchingUpFrom)) {
+                            // Stopped before the end; the next start catches up from the last commit
+                            requestCatchUp(catchingUpFrom);
+                        }
+                        catchingUpFrom = null;
+                        uncommitted = true;
+                    }
+                }
+
+                if (uncommitted && (System.currentTimeMillis() - lastCommit >= commitIntervalMs || !running)) {
+                    // While a catch-up is outstanding, the last committed time stays the one to catch up from
+                    if (catchUpFrom.get() == null) {
+                        writer.setLiveCommitData(Map.of(INDEXED_UNTIL, indexedUntil.toString()).entrySet());
+                    }
+                    writer.commit();
+                    lastCommit = System.currentTimeMillis();
+                    uncommitted = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The queued postings of this batch are lost; read them back from the database,
+                // together with whatever the failed catch-up was to read
+                logger.error("Search indexing failed", e);
+                batch.clear();
+                requestCatchUp(LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(catchUpMarginMs)));
+                if (catchingUpFrom != null) {
+                    requestCatchUp(catchingUpFrom);
+                    nextCatchUp = System.currentTimeMillis() + catchUpRetryMs;
+                }
+            }
+        }
+    }
+
+    /**
+     * Asks the indexing thread to index every transaction created since the given time, or since
+     * an earlier time already asked for.
+     */
+    private void requestCatchUp(LocalDateTime from) {
+        catchUpFrom.accumulateAndGet(from, (current, candidate) -> current == null || candidate.isBefore(current) ? candidate : current);
+    }
+
+    /**
+     * Indexes every transaction created since the given time from the database.
+     *
+     * @return false if the index was stopped before every transaction was indexed
+     */
+    private boolean catchUp(LocalDateTime since) throws IOException {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        long indexed = 0;
+        List<SearchableTransaction> page;
+        do {
+            page = transactionRepository.findSearchableCreatedSince(since, afterId, PageRequest.of(0, catchUpChunkSize));
+            for (SearchableTransaction transaction : page) {
+                index(transaction);
+                afterId = transaction.getId();
+            }
+            indexed += page.size();
+        } while (page.size() == catchUpChunkSize && running);
+        searcherManager.maybeRefresh();
+        boolean complete = page.size() < catchUpChunkSize;
+        logger.info("Search index caught up with {} transaction(s) created since {} in {} ms{}",
+                indexed, since, System.currentTimeMillis() - started, complete ? "" : ", stopped before the end");
+        return complete;
+    }
+
+    private void index(SearchableTransaction transaction) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(transaction.getId()), Field.Store.YES));
+        addLong(document, USER_ID, transaction.getUserId());
+        addLong(document, ACCOUNT_ID, transaction.getAccountId());
+        long date = epochSecond(transaction.getDate());
+        addLong(document, DATE, date);
+        document.add(new NumericDocValuesField(DATE, date));
+        addLong(document, AMOUNT, Money.toMinorUnits(transaction.getAmount(), Money.LEDGER_SCALE));
+        document.add(new StringField(TYPE, transaction.getType(), Field.Store.YES));
+        if (transaction.getCategoryId() != null) {
+            addLong(document, CATEGORY_ID, transaction.getCategoryId());
+        }
+        if (transaction.getPayee() != null) {
+            document.add(new TextField(PAYEE, transaction.getPayee(), Field.Store.YES));
+        }
+        if (transaction.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, transaction.getDescription(), Field.Store.YES));
+        }
+        writer.updateDocument(new Term(ID, Long.toString(transaction.getId())), document);
+    }
+
+    private static void addLong(Document document, String name, long value) {
+        document.add(new LongPoint(name, value));
+        document.add(new StoredField(name, value));
+    }
+
+    private static SearchableTransaction fromDocument(Document document, Long userId) {
+        IndexableField categoryId = document.getField(CATEGORY_ID);
+        return new SearchableTransaction(
+                Long.parseLong(document.get(ID)),
+                userId,
+                document.getField(ACCOUNT_ID).numericValue().longValue(),
+                LocalDateTime.ofEpochSecond(document.getField(DATE).numericValue().longValue(), 0, ZoneOffset.UTC),
+                document.get(TYPE),
+                Money.toBigDecimal(document.getField(AMOUNT).numericValue().longValue(), Money.LEDGER_SCALE),
+                categoryId != null ? categoryId.numericValue().longValue() : null,
+                document.get(PAYEE),
+                document.get(DESCRIPTION));
+    }
+
+    private List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        try (TokenStream stream = analyzer.tokenStream(DESCRIPTION, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long minorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.setScale(Money.LEDGER_SCALE, roundingMode).movePointRight(Money.LEDGER_SCALE).longValueExact();
+    }
+}
@@ -0,0 +1,19 @@
+package com.finance.app.security;
+
+/**
+ * Thrown when a password cannot be hashed or verified because the hashing pool and its queue are
+ * full. Callers should answer with 429 and ask the client to retry after {@link #getRetryAfterSeconds()}.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Too many signin or signup requests, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
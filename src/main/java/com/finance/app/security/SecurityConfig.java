@@ -2,8 +2,11 @@ package com.finance.app.security;
 
 import com.finance.app.security.jwt.AuthEntryPointJwt;
 import com.finance.app.security.jwt.AuthTokenFilter;
+import com.finance.app.security.ratelimit.RateLimitFilter;
 import com.finance.app.security.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +29,24 @@ public class SecurityConfig {
     @Autowired
     AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    RateLimitFilter rateLimitFilter;
+
+    @Value("${security.bcrypt.strength:10}")
+    int bcryptStrength;
+
+    @Value("${security.bcrypt.threads:0}")
+    int bcryptThreads;
+
+    @Value("${security.bcrypt.queue-capacity:64}")
+    int bcryptQueueCapacity;
+
+    @Value("${security.bcrypt.retry-after-seconds:1}")
+    long bcryptRetryAfterSeconds;
+
     @Bean
     public AuthTokenFilter authTokenFilter() {
         return new AuthTokenFilter();
@@ -46,9 +67,16 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * The one password encoder used for signin and signup. BCrypt runs on a bounded pool of
+     * {@code security.bcrypt.threads} workers (half the cores, at least one, when 0), so hashing
+     * cannot crowd out other requests; its cost is {@code security.bcrypt.strength}.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = bcryptThreads > 0 ? bcryptThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry),
+                threads, bcryptQueueCapacity, bcryptRetryAfterSeconds, meterRegistry);
     }
 
     /**
@@ -67,14 +95,21 @@ public class SecurityConfig {
                         auth.requestMatchers("/api/v1/users/**").permitAll()
                                 .requestMatchers("/api/v1/account/**").permitAll()
                                 .requestMatchers("/api/v1/transaction/**").permitAll()
-                                .requestMatchers("/api/v1/transaction/**/**").permitAll()
+                                .requestMatchers("/api/v1/report/**").permitAll()
+                                .requestMatchers("/api/v1/reference/**").permitAll()
+                                .requestMatchers("/api/v1/autocomplete").permitAll()
+                                .requestMatchers("/api/v1/search/**").permitAll()
+                                .requestMatchers("/api/v1/journal/**").permitAll()
                                 .requestMatchers("/api/test/**").permitAll()
+                                // Only reachable on the management port, which is not exposed publicly
+                                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                                 .anyRequest().authenticated()
                 );
 
         http.authenticationProvider(authenticationProvider());
 
         http.addFilterBefore(authTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(rateLimitFilter, AuthTokenFilter.class);
 
         return http.build();
     }
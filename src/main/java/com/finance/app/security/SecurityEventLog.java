@@ -0,0 +1,84 @@
+package com.finance.app.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampled, aggregated logging for security events that a client can trigger on every request,
+ * such as rejected tokens. The first event of each reason in an interval is logged with its detail;
+ * the rest are only counted and reported in one summary line at the end of the interval, written
+ * by a background thread, so a flood of bad requests costs a counter increment per request instead
+ * of a log write, and the summary appears even if no further event follows.
+ */
+@Component
+public class SecurityEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityEventLog.class);
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    private final long summaryIntervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    public SecurityEventLog(@Value("${security.log.summary-interval-ms:60000}") long summaryIntervalMs) {
+        this.summaryIntervalMs = summaryIntervalMs;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "security-event-summary");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::summarize, summaryIntervalMs, summaryIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        summarize();
+    }
+
+    /**
+     * Records a security event.
+     *
+     * @param reason a short, fixed name for the kind of event, e.g. {@code jwt.expired}
+     * @param detail a description of this occurrence, logged only if the event is sampled
+     */
+    public void record(String reason, String detail) {
+        if (counts.computeIfAbsent(reason, ignored -> new AtomicLong()).incrementAndGet() == 1) {
+            logger.warn("{}: {} (further occurrences are summarized every {} ms)", reason, detail, summaryIntervalMs);
+        }
+    }
+
+    /**
+     * Logs how many events of each reason were not logged individually since the last summary and
+     * starts a new interval.
+     */
+    private void summarize() {
+        Map<String, Long> suppressed = new TreeMap<>();
+        counts.forEach((reason, count) -> {
+            long occurrences = count.getAndSet(0);
+            if (occurrences > 1) {
+                suppressed.put(reason, occurrences - 1);
+            }
+        });
+        if (!suppressed.isEmpty()) {
+            logger.warn("Security events not logged individually in the last interval: {}", suppressed);
+        }
+    }
+}
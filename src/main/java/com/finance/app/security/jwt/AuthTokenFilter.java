@@ -1,13 +1,14 @@
 package com.finance.app.security.jwt;
 
 
+import com.finance.app.security.SecurityEventLog;
 import com.finance.app.security.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,6 +18,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
@@ -25,7 +27,11 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private UserDetailsServiceImpl userDetailsService;
 
-  private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private SecurityEventLog securityEventLog;
 
   /**
    * Filters the incoming request based on JWT authentication.
@@ -39,10 +45,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
+    long started = System.nanoTime();
+    String outcome = "anonymous";
     try {
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
+      // Verify the token once and keep the claims on the request for the rest of its processing
+      Claims claims = jwt != null ? jwtUtils.getClaims(jwt) : null;
+      if (claims != null) {
+        request.setAttribute(JwtUtils.TOKEN_ATTRIBUTE, jwt);
+        request.setAttribute(JwtUtils.CLAIMS_ATTRIBUTE, claims);
+        String username = claims.getSubject();
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
         UsernamePasswordAuthenticationToken authentication =
@@ -53,10 +65,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
+        outcome = "authenticated";
+      } else if (jwt != null) {
+        outcome = "rejected";
       }
     } catch (Exception e) {
-      logger.error("Cannot set user authentication: {}", e);
+      outcome = "failed";
+      securityEventLog.record("auth.failed", "Cannot set user authentication: " + e);
     }
+    // Only the filter's own work is timed, not the rest of the chain
+    meterRegistry.timer("finance.auth.filter", "outcome", outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
     filterChain.doFilter(request, response);
   }
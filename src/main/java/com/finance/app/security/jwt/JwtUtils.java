@@ -1,21 +1,47 @@
 package com.finance.app.security.jwt;
 
+import com.finance.app.security.SecurityEventLog;
 import com.finance.app.security.model.UserDetailsImpl;
+import com.finance.app.util.ExpiringCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
-    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    /**
+     * Request attribute holding the raw JWT that was verified for the current request.
+     */
+    public static final String TOKEN_ATTRIBUTE = JwtUtils.class.getName() + ".TOKEN";
+
+    /**
+     * Request attribute holding the verified {@link Claims} of {@link #TOKEN_ATTRIBUTE}.
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtUtils.class.getName() + ".CLAIMS";
+
+    private static final String VERIFY_TIMER = "finance.auth.jwt.verify";
+
+    private static final String LOOKUP_COUNTER = "finance.auth.jwt.lookups";
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    SecurityEventLog securityEventLog;
 
     @Value("${jwt.secret.key}")
     private String jwtSecret;
@@ -23,6 +49,57 @@ public class JwtUtils {
     @Value("${jwt.expiration.time}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int verifiedTokenCacheSize;
+
+    @Value("${jwt.rejected-cache.max-size:100000}")
+    private int rejectedTokenCacheSize;
+
+    @Value("${jwt.rejected-cache.ttl-ms:600000}")
+    private long rejectedTokenTtlMs;
+
+    private Key key;
+
+    private JwtParser parser;
+
+    private ExpiringCache<String, Claims> verifiedTokens;
+
+    private RejectedTokenCache rejectedTokens;
+
+    private Counter requestHits;
+
+    private Counter cacheHits;
+
+    private Counter cacheMisses;
+
+    private Counter rejectedHits;
+
+    private Timer validTokens;
+
+    private Timer expiredTokens;
+
+    private Timer invalidTokens;
+
+    /**
+     * Builds the signing key, the parser, the token caches and the meters once, so that no
+     * request has to decode the secret, assemble a parser or look up a meter again.
+     */
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verifiedTokens = new ExpiringCache<>(verifiedTokenCacheSize);
+        rejectedTokens = new RejectedTokenCache(rejectedTokenCacheSize, rejectedTokenTtlMs);
+
+        requestHits = meterRegistry.counter(LOOKUP_COUNTER, "result", "request");
+        cacheHits = meterRegistry.counter(LOOKUP_COUNTER, "result", "cache_hit");
+        cacheMisses = meterRegistry.counter(LOOKUP_COUNTER, "result", "cache_miss");
+        rejectedHits = meterRegistry.counter(LOOKUP_COUNTER, "result", "rejected_hit");
+        validTokens = meterRegistry.timer(VERIFY_TIMER, "outcome", "valid");
+        expiredTokens = meterRegistry.timer(VERIFY_TIMER, "outcome", "expired");
+        invalidTokens = meterRegistry.timer(VERIFY_TIMER, "outcome", "invalid");
+    }
+
     /**
      * Generates a JWT token for the provided authentication.
      *
@@ -37,28 +114,19 @@ public class JwtUtils {
                 .setSubject((userPrincipal.getUsername()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    /**
-     * Generates a Key object using the JWT secret key stored in the JwtUtils class.
-     *
-     * @return Key object generated with the HMAC SHA algorithm and the decoded JWT secret
-     */
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
     /**
      * Retrieves the username from the JWT token.
      *
      * @param token the JWT token from which to extract the username
-     * @return the username extracted from the JWT token
+     * @return the username extracted from the JWT token, or null if the token is not valid
      */
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        Claims claims = getClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     /**
@@ -68,19 +136,80 @@ public class JwtUtils {
      * @return true if the token is valid, false otherwise
      */
     public boolean validateJwtToken(String authToken) {
+        return getClaims(authToken) != null;
+    }
+
+    /**
+     * Returns the verified claims of a JWT token, verifying its signature at most once while it is
+     * cached. Claims already verified for the current request are reused without any lookup, and
+     * tokens that recently failed verification are rejected without verifying them again.
+     *
+     * @param token the JWT token to verify
+     * @return the verified claims, or null if the token is not valid
+     */
+    public Claims getClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            securityEventLog.record("jwt.empty", "JWT claims string is empty");
+            return null;
+        }
+
+        Claims claims = getClaimsFromCurrentRequest(token);
+        if (claims != null) {
+            requestHits.increment();
+            return claims;
+        }
+
+        claims = verifiedTokens.get(token);
+        if (claims != null) {
+            cacheHits.increment();
+            return claims;
+        }
+
+        if (rejectedTokens.contains(token)) {
+            rejectedHits.increment();
+            return null;
+        }
+
+        cacheMisses.increment();
+        claims = verify(token);
+        if (claims == null) {
+            rejectedTokens.add(token);
+        } else if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims, claims.getExpiration().getTime());
+        }
+        return claims;
+    }
+
+    private Claims getClaimsFromCurrentRequest(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && token.equals(attributes.getAttribute(TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+            return (Claims) attributes.getAttribute(CLAIMS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+        return null;
+    }
+
+    private Claims verify(String token) {
+        long started = System.nanoTime();
+        Timer outcome = invalidTokens;
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            outcome = validTokens;
+            return claims;
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            securityEventLog.record("jwt.malformed", "Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            outcome = expiredTokens;
+            securityEventLog.record("jwt.expired", "JWT token is expired: " + e.getMessage());
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            securityEventLog.record("jwt.unsupported", "JWT token is unsupported: " + e.getMessage());
+        } catch (JwtException e) {
+            securityEventLog.record("jwt.invalid", "JWT token is invalid: " + e.getMessage());
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            securityEventLog.record("jwt.empty", "JWT claims string is empty: " + e.getMessage());
+        } finally {
+            outcome.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         }
 
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,144 @@
+package com.finance.app.security.jwt;
+
+import java.security.SecureRandom;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers tokens that failed verification so that replaying them is rejected without parsing
+ * or checking their signature again.
+ * <p>
+ * Tokens are reduced to a 128-bit hash with a per-process random seed. A Bloom filter answers
+ * "never rejected" for almost every good token without touching a hash set; a hit is confirmed
+ * against the exact set of hashes, so a false positive costs one lookup and never rejects a good
+ * token. Filter and set are kept in two generations that rotate every {@code ttlMillis}, so a
+ * rejected token is remembered for at least one TTL and old entries are dropped a generation at a
+ * time instead of by scanning.
+ */
+public class RejectedTokenCache {
+
+    private static final int HASH_FUNCTIONS = 4;
+
+    private final long seed = new SecureRandom().nextLong();
+
+    private final int generationSize;
+
+    private final int bitMask;
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicReference<Generations> generations;
+
+    /**
+     * @param maxSize   the maximum number of rejected tokens remembered; 0 disables the cache
+     * @param ttlMillis how long a rejected token is remembered at least
+     */
+    public RejectedTokenCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    RejectedTokenCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.generationSize = maxSize / 2;
+        // Roughly 16 bits per remembered token keeps the false positive rate low
+        int bits = Integer.highestOneBit((int) Math.max(64, Math.min(1L << 30, generationSize * 16L)) - 1) << 1;
+        this.bitMask = bits - 1;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.generations = new AtomicReference<>(new Generations(new Generation(now), new Generation(now)));
+    }
+
+    /**
+     * @return whether the token was rejected recently
+     */
+    public boolean contains(String token) {
+        if (generationSize == 0) {
+            return false;
+        }
+        TokenHash hash = hash(token);
+        Generations current = generations.get();
+        return current.latest.contains(hash) || current.previous.contains(hash);
+    }
+
+    /**
+     * Remembers a token that failed verification. Once the current generation is full, further
+     * tokens are not remembered until it rotates.
+     */
+    public void add(String token) {
+        if (generationSize == 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Generations current = generations.get();
+        if (now - current.latest.createdMillis >= ttlMillis) {
+            Generations rotated = new Generations(new Generation(now), current.latest);
+            current = generations.compareAndSet(current, rotated) ? rotated : generations.get();
+        }
+        current.latest.add(hash(token));
+    }
+
+    private TokenHash hash(String token) {
+        long high = seed;
+        long low = ~seed;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            high = (high ^ c) * 0x100000001b3L;
+            low = (low + c) * 0x9e3779b97f4a7c15L;
+        }
+        return new TokenHash(mix(high), mix(low ^ token.length()));
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private record TokenHash(long high, long low) {
+    }
+
+    private record Generations(Generation latest, Generation previous) {
+    }
+
+    private final class Generation {
+
+        private final AtomicLongArray bloom = new AtomicLongArray((bitMask + 1) >>> 6);
+
+        private final Set<TokenHash> hashes = ConcurrentHashMap.newKeySet();
+
+        private final long createdMillis;
+
+        Generation(long createdMillis) {
+            this.createdMillis = createdMillis;
+        }
+
+        void add(TokenHash hash) {
+            if (hashes.size() >= generationSize || !hashes.add(hash)) {
+                return;
+            }
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bit(hash, i);
+                bloom.accumulateAndGet(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+            }
+        }
+
+        boolean contains(TokenHash hash) {
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bit(hash, i);
+                if ((bloom.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return hashes.contains(hash);
+        }
+
+        private int bit(TokenHash hash, int i) {
+            return (int) ((hash.high() + i * hash.low()) & bitMask);
+        }
+    }
+}
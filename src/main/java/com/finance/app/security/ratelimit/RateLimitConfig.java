@@ -0,0 +1,83 @@
+package com.finance.app.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the rate limit filter from the {@code rate-limit.*} properties. Each
+ * {@code rate-limit.rule.<name>} property is one {@link RateLimitRule}. Idle buckets are swept
+ * every {@code rate-limit.idle-sweep-interval-ms} on a background thread.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${rate-limit.idle-sweep-interval-ms:60000}")
+    private long idleSweepIntervalMs;
+
+    private ScheduledExecutorService sweeper;
+
+    @Bean
+    public TokenBucketLimiter tokenBucketLimiter() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(maxKeys);
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(limiter::sweep, idleSweepIntervalMs, idleSweepIntervalMs, TimeUnit.MILLISECONDS);
+        return limiter;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(Environment environment, TokenBucketLimiter limiter, ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) {
+        List<RateLimitRule> rules = new ArrayList<>();
+        if (enabled) {
+            Map<String, String> specs = Binder.get(environment)
+                    .bind("rate-limit.rule", Bindable.mapOf(String.class, String.class))
+                    .orElse(Map.of());
+            new TreeMap<>(specs).forEach((name, spec) -> rules.add(RateLimitRule.parse(name, spec)));
+        }
+        return new RateLimitFilter(List.copyOf(rules), limiter, objectMapper, meterRegistry);
+    }
+
+    /**
+     * The filter runs inside the security filter chain, ahead of the token filter; this keeps Spring
+     * Boot from also registering it with the servlet container.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
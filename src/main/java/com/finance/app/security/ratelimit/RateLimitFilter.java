@@ -0,0 +1,221 @@
+package com.finance.app.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.app.model.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the configured {@link RateLimitRule}s ahead of authentication and answers requests over
+ * a limit with 429 and a Retry-After header. Every limit of every matching rule must allow the
+ * request. Limits keyed by the client address or token are checked before the body is read, so a
+ * rejected flood costs a path match and a compare-and-set per request.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 8192;
+
+    private final List<RateLimitRule> rules;
+
+    private final TokenBucketLimiter limiter;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    public RateLimitFilter(List<RateLimitRule> rules, TokenBucketLimiter limiter, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.rules = rules;
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        for (RateLimitRule rule : rules) {
+            for (RateLimitRule.Limit limit : rule.limits()) {
+                rejections.put(group(rule, limit), meterRegistry.counter("finance.ratelimit.rejected",
+                        "rule", rule.name(), "key", limit.key().name().toLowerCase(Locale.ROOT)));
+            }
+        }
+        Gauge.builder("finance.ratelimit.keys", limiter, TokenBucketLimiter::size)
+                .description("Rate limit buckets held in memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("finance.ratelimit.evictions", limiter, TokenBucketLimiter::evictions)
+                .description("Rate limit buckets evicted to make room for new keys")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        HttpServletRequest filteredRequest = request;
+        String username = null;
+        boolean bodyRead = false;
+
+        for (RateLimitRule rule : rules) {
+            if (!rule.matches(request.getMethod(), path)) {
+                continue;
+            }
+            for (RateLimitRule.Limit limit : rule.limits()) {
+                String value = switch (limit.key()) {
+                    case IP -> request.getRemoteAddr();
+                    case TOKEN -> request.getHeader(HttpHeaders.AUTHORIZATION);
+                    case USERNAME -> {
+                        if (!bodyRead) {
+                            bodyRead = true;
+                            CachedBodyRequest cached = CachedBodyRequest.of(request);
+                            if (cached != null) {
+                                filteredRequest = cached;
+                                username = usernameOf(cached.body);
+                            }
+                        }
+                        yield username;
+                    }
+                };
+                if (value == null) {
+                    continue;
+                }
+                String group = group(rule, limit);
+                long waitNanos = limiter.acquire(group, value, limit);
+                if (waitNanos > 0) {
+                    rejections.get(group).increment();
+                    reject(response, waitNanos);
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(filteredRequest, response);
+    }
+
+    private static String group(RateLimitRule rule, RateLimitRule.Limit limit) {
+        return rule.name() + ':' + limit.key();
+    }
+
+    private String usernameOf(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            return username != null && username.isTextual() ? username.asText() : null;
+        } catch (IOException | RuntimeException exception) {
+            // Malformed bodies are left to the controller to reject
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        Status status = new Status();
+        status.setCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        status.setStatus(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        status.setMessage("Too many requests, please retry later");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), status);
+    }
+
+    /**
+     * Keeps a small JSON body in memory so it can be read for its username and again by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * @return the wrapped request, or null if the body is not JSON or its size is unknown or too large
+         */
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            String contentType = request.getContentType();
+            if (length < 0 || length > MAX_BODY_BYTES || contentType == null || !isJson(contentType)) {
+                return null;
+            }
+            return new CachedBodyRequest(request, request.getInputStream().readNBytes((int) length));
+        }
+
+        private static boolean isJson(String contentType) {
+            try {
+                return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+            } catch (InvalidMediaTypeException exception) {
+                return false;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is in memory, so it can be read at once
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException exception) {
+                        readListener.onError(exception);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
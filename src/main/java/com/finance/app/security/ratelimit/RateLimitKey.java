@@ -0,0 +1,21 @@
+package com.finance.app.security.ratelimit;
+
+/**
+ * What a rate limit counts requests by.
+ */
+public enum RateLimitKey {
+    /**
+     * The client address as seen by the servlet container.
+     */
+    IP,
+    /**
+     * The {@code username} field of a JSON request body, for signin and signup.
+     */
+    USERNAME,
+    /**
+     * The bearer token of the Authorization header. The limit runs before the token is verified,
+     * so it is keyed by the token itself rather than by the user it claims to be; keying by an
+     * unverified subject would let anyone drain another user's budget.
+     */
+    TOKEN
+}
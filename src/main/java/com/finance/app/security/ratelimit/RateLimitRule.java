@@ -0,0 +1,112 @@
+package com.finance.app.security.ratelimit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The limits applied to one route, parsed from a {@code rate-limit.rule.<name>} property such as
+ * <pre>
+ * POST /api/v1/users/signin; ip 30/1m burst 10; username 10/1m burst 5
+ * </pre>
+ * The route is a comma separated list of methods ({@code *} for any) and a path pattern. Each
+ * limit names a {@link RateLimitKey} and allows {@code permits} requests per period
+ * ({@code s}, {@code m} or {@code h}), with up to {@code burst} requests at once (default: permits).
+ *
+ * @param name    the rule's name, used in metrics
+ * @param methods the HTTP methods the rule applies to, empty for all
+ * @param pattern the request paths the rule applies to
+ * @param limits  the limits, ordered so that limits needing the request body come last
+ */
+public record RateLimitRule(String name, Set<String> methods, PathPattern pattern, List<Limit> limits) {
+
+    /**
+     * One token bucket per key value, enforced with the generic cell rate algorithm: a request is
+     * allowed while the bucket's theoretical arrival time is at most {@code toleranceNanos} ahead
+     * of now, and each allowed request moves it {@code emissionIntervalNanos} further.
+     *
+     * @param key                   what the bucket is keyed by
+     * @param emissionIntervalNanos the time it takes to earn back one permit
+     * @param toleranceNanos        how far ahead of now a bucket may run, i.e. the burst
+     */
+    public record Limit(RateLimitKey key, long emissionIntervalNanos, long toleranceNanos) {
+    }
+
+    /**
+     * @return whether the rule applies to a request with the given method and path
+     */
+    public boolean matches(String method, PathContainer path) {
+        return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+    }
+
+    /**
+     * Parses a rule from its property value.
+     *
+     * @param name the rule's name
+     * @param spec the property value
+     * @return the rule
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static RateLimitRule parse(String name, String spec) {
+        String[] parts = spec.trim().split("\\s*;\\s*");
+        String[] route = parts[0].split("\\s+");
+        if (route.length != 2 || parts.length < 2) {
+            throw new IllegalArgumentException("Rate limit rule " + name + " must look like "
+                    + "'<methods> <path>; <key> <permits>/<period> [burst <n>]', got: " + spec);
+        }
+
+        Set<String> methods = new LinkedHashSet<>();
+        for (String method : route[0].split(",")) {
+            if (!method.equals("*")) {
+                methods.add(method.toUpperCase(Locale.ROOT));
+            }
+        }
+
+        List<Limit> limits = new ArrayList<>();
+        for (int i = 1; i < parts.length; i++) {
+            limits.add(parseLimit(name, parts[i]));
+        }
+        limits.sort(Comparator.comparing(limit -> limit.key() == RateLimitKey.USERNAME));
+
+        return new RateLimitRule(name, Set.copyOf(methods), PathPatternParser.defaultInstance.parse(route[1]), List.copyOf(limits));
+    }
+
+    private static Limit parseLimit(String name, String spec) {
+        String[] words = spec.split("\\s+");
+        String[] rate = words.length >= 2 ? words[1].split("/") : new String[0];
+        if ((words.length != 2 && !(words.length == 4 && words[2].equals("burst"))) || rate.length != 2) {
+            throw new IllegalArgumentException("Rate limit " + spec + " of rule " + name
+                    + " must look like '<key> <permits>/<period> [burst <n>]'");
+        }
+
+        RateLimitKey key = RateLimitKey.valueOf(words[0].toUpperCase(Locale.ROOT));
+        long permits = Long.parseLong(rate[0]);
+        long burst = words.length == 4 ? Long.parseLong(words[3]) : permits;
+        if (permits <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit " + spec + " of rule " + name + " must allow at least one request");
+        }
+
+        long emissionIntervalNanos = parsePeriodNanos(rate[1]) / permits;
+        return new Limit(key, emissionIntervalNanos, emissionIntervalNanos * (burst - 1));
+    }
+
+    private static long parsePeriodNanos(String period) {
+        char unit = period.charAt(period.length() - 1);
+        String amount = period.substring(0, period.length() - 1);
+        long count = amount.isEmpty() ? 1 : Long.parseLong(amount);
+        return switch (unit) {
+            case 's' -> TimeUnit.SECONDS.toNanos(count);
+            case 'm' -> TimeUnit.MINUTES.toNanos(count);
+            case 'h' -> TimeUnit.HOURS.toNanos(count);
+            default -> throw new IllegalArgumentException("Unknown rate limit period: " + period);
+        };
+    }
+}
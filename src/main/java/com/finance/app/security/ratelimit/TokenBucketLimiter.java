@@ -0,0 +1,160 @@
+package com.finance.app.security.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets, one per key, each stored as a single theoretical arrival time that is
+ * advanced with compare-and-set (the generic cell rate algorithm).
+ * <p>
+ * A bucket whose arrival time has passed is full again and holds no information, so idle buckets
+ * are dropped by {@link #sweep()}, which the owner runs on a timer off the request path. When a new
+ * key arrives while the limiter holds {@code maxKeys} buckets, one bucket is evicted with the CLOCK
+ * algorithm: a hand walks the buckets, sparing each one used since it last passed, and evicts the
+ * first idle or not recently used one. Every key keeps a bucket of its own, so a flood of new keys
+ * pushes out stale buckets instead of throttling unrelated clients together.
+ */
+public class TokenBucketLimiter {
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final int maxKeys;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * The CLOCK hand, guarded by {@code this}.
+     */
+    private Iterator<Map.Entry<String, Bucket>> hand;
+
+    /**
+     * @param maxKeys the number of buckets held before the least recently used ones are evicted
+     */
+    public TokenBucketLimiter(int maxKeys) {
+        this(maxKeys, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int maxKeys, LongSupplier nanoClock) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("rate-limit.max-keys must be at least 1, was " + maxKeys);
+        }
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one permit from the bucket of {@code value} within {@code group}.
+     *
+     * @param group the rule and limit the bucket belongs to
+     * @param value the key value, e.g. the client address
+     * @param limit the rate and burst of the bucket
+     * @return 0 if the request is allowed, otherwise how many nanoseconds until it would be
+     */
+    public long acquire(String group, String value, RateLimitRule.Limit limit) {
+        long now = nanoClock.getAsLong();
+        String key = group + '\u0000' + value;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(key, now);
+        } else if (!bucket.referenced) {
+            bucket.referenced = true;
+        }
+
+        while (true) {
+            long arrival = bucket.arrival.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long wait = start - now - limit.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.arrival.compareAndSet(arrival, start + limit.emissionIntervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops full buckets. A request racing with the sweep may be counted against a bucket that was
+     * just dropped, which at worst lets one extra request through.
+     *
+     * @return the number of buckets dropped
+     */
+    public int sweep() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.arrival.get() - now <= 0);
+        return Math.max(0, before - buckets.size());
+    }
+
+    /**
+     * @return the number of buckets currently held
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * @return the number of buckets evicted so far to make room for new keys
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Adds a bucket for a new key, evicting others while the limiter is full. Keys added
+     * concurrently may take the limiter past {@code maxKeys} by at most the number of racing threads.
+     */
+    private Bucket newBucket(String key, long now) {
+        while (buckets.size() >= maxKeys && evictOne(now)) {
+            evictions.incrementAndGet();
+        }
+        return buckets.computeIfAbsent(key, ignored -> new Bucket(now));
+    }
+
+    /**
+     * Advances the CLOCK hand to the first bucket that is full or was not used since the hand last
+     * passed it, clearing the used mark of the buckets it passes, and evicts that bucket. After two
+     * rounds the bucket under the hand is evicted regardless, so a flood of hot keys cannot keep
+     * the hand spinning.
+     *
+     * @return false if there was nothing to evict
+     */
+    private synchronized boolean evictOne(long now) {
+        long maxScanned = 2L * buckets.size() + 1;
+        for (long scanned = 0; ; scanned++) {
+            if (hand == null || !hand.hasNext()) {
+                hand = buckets.entrySet().iterator();
+                if (!hand.hasNext()) {
+                    return false;
+                }
+            }
+            Map.Entry<String, Bucket> entry = hand.next();
+            Bucket bucket = entry.getValue();
+            if (bucket.referenced && bucket.arrival.get() - now > 0 && scanned < maxScanned) {
+                bucket.referenced = false;
+                continue;
+            }
+            if (buckets.remove(entry.getKey(), bucket)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicLong arrival;
+
+        /**
+         * Set when the bucket is used and cleared when the CLOCK hand passes it.
+         */
+        private volatile boolean referenced = true;
+
+        private Bucket(long arrival) {
+            this.arrival = new AtomicLong(arrival);
+        }
+    }
+}
@@ -3,25 +3,79 @@ package com.finance.app.security.service;
 import com.finance.app.model.User;
 import com.finance.app.repository.UserRepository;
 import com.finance.app.security.model.UserDetailsImpl;
+import com.finance.app.util.ExpiringCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Value("${user.cache.ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    private final ExpiringCache<String, UserDetailsImpl> userDetailsCache;
+
+    private final Timer cachedLoads;
+
+    private final Timer databaseLoads;
+
+    private final Timer notFoundLoads;
+
+    public UserDetailsServiceImpl(@Value("${user.cache.max-size:10000}") int cacheMaxSize, MeterRegistry meterRegistry) {
+        this.userDetailsCache = new ExpiringCache<>(cacheMaxSize);
+        this.cachedLoads = meterRegistry.timer("finance.auth.user.load", "source", "cache", "outcome", "found");
+        this.databaseLoads = meterRegistry.timer("finance.auth.user.load", "source", "database", "outcome", "found");
+        this.notFoundLoads = meterRegistry.timer("finance.auth.user.load", "source", "database", "outcome", "not_found");
+    }
+
+    /**
+     * Loads the user details for the given username, serving recently loaded users from a
+     * short-lived cache. A cache miss fetches the user together with its roles in one query.
+     *
+     * @param username the username identifying the user
+     * @return the UserDetails of the user
+     * @throws UsernameNotFoundException if no user exists with the given username
+     */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        long started = System.nanoTime();
+        UserDetailsImpl cached = userDetailsCache.get(username);
+        if (cached != null) {
+            cachedLoads.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        User user = userRepository.findWithRolesByUsername(username).orElse(null);
+        if (user == null) {
+            notFoundLoads.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw new UsernameNotFoundException("User Not Found with username: " + username);
+        }
+
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        userDetailsCache.put(username, userDetails, System.currentTimeMillis() + cacheTtlMs);
+        databaseLoads.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return userDetails;
+    }
 
-        return UserDetailsImpl.build(user);
+    /**
+     * Drops the cached user details for the given username so the next lookup reloads them.
+     *
+     * @param username the username whose cached details should be evicted
+     */
+    public void evict(String username) {
+        userDetailsCache.evict(username);
     }
 
 }
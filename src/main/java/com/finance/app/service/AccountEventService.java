@@ -0,0 +1,397 @@
+package com.finance.app.service;
+
+import com.finance.app.model.*;
+import com.finance.app.repository.AccountEventRepository;
+import com.finance.app.repository.AccountRepository;
+import com.finance.app.repository.AccountSnapshotRepository;
+import com.finance.app.util.Transactions;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Records every change to an account's balance, credit limit and type as an immutable event and
+ * derives the account's state from those events.
+ * <p>
+ * Events are appended in the same database transaction as the posting or account update that
+ * causes them, so replaying the stream gives the {@code current_balance} and {@code credit_limit}
+ * the application wrote. A credit limit the account never had is recorded as 0 and restored as
+ * absent. Changes made to the table outside the application are not recorded. Every
+ * {@code account.events.snapshot-interval} events the stream is folded into the account's snapshot,
+ * so rebuilding an account reads its snapshot plus at most that many events instead of its whole
+ * history. Rebuilding all accounts, for example after a restore, works through the accounts in
+ * chunks on {@code account.events.rebuild-parallelism} threads.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class AccountEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountEventService.class);
+
+    @Autowired
+    AccountEventRepository accountEventRepository;
+
+    @Autowired
+    AccountSnapshotRepository accountSnapshotRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    PostingSequencer postingSequencer;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${account.events.snapshot-interval:100}")
+    private int snapshotInterval;
+
+    @Value("${account.events.rebuild-chunk-size:1000}")
+    private int rebuildChunkSize;
+
+    @Value("${account.events.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    /**
+     * Starts the event stream of a newly created account with an OPENED event carrying its
+     * current balance, credit limit and type. Must run in the database transaction that creates the account.
+     *
+     * @param account The saved account.
+     */
+    public void recordAccountOpened(Account account) {
+        openStream(AccountView.of(account), 0, 0, LocalDateTime.now());
+    }
+
+    /**
+     * Appends the events of the given postings to the streams of every account they touch. Like
+     * the posting itself, an event only changes the credit limit of a credit card account that has
+     * one. Must run inside the posting's database transaction, after the transactions are saved and
+     * the balances are updated.
+     *
+     * @param accountId    The unique identifier of the account the transactions are posted to.
+     * @param transactions The posted transactions.
+     * @throws Exception if an affected account is not found.
+     */
+    public void recordPostings(Long accountId, List<Transaction> transactions) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        // Streams are locked in ascending account order, like the account rows before them
+        Map<Long, List<AccountEvent>> events = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            ETransactionType transactionType = ETransactionType.valueOf(transaction.getType());
+            PostingDeltas.changesOf(accountId, transactionType,
+                    Money.toMinorUnits(transaction.getAmount(), Money.LEDGER_SCALE),
+                    transaction.getFromAccount() != null ? transaction.getFromAccount().getId() : null,
+                    transaction.getToAccount() != null ? transaction.getToAccount().getId() : null,
+                    (id, balanceDelta, creditDelta) -> events.computeIfAbsent(id, key -> new ArrayList<>())
+                            .add(newEvent(id, eventType(transactionType, balanceDelta), balanceDelta, creditDelta,
+                                    transaction.getId(), now)));
+        }
+
+        Map<Long, AccountView> accounts = new HashMap<>();
+        for (AccountView account : accountRepository.findViewsByIds(events.keySet())) {
+            accounts.put(account.getId(), account);
+        }
+        for (Map.Entry<Long, List<AccountEvent>> stream : events.entrySet()) {
+            AccountView account = accounts.get(stream.getKey());
+            if (account == null) {
+                throw new Exception("Account not found");
+            }
+            for (AccountEvent event : stream.getValue()) {
+                event.setAccountType(account.getType());
+                if (!hasCreditLimit(account)) {
+                    event.setCreditDelta(0);
+                }
+            }
+            append(account, stream.getValue(), now);
+        }
+    }
+
+    /**
+     * Appends the events of an account update: an ADJUSTMENT event for a balance that was set
+     * directly rather than posted and a TYPE_CHANGED event for a new account type. Must run inside
+     * the database transaction that updates the account, after the update.
+     *
+     * @param account         The updated account.
+     * @param previousType    The type of the account before the update.
+     * @param previousBalance The current balance of the account before the update.
+     */
+    public void recordAccountUpdated(Account account, String previousType, BigDecimal previousBalance) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AccountEvent> events = new ArrayList<>();
+        if (account.getCurrentBalance() != null && previousBalance != null
+                && account.getCurrentBalance().compareTo(previousBalance) != 0) {
+            events.add(newEvent(account.getId(), EAccountEventType.ADJUSTMENT, Math.subtractExact(
+                    Money.toMinorUnits(account.getCurrentBalance(), Money.LEDGER_SCALE),
+                    Money.toMinorUnits(previousBalance, Money.LEDGER_SCALE)), 0, null, now));
+        }
+        if (!Objects.equals(account.getType(), previousType)) {
+            events.add(newEvent(account.getId(), EAccountEventType.TYPE_CHANGED, 0, 0, null, now));
+        }
+        for (AccountEvent event : events) {
+            event.setAccountType(account.getType());
+        }
+        if (!events.isEmpty()) {
+            append(AccountView.of(account), events, now);
+        }
+    }
+
+    /**
+     * Deletes the event stream and snapshot of an account. Must run inside the database
+     * transaction that deletes the account.
+     *
+     * @param accountId The unique identifier of the account.
+     */
+    public void deleteStream(Long accountId) {
+        accountEventRepository.deleteByAccountId(accountId);
+        accountSnapshotRepository.deleteByAccountId(accountId);
+    }
+
+    /**
+     * Derives the balance and credit limit of an account from its snapshot and the events after
+     * it, and writes them to the account.
+     *
+     * @param accountId The unique identifier of the account.
+     * @return The rebuilt AccountBalance as of today.
+     * @throws Exception if the account is not found or has no event stream.
+     */
+    public AccountBalance rebuildAccount(Long accountId) throws Exception {
+        return postingSequencer.execute(List.of(accountId), () -> Transactions.inTransaction(transactionTemplate, () -> {
+            List<Account> accounts = accountRepository.findAllForUpdate(List.of(accountId));
+            if (accounts.isEmpty()) {
+                throw new Exception("Account not found");
+            }
+            if (restore(accounts) == 0) {
+                throw new Exception("Account has no event stream");
+            }
+            return new AccountBalance(accountId, LocalDate.now(), accounts.get(0).getCurrentBalance());
+        }));
+    }
+
+    /**
+     * Rebuilds every account from its snapshot and the events after it, in parallel chunks of
+     * accounts. Each chunk is rebuilt in its own database transaction that locks the chunk's
+     * accounts, so postings may continue meanwhile.
+     *
+     * @return The number of accounts rebuilt.
+     * @throws Exception if a chunk cannot be rebuilt; chunks that already committed stay rebuilt.
+     */
+    public long rebuildAllAccounts() throws Exception {
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildParallelism));
+        // Bounds the account ids held in memory to the chunks being worked on
+        Semaphore inFlight = new Semaphore(Math.max(1, rebuildParallelism) * 2);
+        List<Future<Integer>> chunks = new ArrayList<>();
+        try {
+            long afterId = 0;
+            List<Long> accountIds;
+            while (!(accountIds = accountRepository.findIdsAfter(afterId, PageRequest.of(0, rebuildChunkSize))).isEmpty()) {
+                List<Long> chunk = accountIds;
+                inFlight.acquire();
+                chunks.add(executor.submit(() -> {
+                    try {
+                        return Transactions.inTransaction(transactionTemplate,
+                                () -> restore(accountRepository.findAllForUpdate(chunk)));
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                afterId = chunk.get(chunk.size() - 1);
+            }
+
+            long rebuilt = 0;
+            for (Future<Integer> chunk : chunks) {
+                rebuilt += chunk.get();
+            }
+            logger.info("Rebuilt {} accounts from their event streams in {} ms", rebuilt, (System.nanoTime() - started) / 1_000_000);
+            return rebuilt;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts an event stream for every account that has none yet, adopting its current balance and
+     * credit limit as the opening state. Accounts created before event streams existed get their
+     * stream this way.
+     *
+     * @return The number of streams started.
+     * @throws Exception if a chunk of streams cannot be written.
+     */
+    public long openMissingStreams() throws Exception {
+        long opened = 0;
+        long afterId = 0;
+        List<Long> accountIds;
+        while (!(accountIds = accountRepository.findIdsWithoutEventStreamAfter(afterId, PageRequest.of(0, rebuildChunkSize))).isEmpty()) {
+            List<Long> chunk = accountIds;
+            Transactions.inTransaction(transactionTemplate, () -> {
+                LocalDateTime now = LocalDateTime.now();
+                for (AccountView account : accountRepository.findViewsByIds(chunk)) {
+                    openStream(account, 0, 0, now);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+            opened += chunk.size();
+            afterId = chunk.get(chunk.size() - 1);
+        }
+        return opened;
+    }
+
+    /**
+     * Numbers and saves the given events of one account after the newest event of its stream, and
+     * folds the stream into the snapshot once enough events have accumulated since the last one.
+     */
+    private void append(AccountView account, List<AccountEvent> events, LocalDateTime now) {
+        Long accountId = account.getId();
+        AccountSnapshot snapshot = accountSnapshotRepository.findForUpdate(accountId).orElse(null);
+        if (snapshot == null) {
+            // The balance already includes these events, so the stream opens with the state before them
+            long pendingBalance = 0;
+            long pendingCredit = 0;
+            for (AccountEvent event : events) {
+                pendingBalance = Math.addExact(pendingBalance, event.getBalanceDelta());
+                pendingCredit = Math.addExact(pendingCredit, event.getCreditDelta());
+            }
+            snapshot = openStream(account, pendingBalance, pendingCredit, now);
+        }
+
+        long version = snapshot.getStreamVersion();
+        for (AccountEvent event : events) {
+            event.setVersion(++version);
+        }
+        snapshot.setStreamVersion(version);
+        accountEventRepository.saveAll(events);
+
+        if (version - snapshot.getVersion() >= snapshotInterval) {
+            accountEventRepository.sumTail(accountId, snapshot.getVersion()).ifPresent(snapshot::apply);
+            snapshot.setUpdatedDate(now);
+        }
+    }
+
+    /**
+     * Writes the OPENED event and the first snapshot of an account's stream. The opening state is
+     * the account's current state minus the given changes that are about to be appended.
+     */
+    private AccountSnapshot openStream(AccountView account, long pendingBalance, long pendingCredit, LocalDateTime now) {
+        long balance = Math.subtractExact(Money.toMinorUnits(account.getCurrentBalance(), Money.LEDGER_SCALE), pendingBalance);
+        long creditLimit = Math.subtractExact(account.getCreditLimit() != null
+                ? Money.toMinorUnits(account.getCreditLimit(), Money.LEDGER_SCALE) : 0, pendingCredit);
+
+        AccountEvent opened = newEvent(account.getId(), EAccountEventType.OPENED, balance, creditLimit, null, now);
+        opened.setAccountType(account.getType());
+        opened.setVersion(1);
+        accountEventRepository.save(opened);
+
+        AccountSnapshot snapshot = new AccountSnapshot();
+        snapshot.setAccountId(account.getId());
+        snapshot.setVersion(1);
+        snapshot.setBalance(balance);
+        snapshot.setCreditLimit(creditLimit);
+        snapshot.setStreamVersion(1);
+        snapshot.setUpdatedDate(now);
+        entityManager.persist(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Folds the events after each snapshot of the given locked accounts into the snapshot and
+     * writes the resulting balance and credit limit to the account. The credit limit is only
+     * written to credit card accounts, and an absent one is kept while the events add up to 0.
+     * Accounts without an event stream are left unchanged.
+     *
+     * @return the number of accounts rebuilt
+     */
+    private int restore(List<Account> accounts) {
+        List<Long> accountIds = accounts.stream().map(Account::getId).toList();
+        Map<Long, AccountSnapshot> snapshots = new HashMap<>();
+        for (AccountSnapshot snapshot : accountSnapshotRepository.findAllForUpdate(accountIds)) {
+            snapshots.put(snapshot.getAccountId(), snapshot);
+        }
+        Map<Long, AccountEventTail> tails = new HashMap<>();
+        for (AccountEventTail tail : accountEventRepository.sumTailsAfterSnapshots(accountIds)) {
+            tails.put(tail.getAccountId(), tail);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int rebuilt = 0;
+        for (Account account : accounts) {
+            AccountSnapshot snapshot = snapshots.get(account.getId());
+            if (snapshot == null) {
+                continue;
+            }
+            AccountEventTail tail = tails.get(account.getId());
+            if (tail != null) {
+                snapshot.apply(tail);
+                snapshot.setUpdatedDate(now);
+            }
+
+            BigDecimal balance = Money.toBigDecimal(snapshot.getBalance(), Money.LEDGER_SCALE);
+            if (account.getCurrentBalance() == null || account.getCurrentBalance().compareTo(balance) != 0) {
+                account.setCurrentBalance(balance);
+                account.setUpdatedDate(now);
+            }
+            if (EAccountType.CREDIT_CARD.name().equals(account.getType())) {
+                BigDecimal creditLimit = Money.toBigDecimal(snapshot.getCreditLimit(), Money.LEDGER_SCALE);
+                if (account.getCreditLimit() == null ? snapshot.getCreditLimit() != 0
+                        : account.getCreditLimit().compareTo(creditLimit) != 0) {
+                    account.setCreditLimit(creditLimit);
+                    account.setUpdatedDate(now);
+                }
+            }
+            rebuilt++;
+        }
+        return rebuilt;
+    }
+
+    /**
+     * @return whether postings change the credit limit of the account, as they do for credit cards that have one
+     */
+    private static boolean hasCreditLimit(AccountView account) {
+        return EAccountType.CREDIT_CARD.name().equals(account.getType()) && account.getCreditLimit() != null;
+    }
+
+    private static EAccountEventType eventType(ETransactionType transactionType, long balanceDelta) {
+        return switch (transactionType) {
+            case DEPOSIT -> EAccountEventType.DEPOSIT;
+            case WITHDRAWAL -> EAccountEventType.WITHDRAWAL;
+            case TRANSFER -> balanceDelta < 0 ? EAccountEventType.TRANSFER_OUT : EAccountEventType.TRANSFER_IN;
+        };
+    }
+
+    private static AccountEvent newEvent(Long accountId, EAccountEventType type, long balanceDelta, long creditDelta,
+                                         Long transactionId, LocalDateTime now) {
+        AccountEvent event = new AccountEvent();
+        event.setAccountId(accountId);
+        event.setType(type.name());
+        event.setBalanceDelta(balanceDelta);
+        event.setCreditDelta(creditDelta);
+        event.setTransactionId(transactionId);
+        event.setCreatedDate(now);
+        return event;
+    }
+}
@@ -1,15 +1,31 @@
 package com.finance.app.service;
 
 import com.finance.app.model.Account;
-import com.finance.app.model.User;
+import com.finance.app.model.AccountDeletedEvent;
+import com.finance.app.model.AccountView;
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.Money;
 import com.finance.app.repository.AccountRepository;
+import com.finance.app.repository.BalanceCheckpointRepository;
+import com.finance.app.repository.SpendingRollupRepository;
+import com.finance.app.repository.UserRepository;
 import com.finance.app.util.CommonUtil;
+import com.finance.app.util.Transactions;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
 public class AccountService {
 
     @Autowired
@@ -18,8 +34,29 @@ public class AccountService {
     @Autowired
     UserService userService;
 
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    AccountEventService accountEventService;
+
+    @Autowired
+    BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    SpendingRollupRepository spendingRollupRepository;
+
+    @Autowired
+    PostingSequencer postingSequencer;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     /**
-     * Adds an account to the system.
+     * Adds an account to the system and starts its event stream.
      *
      * @param account The Account object to be added.
      * @param token   The Authorization token for authentication.
@@ -27,12 +64,17 @@ public class AccountService {
      */
     public void addAccount(Account account, String token) throws Exception {
         if (token != null && !token.isEmpty()) {
-            User user = userService.getUserFromToken(CommonUtil.extractToken(token));
+            AuthenticatedUser user = userService.getUserFromToken(CommonUtil.extractToken(token));
             if (user != null) {
-                account.setUser(user);
-                account.setCreatedDate(LocalDateTime.now());
-                account.setUpdatedDate(LocalDateTime.now());
-                accountRepository.save(account);
+                validateAmounts(account);
+                // A new account has no postings to sequence against until it is committed
+                Transactions.inTransaction(transactionTemplate, () -> {
+                    account.setUser(userRepository.getReferenceById(user.getId()));
+                    account.setCreatedDate(LocalDateTime.now());
+                    account.setUpdatedDate(LocalDateTime.now());
+                    accountEventService.recordAccountOpened(accountRepository.save(account));
+                    return null;
+                });
             } else {
                 throw new Exception("User not found");
             }
@@ -53,24 +95,185 @@ public class AccountService {
     }
 
     /**
-     * Updates an existing account with the provided details.
+     * Retrieves a read-only view of an account of the user identified by the token with a single
+     * query, without loading its user or transactions.
+     *
+     * @param token     The Authorization token for authentication.
+     * @param accountId The unique identifier of the account to be retrieved.
+     * @return The AccountView of the account.
+     * @throws Exception if the token is invalid or the account is not found for the user.
+     */
+    public AccountView getAccountView(String token, Long accountId) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        return accountRepository.findViewByIdAndUserId(accountId, user.getId()).orElseThrow(() -> new Exception("Account not found"));
+    }
+
+    /**
+     * Checks that the account exists and belongs to the user identified by the token.
      *
+     * @param token     The Authorization token for authentication.
+     * @param accountId The unique identifier of the account.
+     * @throws Exception if the token is invalid or the account is not found for the user.
+     */
+    public void verifyAccountAccess(String token, Long accountId) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        if (!accountRepository.existsByIdAndUserId(accountId, user.getId())) {
+            throw new Exception("Account not found");
+        }
+    }
+
+    /**
+     * Updates an existing account with the provided details. A change of the current balance is
+     * recorded as an ADJUSTMENT event and a change of the type as a TYPE_CHANGED event.
+     *
+     * @param token     The Authorization token for authentication.
      * @param accountId The unique identifier of the account to be updated.
      * @param account   The Account object containing the updated information.
      * @return The updated Account object after saving it in the repository.
+     * @throws Exception if the token is invalid or the account is not found for the user.
+     */
+    public Account updateAccount(String token, Long accountId, Account account) throws Exception {
+        verifyAccountAccess(token, accountId);
+        return postingSequencer.execute(List.of(accountId), () -> Transactions.inTransaction(transactionTemplate, () -> {
+            Account existingAccount = accountRepository.findById(accountId).orElseThrow(() -> new Exception("Account not found"));
+            String previousType = existingAccount.getType();
+            BigDecimal previousBalance = existingAccount.getCurrentBalance();
+
+            existingAccount.setName(account.getName());
+            existingAccount.setType(account.getType());
+            existingAccount.setCurrentBalance(account.getCurrentBalance());
+            existingAccount.setUpdatedDate(LocalDateTime.now());
+            Account savedAccount = accountRepository.save(existingAccount);
+
+            accountEventService.recordAccountUpdated(savedAccount, previousType, previousBalance);
+            return savedAccount;
+        }));
+    }
+
+    /**
+     * Applies a balance change to an account with a single atomic update statement. The credit
+     * limit change is only applied to credit card accounts.
+     *
+     * @param accountId    The unique identifier of the account to be updated.
+     * @param balanceDelta The amount to add to the account's current balance in minor units of {@link Money#LEDGER_SCALE}, negative to subtract.
+     * @param creditDelta  The amount to add to the account's credit limit in minor units of {@link Money#LEDGER_SCALE}, negative to subtract.
      * @throws Exception if the account with the provided accountId is not found in the repository.
      */
-    public Account updateAccount(Long accountId, Account account) throws Exception {
-        Account existingAccount = accountRepository.findById(accountId).orElseThrow(() -> new Exception("Account not found"));
-
-        existingAccount.setName(account.getName());
-        existingAccount.setType(account.getType());
-        existingAccount.setCurrentBalance(account.getCurrentBalance());
-        existingAccount.setUpdatedDate(LocalDateTime.now());
-        return accountRepository.save(existingAccount);
+    public void applyBalanceDelta(Long accountId, long balanceDelta, long creditDelta) throws Exception {
+        if (accountRepository.applyBalanceDelta(accountId, Money.toBigDecimal(balanceDelta, Money.LEDGER_SCALE),
+                Money.toBigDecimal(creditDelta, Money.LEDGER_SCALE), LocalDateTime.now()) == 0) {
+            throw new Exception("Account not found");
+        }
+    }
+
+    /**
+     * Returns a reference to an account without loading it, for use as an association target.
+     *
+     * @param accountId The unique identifier of the account.
+     * @return A lazily initialized reference to the Account.
+     */
+    public Account getAccountReference(Long accountId) {
+        return accountRepository.getReferenceById(accountId);
     }
 
-    public void deleteAccount(Long accountId) throws Exception {
-        accountRepository.deleteById(accountId);
+    /**
+     * Checks whether an account exists.
+     *
+     * @param accountId The unique identifier of the account.
+     * @return true if the account exists, false otherwise.
+     */
+    public boolean accountExists(Long accountId) {
+        return accountRepository.existsById(accountId);
+    }
+
+    /**
+     * Retrieves the ids of all accounts of a user.
+     *
+     * @param userId The unique identifier of the user.
+     * @return The ids of the user's accounts.
+     */
+    public List<Long> getAccountIds(Long userId) {
+        return accountRepository.findIdsByUserId(userId);
+    }
+
+    /**
+     * Retrieves the balance an account was opened with, without loading the account.
+     *
+     * @param accountId The unique identifier of the account.
+     * @return The starting balance of the account.
+     * @throws Exception if the account is not found.
+     */
+    public BigDecimal getStartingBalance(Long accountId) throws Exception {
+        return accountRepository.findStartingBalance(accountId).orElseThrow(() -> new Exception("Account not found"));
+    }
+
+    /**
+     * Returns which of the given account ids belong to existing accounts of a user, using a single query.
+     *
+     * @param accountIds The account ids to check.
+     * @param userId     The unique identifier of the user.
+     * @return The subset of the given ids that exist and belong to the user.
+     */
+    public Set<Long> findOwnedAccountIds(Collection<Long> accountIds, Long userId) {
+        return new HashSet<>(accountRepository.findIdsOwnedBy(accountIds, userId));
+    }
+
+    /**
+     * Checks that all the given accounts exist and belong to a user, using a single query.
+     *
+     * @param accountIds The account ids to check.
+     * @param userId     The unique identifier of the user.
+     * @throws Exception if any of the accounts is not found for the user.
+     */
+    public void verifyAccountsOwned(Collection<Long> accountIds, Long userId) throws Exception {
+        if (!findOwnedAccountIds(accountIds, userId).containsAll(accountIds)) {
+            throw new Exception("Account not found");
+        }
+    }
+
+    /**
+     * Checks that the amounts of an account are expressed in whole minor units of its currency.
+     *
+     * @param account The Account to check.
+     * @throws Exception if the currency is unknown or an amount has more decimal places than the currency allows.
+     */
+    private void validateAmounts(Account account) throws Exception {
+        int scale;
+        try {
+            scale = Money.scaleOf(account.getCurrency());
+        } catch (RuntimeException exception) {
+            throw new Exception("Invalid currency: " + account.getCurrency());
+        }
+        for (BigDecimal amount : new BigDecimal[]{account.getStartingBalance(), account.getCurrentBalance(), account.getCreditLimit()}) {
+            if (amount == null) {
+                continue;
+            }
+            try {
+                Money.of(amount, Math.min(scale, Money.LEDGER_SCALE));
+            } catch (ArithmeticException exception) {
+                throw new Exception("Amount " + amount.toPlainString() + " is not valid for currency " + account.getCurrency());
+            }
+        }
+    }
+
+    /**
+     * Deletes an account with its event stream, balance checkpoints and spending rollups. Runs
+     * under the account's posting lock, so a concurrent posting cannot write to the event stream
+     * or snapshot of the account after they are deleted.
+     *
+     * @param token     The Authorization token for authentication.
+     * @param accountId The unique identifier of the account to be deleted.
+     * @throws Exception if the token is invalid or the account is not found for the user.
+     */
+    public void deleteAccount(String token, Long accountId) throws Exception {
+        verifyAccountAccess(token, accountId);
+        postingSequencer.execute(List.of(accountId), () -> Transactions.inTransaction(transactionTemplate, () -> {
+            accountEventService.deleteStream(accountId);
+            balanceCheckpointRepository.deleteByAccountId(accountId);
+            spendingRollupRepository.deleteByAccountId(accountId);
+            accountRepository.deleteById(accountId);
+            eventPublisher.publishEvent(new AccountDeletedEvent(accountId));
+            return null;
+        }));
     }
 }
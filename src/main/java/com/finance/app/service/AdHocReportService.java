@@ -0,0 +1,134 @@
+package com.finance.app.service;
+
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.TransactionRow;
+import com.finance.app.report.ReportEngine;
+import com.finance.app.report.ReportFilter;
+import com.finance.app.report.ReportQuery;
+import com.finance.app.report.ReportResult;
+import com.finance.app.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class AdHocReportService {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    ReportEngine reportEngine;
+
+    @Value("${report.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${report.time-budget-ms:2000}")
+    private long defaultTimeBudgetMs;
+
+    @Value("${report.max-time-budget-ms:10000}")
+    private long maxTimeBudgetMs;
+
+    /**
+     * Runs an ad-hoc report over the transactions of the user's accounts.
+     * <p>
+     * Transactions are read in keyset chunks of {@code report.chunk-size} rows, account by account,
+     * with the date range applied by the database, and aggregated in parallel by the {@link ReportEngine}.
+     * If the time budget runs out the groups aggregated so far are returned and the result is
+     * flagged as partial.
+     *
+     * @param token The token for user authentication and authorization.
+     * @param query The group-by, filter and ordering of the report.
+     * @return The ReportResult with the groups of the report.
+     * @throws Exception if the user is not found, the query is invalid or an account is not found for the user.
+     */
+    public ReportResult runReport(String token, ReportQuery query) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        if (query.getGroupBy() == null || query.getGroupBy().contains(null)) {
+            throw new Exception("Invalid group by");
+        }
+        if (query.getFilter() == null) {
+            query.setFilter(new ReportFilter());
+        }
+        if (query.getTop() != null && query.getTop() < 1) {
+            throw new Exception("Top must be at least 1");
+        }
+        long timeBudgetMs = query.getTimeBudgetMs() != null ? query.getTimeBudgetMs() : defaultTimeBudgetMs;
+        if (timeBudgetMs < 1 || timeBudgetMs > maxTimeBudgetMs) {
+            throw new Exception("Time budget must be between 1 and " + maxTimeBudgetMs + " ms");
+        }
+
+        ReportFilter filter = query.getFilter();
+        Set<Long> accountIds = new HashSet<>(accountService.getAccountIds(user.getId()));
+        if (filter.getAccountIds() != null) {
+            if (!accountIds.containsAll(filter.getAccountIds())) {
+                throw new Exception("Account not found");
+            }
+            accountIds = new HashSet<>(filter.getAccountIds());
+        }
+
+        LocalDateTime fromDate = filter.getFrom() != null ? filter.getFrom().atStartOfDay() : null;
+        LocalDateTime toDate = filter.getTo() != null ? filter.getTo().plusDays(1).atStartOfDay() : null;
+        return reportEngine.run(query, new KeysetChunkSource(accountIds, fromDate, toDate), timeBudgetMs);
+    }
+
+    /**
+     * Reads report rows one account at a time, each in {@code (date, id)} order, continuing after
+     * the last row of the previous chunk. A chunk that finishes an account is filled up from the
+     * next one, so small accounts do not produce small chunks.
+     */
+    private class KeysetChunkSource implements ReportEngine.ChunkSource {
+        private final Iterator<Long> accountIds;
+        private final LocalDateTime fromDate;
+        private final LocalDateTime toDate;
+        private Long accountId;
+        private LocalDateTime lastDate;
+        private Long lastId;
+
+        KeysetChunkSource(Set<Long> accountIds, LocalDateTime fromDate, LocalDateTime toDate) {
+            this.accountIds = new TreeSet<>(accountIds).iterator();
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.accountId = this.accountIds.hasNext() ? this.accountIds.next() : null;
+        }
+
+        @Override
+        public List<TransactionRow> next() {
+            List<TransactionRow> chunk = new ArrayList<>();
+            while (accountId != null && chunk.size() < chunkSize) {
+                int wanted = chunkSize - chunk.size();
+                List<TransactionRow> rows = transactionRepository.findReportChunk(accountId, fromDate, toDate,
+                        lastDate, lastId, PageRequest.of(0, wanted));
+                chunk.addAll(rows);
+                if (rows.size() < wanted) {
+                    // This account is exhausted, start the next one from its beginning
+                    accountId = accountIds.hasNext() ? accountIds.next() : null;
+                    lastDate = null;
+                    lastId = null;
+                } else {
+                    TransactionRow last = rows.get(rows.size() - 1);
+                    lastDate = last.getDate();
+                    lastId = last.getId();
+                }
+            }
+            return chunk.isEmpty() ? null : chunk;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.finance.app.service;
+
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.EAutocompleteField;
+import com.finance.app.model.Suggestion;
+import com.finance.app.model.Transaction;
+import com.finance.app.model.TransactionsPostedEvent;
+import com.finance.app.repository.TransactionRepository;
+import com.finance.app.util.ExpiringCache;
+import com.finance.app.util.PrefixIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suggests payees and descriptions while a user enters a transaction, from per-user
+ * {@link PrefixIndex}es held in memory.
+ * <p>
+ * A user's indexes are built from their transactions on the first request and dropped after
+ * {@code autocomplete.cache.ttl-ms}, when the next request builds them again. Concurrent first
+ * requests of a user wait for one build. The cached indexes hold at most
+ * {@code autocomplete.cache.max-total-terms} terms across all users, counted when they are built,
+ * and the least recently used users are dropped first. In between, every
+ * committed posting adds its payee and description. Postings that commit while the indexes are
+ * being built may be missed until the next rebuild. Payees are the names interned by
+ * {@link PayeeService}; payees other users entered are never suggested.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class AutocompleteService {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Value("${autocomplete.max-terms:2000}")
+    private int maxTerms;
+
+    @Value("${autocomplete.max-limit:20}")
+    private int maxLimit;
+
+    @Value("${autocomplete.cache.ttl-ms:1800000}")
+    private long cacheTtlMs;
+
+    private final ExpiringCache<Long, UserIndexes> indexes;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<UserIndexes>> builds = new ConcurrentHashMap<>();
+
+    public AutocompleteService(@Value("${autocomplete.cache.max-total-terms:500000}") long cacheMaxTotalTerms) {
+        this.indexes = new ExpiringCache<>(cacheMaxTotalTerms,
+                userIndexes -> Math.max(1, userIndexes.payees().size() + userIndexes.descriptions().size()));
+    }
+
+    /**
+     * Suggests the user's most used payees or descriptions starting with the given text.
+     *
+     * @param token  The token for user authentication.
+     * @param field  Whether to suggest payees or descriptions.
+     * @param prefix The text typed so far; all terms match an empty prefix.
+     * @param limit  The maximum number of suggestions.
+     * @return the suggestions, most used first
+     * @throws Exception if the user is not authenticated or the limit is out of range
+     */
+    public List<Suggestion> suggest(String token, EAutocompleteField field, String prefix, int limit) throws Exception {
+        if (limit < 1 || limit > maxLimit) {
+            throw new Exception("Limit must be between 1 and " + maxLimit);
+        }
+        AuthenticatedUser user = userService.getUser(token);
+        UserIndexes userIndexes = indexes.get(user.getId());
+        if (userIndexes == null) {
+            userIndexes = buildOnce(user.getId());
+        }
+        PrefixIndex index = field == EAutocompleteField.PAYEE ? userIndexes.payees() : userIndexes.descriptions();
+        return index.suggest(prefix, limit);
+    }
+
+    /**
+     * Adds the payees and descriptions of committed postings to the indexes of their user, if loaded.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionsPosted(TransactionsPostedEvent event) {
+        UserIndexes userIndexes = indexes.get(event.getUserId());
+        if (userIndexes == null) {
+            return;
+        }
+        for (Transaction transaction : event.getTransactions()) {
+            userIndexes.payees().add(transaction.getPayee());
+            userIndexes.descriptions().add(transaction.getDescription());
+        }
+    }
+
+    /**
+     * Builds and caches the indexes of a user, or waits for the build another request already started.
+     */
+    private UserIndexes buildOnce(Long userId) throws Exception {
+        CompletableFuture<UserIndexes> building = new CompletableFuture<>();
+        CompletableFuture<UserIndexes> running = builds.putIfAbsent(userId, building);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException exception) {
+                throw new Exception("Suggestions could not be loaded: " + exception.getCause().getMessage());
+            }
+        }
+        try {
+            // Another build may have finished between the cache miss and claiming the build
+            UserIndexes userIndexes = indexes.get(userId);
+            if (userIndexes == null) {
+                userIndexes = build(userId);
+                indexes.put(userId, userIndexes, System.currentTimeMillis() + cacheTtlMs);
+            }
+            building.complete(userIndexes);
+            return userIndexes;
+        } catch (RuntimeException exception) {
+            building.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            builds.remove(userId, building);
+        }
+    }
+
+    private UserIndexes build(Long userId) {
+        PageRequest mostUsed = PageRequest.of(0, maxTerms);
+        return new UserIndexes(
+                new PrefixIndex(counts(transactionRepository.countByPayeeForUser(userId, mostUsed)), maxTerms),
+                new PrefixIndex(counts(transactionRepository.countByDescriptionForUser(userId, mostUsed)), maxTerms));
+    }
+
+    private static Map<String, Long> counts(List<Object[]> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private record UserIndexes(PrefixIndex payees, PrefixIndex descriptions) {
+    }
+}
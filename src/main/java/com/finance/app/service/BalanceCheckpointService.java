@@ -0,0 +1,197 @@
+package com.finance.app.service;
+
+import com.finance.app.model.AccountBalance;
+import com.finance.app.model.BalanceCheckpoint;
+import com.finance.app.model.ETransactionType;
+import com.finance.app.model.Money;
+import com.finance.app.model.Transaction;
+import com.finance.app.repository.BalanceCheckpointRepository;
+import com.finance.app.repository.TransactionRepository;
+import com.finance.app.util.Transactions;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Maintains month-end balance checkpoints for every account and answers balance-as-of-date
+ * queries from them.
+ * <p>
+ * A checkpoint holds the balance of an account at the end of the last day of a month, that is its
+ * starting balance plus every transaction dated on or before that day. Checkpoints are created
+ * for the months in which transactions are posted and are updated in the same database
+ * transaction as the posting, so a back-dated transaction also moves every later checkpoint of the
+ * accounts it touches. The balance on any day is then the nearest earlier checkpoint plus the
+ * transactions dated after it, which is at most the part of a month that has no checkpoint of its
+ * own.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class BalanceCheckpointService {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    PostingSequencer postingSequencer;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    /**
+     * Updates the checkpoints of every account the given transactions touch. Must run inside the
+     * posting's database transaction, after the transactions are saved, while holding the posting
+     * locks of the affected accounts.
+     *
+     * @param accountId    The unique identifier of the account the transactions are posted to.
+     * @param transactions The posted transactions.
+     * @throws Exception if an affected account is not found.
+     */
+    public void applyPostings(Long accountId, List<Transaction> transactions) throws Exception {
+        // Net balance change per account and month, so each checkpoint is updated once
+        Map<Long, TreeMap<LocalDate, Long>> changes = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            LocalDate periodEnd = periodEnd(transaction.getDate());
+            PostingDeltas.changesOf(accountId, ETransactionType.valueOf(transaction.getType()),
+                    Money.toMinorUnits(transaction.getAmount(), Money.LEDGER_SCALE),
+                    transaction.getFromAccount() != null ? transaction.getFromAccount().getId() : null,
+                    transaction.getToAccount() != null ? transaction.getToAccount().getId() : null,
+                    (id, balanceDelta, creditDelta) -> changes.computeIfAbsent(id, key -> new TreeMap<>())
+                            .merge(periodEnd, balanceDelta, Math::addExact));
+        }
+
+        for (Map.Entry<Long, TreeMap<LocalDate, Long>> account : changes.entrySet()) {
+            // Months are handled oldest first, so a checkpoint created here already includes the
+            // changes of the earlier months of this posting
+            for (Map.Entry<LocalDate, Long> period : account.getValue().entrySet()) {
+                applyChange(account.getKey(), period.getKey(), period.getValue());
+            }
+        }
+    }
+
+    /**
+     * Computes the balance of an account at the end of a given day.
+     *
+     * @param token     The token for user authentication and authorization.
+     * @param accountId The unique identifier of the account.
+     * @param date      The day whose closing balance is requested.
+     * @return The AccountBalance at the end of the given day.
+     * @throws Exception if the account is not found for the user.
+     */
+    @Transactional(readOnly = true)
+    public AccountBalance getBalance(String token, Long accountId, LocalDate date) throws Exception {
+        accountService.verifyAccountAccess(token, accountId);
+        Optional<BalanceCheckpoint> checkpoint =
+                balanceCheckpointRepository.findTopByAccountIdAndPeriodEndLessThanEqualOrderByPeriodEndDesc(accountId, date);
+        return new AccountBalance(accountId, date, balanceAt(accountId, date, checkpoint));
+    }
+
+    /**
+     * Recomputes all checkpoints of an account from its transactions, for accounts whose history
+     * predates checkpoints or was changed outside of the posting path.
+     *
+     * @param token     The token for user authentication and authorization.
+     * @param accountId The unique identifier of the account.
+     * @return The number of checkpoints written.
+     * @throws Exception if the account is not found for the user.
+     */
+    public int rebuildCheckpoints(String token, Long accountId) throws Exception {
+        accountService.verifyAccountAccess(token, accountId);
+        return postingSequencer.execute(List.of(accountId), () -> Transactions.inTransaction(transactionTemplate, () -> {
+            balanceCheckpointRepository.deleteByAccountId(accountId);
+
+            TreeMap<YearMonth, BigDecimal> changes = new TreeMap<>();
+            addMonthlyChanges(changes, transactionRepository.sumPostingChangeByMonth(accountId), false);
+            addMonthlyChanges(changes, transactionRepository.sumTransfersInByMonth(accountId), false);
+            addMonthlyChanges(changes, transactionRepository.sumTransfersOutByMonth(accountId), true);
+
+            BigDecimal balance = accountService.getStartingBalance(accountId);
+            List<BalanceCheckpoint> checkpoints = new ArrayList<>(changes.size());
+            for (Map.Entry<YearMonth, BigDecimal> change : changes.entrySet()) {
+                balance = balance.add(change.getValue());
+                checkpoints.add(newCheckpoint(accountId, change.getKey().atEndOfMonth(), balance));
+            }
+            balanceCheckpointRepository.saveAll(checkpoints);
+            return checkpoints.size();
+        }));
+    }
+
+    /**
+     * Adds a balance change dated within the period ending on {@code periodEnd} to the checkpoints
+     * of an account, creating the checkpoint of that period if it does not exist yet. The change is
+     * in minor units of {@link Money#LEDGER_SCALE}.
+     */
+    private void applyChange(Long accountId, LocalDate periodEnd, long delta) throws Exception {
+        if (delta != 0) {
+            balanceCheckpointRepository.shiftFrom(accountId, periodEnd, Money.toBigDecimal(delta, Money.LEDGER_SCALE));
+        }
+        if (!balanceCheckpointRepository.existsByAccountIdAndPeriodEnd(accountId, periodEnd)) {
+            // The scan sees the transactions of this posting, so the new checkpoint already includes them
+            Optional<BalanceCheckpoint> previous =
+                    balanceCheckpointRepository.findTopByAccountIdAndPeriodEndLessThanOrderByPeriodEndDesc(accountId, periodEnd);
+            balanceCheckpointRepository.save(newCheckpoint(accountId, periodEnd, balanceAt(accountId, periodEnd, previous)));
+        }
+    }
+
+    /**
+     * Computes the balance at the end of a day from the given checkpoint, which must end on or
+     * before that day, or from the starting balance when there is none.
+     */
+    private BigDecimal balanceAt(Long accountId, LocalDate date, Optional<BalanceCheckpoint> checkpoint) throws Exception {
+        if (checkpoint.isPresent() && checkpoint.get().getPeriodEnd().equals(date)) {
+            return checkpoint.get().getBalance();
+        }
+
+        BigDecimal balance;
+        LocalDateTime fromDate;
+        if (checkpoint.isPresent()) {
+            balance = checkpoint.get().getBalance();
+            fromDate = checkpoint.get().getPeriodEnd().plusDays(1).atStartOfDay();
+        } else {
+            balance = accountService.getStartingBalance(accountId);
+            fromDate = null;
+        }
+        LocalDateTime toDate = date.plusDays(1).atStartOfDay();
+        return balance
+                .add(transactionRepository.sumPostingChange(accountId, fromDate, toDate))
+                .add(transactionRepository.sumTransfersIn(accountId, fromDate, toDate))
+                .subtract(transactionRepository.sumTransfersOut(accountId, fromDate, toDate));
+    }
+
+    private static void addMonthlyChanges(TreeMap<YearMonth, BigDecimal> changes, List<Object[]> rows, boolean negate) {
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            BigDecimal amount = (BigDecimal) row[2];
+            changes.merge(month, negate ? amount.negate() : amount, BigDecimal::add);
+        }
+    }
+
+    private static BalanceCheckpoint newCheckpoint(Long accountId, LocalDate periodEnd, BigDecimal balance) {
+        BalanceCheckpoint checkpoint = new BalanceCheckpoint();
+        checkpoint.setAccountId(accountId);
+        checkpoint.setPeriodEnd(periodEnd);
+        checkpoint.setBalance(balance);
+        return checkpoint;
+    }
+
+    private static LocalDate periodEnd(LocalDateTime date) {
+        return YearMonth.from(date).atEndOfMonth();
+    }
+}
@@ -0,0 +1,129 @@
+package com.finance.app.service;
+
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.Category;
+import com.finance.app.model.ERole;
+import com.finance.app.repository.CategoryRepository;
+import com.finance.app.util.ReferenceDataCache;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Serves categories from an in-memory copy of the category table, so resolving the category of a
+ * posting costs no database round-trip. The copy is loaded at startup and reloaded in bulk by
+ * {@link com.finance.app.config.ReferenceDataCacheInitializer}.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class CategoryService {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private final ReferenceDataCache<Category> categories = new ReferenceDataCache<>(Category::getId, Category::getName);
+
+    /**
+     * Reloads every category from the database.
+     *
+     * @return the number of categories loaded
+     */
+    public int refresh() {
+        categories.load(categoryRepository.findAll());
+        return categories.size();
+    }
+
+    /**
+     * @return every category, ordered by name
+     */
+    public List<Category> getCategories() {
+        return categories.values().stream().sorted(Comparator.comparing(Category::getName)).toList();
+    }
+
+    /**
+     * Adds a category. Categories are shared by all users, so only administrators may add them.
+     *
+     * @param token    the token of the administrator adding the category
+     * @param category the category with its name and display name
+     * @return the saved category
+     * @throws Exception if the user is not an administrator, or the name is missing or already in use
+     */
+    public Category addCategory(String token, Category category) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        if (!user.getRoles().contains(ERole.ADMIN.name())) {
+            throw new Exception("Administrator role required");
+        }
+        String name = ReferenceDataCache.normalize(category.getName());
+        if (name == null) {
+            throw new Exception("Category name is required");
+        }
+        if (categories.byName(name) != null || categoryRepository.existsByName(name)) {
+            throw new Exception("Category already exists");
+        }
+        String displayName = ReferenceDataCache.normalize(category.getDisplayName());
+
+        Category newCategory = new Category();
+        newCategory.setName(name);
+        newCategory.setDisplayName(displayName != null ? displayName : name);
+        newCategory.setCreatedDate(LocalDateTime.now());
+        newCategory.setUpdatedDate(LocalDateTime.now());
+        Category savedCategory = categoryRepository.save(newCategory);
+        categories.put(savedCategory);
+        return savedCategory;
+    }
+
+    /**
+     * Resolves the category a client sent with a transaction, by id or, without an id, by name.
+     *
+     * @param category the category as sent, only its id or name are used; may be null
+     * @return the cached category, or null if none was given
+     * @throws Exception if no such category exists
+     */
+    public Category resolve(Category category) throws Exception {
+        if (category == null) {
+            return null;
+        }
+        if (category.getId() != 0) {
+            return getCategory(category.getId());
+        }
+        if (ReferenceDataCache.normalize(category.getName()) == null) {
+            return null;
+        }
+
+        Category cached = categories.byName(category.getName());
+        if (cached == null) {
+            cached = categoryRepository.findByName(ReferenceDataCache.normalize(category.getName())).orElse(null);
+            if (cached == null) {
+                throw new Exception("Category not found: " + category.getName());
+            }
+            categories.put(cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Returns a category by id, reading it from the database only if it is not cached yet.
+     *
+     * @param categoryId the category id
+     * @return the category
+     * @throws Exception if no such category exists
+     */
+    public Category getCategory(long categoryId) throws Exception {
+        Category cached = categories.byId(categoryId);
+        if (cached == null) {
+            cached = categoryRepository.findById(categoryId).orElse(null);
+            if (cached == null) {
+                throw new Exception("Category not found: " + categoryId);
+            }
+            categories.put(cached);
+        }
+        return cached;
+    }
+}
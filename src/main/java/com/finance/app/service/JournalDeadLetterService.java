@@ -0,0 +1,157 @@
+package com.finance.app.service;
+
+import com.finance.app.journal.JournalRecord;
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.ERole;
+import com.finance.app.model.ETransactionType;
+import com.finance.app.model.JournalDeadLetter;
+import com.finance.app.model.Money;
+import com.finance.app.repository.JournalDeadLetterRepository;
+import com.finance.app.repository.JournalOffsetRepository;
+import com.finance.app.util.Transactions;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the ledger journal records that could not be applied to the database in the
+ * {@code journal_dead_letter} table, and lets administrators list and replay them.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class JournalDeadLetterService {
+
+    private static final String DEAD_LETTER_COUNTER = "finance.journal.dead_letters";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    PostingSequencer postingSequencer;
+
+    @Autowired
+    JournalDeadLetterRepository journalDeadLetterRepository;
+
+    @Autowired
+    JournalOffsetRepository journalOffsetRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    /**
+     * Stores a journal record that cannot be applied and moves the applied offset past it, in one
+     * database transaction, so the record is neither lost nor applied twice.
+     *
+     * @param record The journal record that failed.
+     * @param error  Why it failed.
+     * @throws Exception if the dead letter cannot be written; the offset is not moved then.
+     */
+    public void deadLetter(JournalRecord record, Exception error) throws Exception {
+        JournalDeadLetter deadLetter = new JournalDeadLetter();
+        deadLetter.setSequence(record.sequence());
+        deadLetter.setUserId(record.userId());
+        deadLetter.setAccountId(record.accountId());
+        deadLetter.setType(record.type().name());
+        deadLetter.setAmount(Money.toBigDecimal(record.amount(), Money.LEDGER_SCALE));
+        deadLetter.setFromAccountId(idOrNull(record.fromAccountId()));
+        deadLetter.setToAccountId(idOrNull(record.toAccountId()));
+        deadLetter.setCategoryId(idOrNull(record.categoryId()));
+        deadLetter.setDate(record.date());
+        deadLetter.setStatus(record.status());
+        deadLetter.setPayee(record.payee());
+        deadLetter.setDescription(record.description());
+        String message = String.valueOf(error.getMessage());
+        deadLetter.setError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        deadLetter.setFailedDate(LocalDateTime.now());
+
+        Transactions.inTransaction(transactionTemplate, () -> {
+            journalDeadLetterRepository.save(deadLetter);
+            journalOffsetRepository.advance(record.sequence());
+            return null;
+        });
+        meterRegistry.counter(DEAD_LETTER_COUNTER, "type", record.type().name()).increment();
+    }
+
+    /**
+     * Lists the dead letters in journal order.
+     *
+     * @param token           The token of an administrator.
+     * @param includeReplayed Whether to include the dead letters that were already replayed.
+     * @return The dead letters.
+     * @throws Exception if the user is not an administrator.
+     */
+    public List<JournalDeadLetter> getDeadLetters(String token, boolean includeReplayed) throws Exception {
+        requireAdmin(token);
+        return includeReplayed
+                ? journalDeadLetterRepository.findAllByOrderBySequence()
+                : journalDeadLetterRepository.findByReplayedDateIsNullOrderBySequence();
+    }
+
+    /**
+     * Applies a dead letter to the database, for example after the account it failed on was
+     * restored. The posting and the replayed mark are written in one database transaction, so a
+     * dead letter is applied at most once; if the posting fails again nothing changes.
+     *
+     * @param token    The token of an administrator.
+     * @param sequence The journal sequence of the dead letter.
+     * @return The replayed dead letter.
+     * @throws Exception if the user is not an administrator, the dead letter is not found or was
+     *                   already replayed, or the posting cannot be applied.
+     */
+    public JournalDeadLetter replay(String token, long sequence) throws Exception {
+        requireAdmin(token);
+        JournalDeadLetter deadLetter = journalDeadLetterRepository.findById(sequence)
+                .orElseThrow(() -> new Exception("Dead letter not found"));
+        JournalRecord record = new JournalRecord(deadLetter.getSequence(), deadLetter.getUserId(), deadLetter.getAccountId(),
+                ETransactionType.valueOf(deadLetter.getType()), Money.toMinorUnits(deadLetter.getAmount(), Money.LEDGER_SCALE),
+                idOrZero(deadLetter.getFromAccountId()), idOrZero(deadLetter.getToAccountId()), idOrZero(deadLetter.getCategoryId()),
+                deadLetter.getDate(), deadLetter.getStatus(), deadLetter.getPayee(), deadLetter.getDescription());
+
+        Set<Long> accountIds = new TreeSet<>();
+        accountIds.add(record.accountId());
+        if (record.type() == ETransactionType.TRANSFER) {
+            accountIds.add(record.fromAccountId());
+            accountIds.add(record.toAccountId());
+        }
+        // Take the posting locks before the transaction, which the posting then joins, so it
+        // still commits before they are released
+        postingSequencer.execute(accountIds, () -> Transactions.inTransaction(transactionTemplate, () -> {
+            if (journalDeadLetterRepository.markReplayed(sequence, LocalDateTime.now()) == 0) {
+                throw new Exception("Dead letter was already replayed");
+            }
+            transactionService.applyJournalRecords(List.of(record));
+            return null;
+        }));
+        return journalDeadLetterRepository.findById(sequence).orElseThrow(() -> new Exception("Dead letter not found"));
+    }
+
+    private void requireAdmin(String token) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        if (!user.getRoles().contains(ERole.ADMIN.name())) {
+            throw new Exception("Administrator role required");
+        }
+    }
+
+    private static Long idOrNull(long id) {
+        return id != 0 ? id : null;
+    }
+
+    private static long idOrZero(Long id) {
+        return id != null ? id : 0;
+    }
+}
@@ -0,0 +1,208 @@
+package com.finance.app.service;
+
+import com.finance.app.model.Payee;
+import com.finance.app.repository.PayeeRepository;
+import com.finance.app.util.ExpiringCache;
+import com.finance.app.util.ReferenceDataCache;
+import com.finance.app.util.Transactions;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns the free-text payees of transactions: every payee name a user enters is resolved to one
+ * {@link Payee} row of that user, created the first time the name is seen. Names match ignoring
+ * case and surrounding or repeated whitespace, and a transaction stores the name as it was first
+ * seen.
+ * <p>
+ * A user's payees are loaded on first use and served from memory for {@code payee.cache.ttl-ms}.
+ * The cache holds at most {@code payee.cache.max-payees} payees in total, dropping the least
+ * recently used users first. Payees created by another instance are found in the database on a
+ * miss, so a stale copy only costs a query.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class PayeeService {
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    @Autowired
+    private PayeeRepository payeeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${payee.cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    /**
+     * Each user's payees keyed by {@link ReferenceDataCache#key(String)} of their name. The maps are
+     * never changed once cached; new payees are added by caching a copy.
+     */
+    private final ExpiringCache<Long, Map<String, Payee>> payees;
+
+    public PayeeService(@Value("${payee.cache.max-payees:100000}") long cacheMaxPayees) {
+        this.payees = new ExpiringCache<>(cacheMaxPayees, userPayees -> Math.max(1, userPayees.size()));
+    }
+
+    /**
+     * @param userId the user whose payees to list
+     * @return every payee of the user, ordered by name
+     */
+    public List<Payee> getPayees(Long userId) {
+        return payeesOf(userId).values().stream().sorted(Comparator.comparing(Payee::getName)).toList();
+    }
+
+    /**
+     * Resolves a payee name of a user, creating the payee if the name is new to the user.
+     *
+     * @param userId the user who entered the payee
+     * @param name   the payee as entered; may be null or blank
+     * @return the payee, or null if no name was given
+     * @throws Exception if the name is too long or the payee cannot be created
+     */
+    public Payee resolve(Long userId, String name) throws Exception {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            return null;
+        }
+        return resolveAll(userId, List.of(normalized)).get(ReferenceDataCache.key(normalized));
+    }
+
+    /**
+     * Resolves many payee names of a user at once. Names that are neither cached nor stored are
+     * created together in one database transaction.
+     *
+     * @param userId the user who entered the payees
+     * @param names  the payees as entered; null and blank names are ignored
+     * @return the payees keyed by {@link ReferenceDataCache#key(String)} of their name
+     * @throws Exception if a name is too long or the payees cannot be created
+     */
+    public Map<String, Payee> resolveAll(Long userId, Collection<String> names) throws Exception {
+        Map<String, Payee> known = payeesOf(userId);
+        Map<String, Payee> resolved = new HashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (String name : names) {
+            String normalized = normalize(name);
+            if (normalized == null) {
+                continue;
+            }
+            Payee cached = known.get(ReferenceDataCache.key(normalized));
+            if (cached != null) {
+                resolved.put(ReferenceDataCache.key(normalized), cached);
+            } else {
+                missing.putIfAbsent(ReferenceDataCache.key(normalized), normalized);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        // Payees created since the user's payees were cached, possibly by another instance
+        List<Payee> added = new ArrayList<>(payeeRepository.findByUserIdAndNameIn(userId, missing.values()));
+        for (Payee stored : added) {
+            missing.remove(ReferenceDataCache.key(stored.getName()));
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                added.addAll(create(userId, missing.values()));
+            } catch (DataIntegrityViolationException exception) {
+                // Another request created one of the payees first; create or find them one at a time
+                for (String name : missing.values()) {
+                    added.add(createOrFind(userId, name));
+                }
+            }
+        }
+        for (Payee payee : added) {
+            resolved.put(ReferenceDataCache.key(payee.getName()), payee);
+        }
+        cache(userId, known, added);
+        return resolved;
+    }
+
+    /**
+     * Normalizes a payee name the way it is stored and checks that it fits.
+     *
+     * @param name the payee as entered; may be null
+     * @return the normalized name, or null if the name is null or blank
+     * @throws Exception if the name is too long
+     */
+    public static String normalize(String name) throws Exception {
+        String normalized = ReferenceDataCache.normalize(name);
+        if (normalized != null && normalized.length() > MAX_NAME_LENGTH) {
+            throw new Exception("Payee must be at most " + MAX_NAME_LENGTH + " characters");
+        }
+        return normalized;
+    }
+
+    /**
+     * @return the user's payees, loading and caching them if they are not cached
+     */
+    private Map<String, Payee> payeesOf(Long userId) {
+        Map<String, Payee> cached = payees.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, Payee> loaded = new HashMap<>();
+        for (Payee payee : payeeRepository.findByUserId(userId)) {
+            loaded.put(ReferenceDataCache.key(payee.getName()), payee);
+        }
+        Map<String, Payee> userPayees = Map.copyOf(loaded);
+        payees.put(userId, userPayees, System.currentTimeMillis() + cacheTtlMs);
+        return userPayees;
+    }
+
+    /**
+     * Caches the user's payees with the given ones added. A concurrent request may replace the copy
+     * without them; they are then found in the database and cached again on their next use.
+     */
+    private void cache(Long userId, Map<String, Payee> known, List<Payee> added) {
+        Map<String, Payee> userPayees = new HashMap<>(known);
+        for (Payee payee : added) {
+            userPayees.put(ReferenceDataCache.key(payee.getName()), payee);
+        }
+        payees.put(userId, Map.copyOf(userPayees), System.currentTimeMillis() + cacheTtlMs);
+    }
+
+    private List<Payee> create(Long userId, Collection<String> names) throws Exception {
+        return Transactions.inTransaction(transactionTemplate, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Payee> created = new ArrayList<>(names.size());
+            for (String name : names) {
+                Payee payee = new Payee();
+                payee.setUserId(userId);
+                payee.setName(name);
+                payee.setCreatedDate(now);
+                payee.setUpdatedDate(now);
+                created.add(payee);
+            }
+            return payeeRepository.saveAll(created);
+        });
+    }
+
+    private Payee createOrFind(Long userId, String name) throws Exception {
+        Payee stored = payeeRepository.findByUserIdAndName(userId, name).orElse(null);
+        if (stored != null) {
+            return stored;
+        }
+        try {
+            return create(userId, List.of(name)).get(0);
+        } catch (DataIntegrityViolationException exception) {
+            return payeeRepository.findByUserIdAndName(userId, name)
+                    .orElseThrow(() -> new Exception("Payee could not be created: " + name));
+        }
+    }
+}
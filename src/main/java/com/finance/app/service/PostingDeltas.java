@@ -0,0 +1,126 @@
+package com.finance.app.service;
+
+import com.finance.app.model.ETransactionType;
+import com.finance.app.model.Money;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Accumulates the net balance and credit-limit changes that one or more postings make to each
+ * account, so that every account is updated once no matter how many postings touch it.
+ * <p>
+ * This is the single place that encodes how a transaction type moves money:
+ * <ul>
+ *     <li>DEPOSIT decreases the posting account's balance and increases its credit limit</li>
+ *     <li>WITHDRAWAL increases the posting account's balance and decreases its credit limit</li>
+ *     <li>TRANSFER decreases the balance and credit limit of the from account and increases both
+ *     on the to account</li>
+ * </ul>
+ * Credit limit changes only take effect on credit card accounts. Changes are accumulated as
+ * overflow-checked {@code long} minor units of {@link Money#LEDGER_SCALE}, so adding a posting
+ * does not allocate intermediate amounts.
+ */
+public class PostingDeltas {
+
+    private final Map<Long, Delta> deltas = new TreeMap<>();
+
+    /**
+     * Adds the balance changes of one posting.
+     *
+     * @param accountId       the account the transaction is posted to
+     * @param transactionType the type of the transaction
+     * @param amount          the transaction amount
+     * @param fromAccountId   the source account of a transfer, ignored for other types
+     * @param toAccountId     the destination account of a transfer, ignored for other types
+     * @throws ArithmeticException if the amount has more decimal places than the ledger scale
+     */
+    public void addPosting(Long accountId, ETransactionType transactionType, BigDecimal amount,
+                           Long fromAccountId, Long toAccountId) {
+        addPosting(accountId, transactionType, Money.toMinorUnits(amount, Money.LEDGER_SCALE), fromAccountId, toAccountId);
+    }
+
+    /**
+     * Adds the balance changes of one posting whose amount is already in minor units.
+     *
+     * @param accountId       the account the transaction is posted to
+     * @param transactionType the type of the transaction
+     * @param amount          the transaction amount in minor units of {@link Money#LEDGER_SCALE}
+     * @param fromAccountId   the source account of a transfer, ignored for other types
+     * @param toAccountId     the destination account of a transfer, ignored for other types
+     */
+    public void addPosting(Long accountId, ETransactionType transactionType, long amount,
+                           Long fromAccountId, Long toAccountId) {
+        changesOf(accountId, transactionType, amount, fromAccountId, toAccountId, this::add);
+    }
+
+    /**
+     * Passes the balance and credit limit change that a single posting makes to each account it
+     * touches to the given consumer, without accumulating anything.
+     *
+     * @param accountId       the account the transaction is posted to
+     * @param transactionType the type of the transaction
+     * @param amount          the transaction amount in minor units of {@link Money#LEDGER_SCALE}
+     * @param fromAccountId   the source account of a transfer, ignored for other types
+     * @param toAccountId     the destination account of a transfer, ignored for other types
+     * @param consumer        receives the account id, its balance change and its credit limit change
+     */
+    public static void changesOf(Long accountId, ETransactionType transactionType, long amount,
+                                 Long fromAccountId, Long toAccountId, ChangeConsumer consumer) {
+        switch (transactionType) {
+            case DEPOSIT:
+                consumer.accept(accountId, Math.negateExact(amount), amount);
+                break;
+            case WITHDRAWAL:
+                consumer.accept(accountId, amount, Math.negateExact(amount));
+                break;
+            case TRANSFER:
+                consumer.accept(fromAccountId, Math.negateExact(amount), Math.negateExact(amount));
+                consumer.accept(toAccountId, amount, amount);
+                break;
+        }
+    }
+
+    /**
+     * @return the ids of all accounts whose balances change, in ascending order
+     */
+    public Set<Long> accountIds() {
+        return deltas.keySet();
+    }
+
+    /**
+     * Passes the net change of every account to the given consumer, in ascending account id order.
+     *
+     * @param consumer receives the account id, its net balance change and its net credit limit
+     *                 change, in minor units of {@link Money#LEDGER_SCALE}
+     * @throws Exception any exception thrown by the consumer
+     */
+    public void forEach(DeltaConsumer consumer) throws Exception {
+        for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+            consumer.accept(entry.getKey(), entry.getValue().balance, entry.getValue().credit);
+        }
+    }
+
+    private void add(Long accountId, long balanceDelta, long creditDelta) {
+        Delta delta = deltas.computeIfAbsent(accountId, id -> new Delta());
+        delta.balance = Math.addExact(delta.balance, balanceDelta);
+        delta.credit = Math.addExact(delta.credit, creditDelta);
+    }
+
+    private static class Delta {
+        private long balance;
+        private long credit;
+    }
+
+    @FunctionalInterface
+    public interface ChangeConsumer {
+        void accept(Long accountId, long balanceDelta, long creditDelta);
+    }
+
+    @FunctionalInterface
+    public interface DeltaConsumer {
+        void accept(Long accountId, long balanceDelta, long creditDelta) throws Exception;
+    }
+}
@@ -0,0 +1,83 @@
+package com.finance.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sequences postings per account inside this process.
+ * <p>
+ * Each account id maps onto one of a fixed number of lock stripes. Postings that touch
+ * different stripes run fully in parallel, while postings to the same account queue up on one
+ * in-memory lock instead of piling up on the account's row lock in the database. A posting that
+ * touches several accounts, such as a transfer, takes its stripes in ascending stripe order, so
+ * two opposite transfers can never deadlock.
+ */
+@Component
+public class PostingSequencer {
+
+    private final ReentrantLock[] stripes;
+
+    private final int mask;
+
+    public PostingSequencer(@Value("${posting.lock-stripes:1024}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Runs the given action while holding the locks of all the given accounts.
+     *
+     * @param accountIds the ids of the accounts the action changes; duplicates are allowed
+     * @param action     the posting to run
+     * @param <T>        the result type of the action
+     * @return the result of the action
+     * @throws Exception any exception thrown by the action
+     */
+    public <T> T execute(Collection<Long> accountIds, Callable<T> action) throws Exception {
+        int[] stripeIndexes = stripeIndexes(accountIds);
+        for (int i = 0; i < stripeIndexes.length; i++) {
+            stripes[stripeIndexes[i]].lock();
+        }
+        try {
+            return action.call();
+        } finally {
+            for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+                stripes[stripeIndexes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct stripes guarding the given accounts in the order they must be locked.
+     */
+    private int[] stripeIndexes(Collection<Long> accountIds) {
+        int[] indexes = new int[accountIds.size()];
+        int count = 0;
+        for (Long accountId : accountIds) {
+            indexes[count++] = stripeOf(accountId);
+        }
+        Arrays.sort(indexes);
+
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || indexes[i] != indexes[distinct - 1]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        return distinct == indexes.length ? indexes : Arrays.copyOf(indexes, distinct);
+    }
+
+    private int stripeOf(long accountId) {
+        long hash = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,140 @@
+package com.finance.app.service;
+
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.Money;
+import com.finance.app.model.SpendingReport;
+import com.finance.app.model.SpendingRollup;
+import com.finance.app.model.Transaction;
+import com.finance.app.repository.SpendingRollupRepository;
+import com.finance.app.util.Transactions;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains per user, account, category, month and transaction type spending totals and serves
+ * spending reports from them.
+ * <p>
+ * Totals are upserted in the same database transaction as the postings they count, so a report
+ * always matches the committed transactions and costs one row per category, type and month
+ * instead of one per transaction.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class SpendingRollupService {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    SpendingRollupRepository spendingRollupRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PostingSequencer postingSequencer;
+
+    /**
+     * Adds the given transactions to the rollups of the account's owner, the same user
+     * {@link #rebuildRollups(String)} attributes them to. Must run inside the posting's database
+     * transaction.
+     *
+     * @param accountId    The unique identifier of the account the transactions are posted to.
+     * @param transactions The posted transactions.
+     */
+    public void recordPostings(Long accountId, List<Transaction> transactions) {
+        // Combine the transactions that fall into the same rollup row, so each row is written once
+        Map<RollupKey, Total> totals = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            RollupKey key = new RollupKey(
+                    transaction.getCategory() != null ? transaction.getCategory().getId() : SpendingRollup.NO_CATEGORY,
+                    YearMonth.from(transaction.getDate()).atDay(1),
+                    transaction.getType());
+            Total total = totals.computeIfAbsent(key, k -> new Total());
+            total.amount = Math.addExact(total.amount, Money.toMinorUnits(transaction.getAmount(), Money.LEDGER_SCALE));
+            total.count++;
+        }
+
+        for (Map.Entry<RollupKey, Total> entry : totals.entrySet()) {
+            RollupKey key = entry.getKey();
+            spendingRollupRepository.addToRollup(accountId, key.categoryId(), key.month(), key.type(),
+                    Money.toBigDecimal(entry.getValue().amount, Money.LEDGER_SCALE), entry.getValue().count);
+        }
+    }
+
+    /**
+     * Reports the spending of a user in one month per category and transaction type.
+     *
+     * @param token     The token for user authentication and authorization.
+     * @param year      The year of the month to report.
+     * @param month     The month to report, 1 to 12.
+     * @param accountId The account to restrict the report to, or null for all accounts of the user.
+     * @return The SpendingReport of the month.
+     * @throws Exception if the user is not found, the month is invalid or the account is not found for the user.
+     */
+    public SpendingReport getMonthlyReport(String token, int year, int month, Long accountId) throws Exception {
+        if (month < 1 || month > 12) {
+            throw new Exception("Month must be between 1 and 12");
+        }
+        LocalDate from = LocalDate.of(year, month, 1);
+        return getReport(token, accountId, from, from.plusMonths(1));
+    }
+
+    /**
+     * Reports the spending of a user in every month of a year per category and transaction type.
+     *
+     * @param token     The token for user authentication and authorization.
+     * @param year      The year to report.
+     * @param accountId The account to restrict the report to, or null for all accounts of the user.
+     * @return The SpendingReport of the year.
+     * @throws Exception if the user is not found or the account is not found for the user.
+     */
+    public SpendingReport getYearlyReport(String token, int year, Long accountId) throws Exception {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        return getReport(token, accountId, from, from.plusYears(1));
+    }
+
+    /**
+     * Recomputes all rollups of a user from the user's transactions. Holds the posting locks of the
+     * user's accounts, so no posting adds to a rollup between the delete and the recount.
+     *
+     * @param token The token for user authentication and authorization.
+     * @return The number of rollup rows written.
+     * @throws Exception if the user is not found.
+     */
+    public int rebuildRollups(String token) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        List<Long> accountIds = accountService.getAccountIds(user.getId());
+        return postingSequencer.execute(accountIds, () -> Transactions.inTransaction(transactionTemplate, () -> {
+            spendingRollupRepository.deleteByUserId(user.getId());
+            return spendingRollupRepository.rebuildForUser(user.getId());
+        }));
+    }
+
+    private SpendingReport getReport(String token, Long accountId, LocalDate from, LocalDate to) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        if (accountId != null) {
+            accountService.verifyAccountAccess(token, accountId);
+        }
+        return new SpendingReport(from, to, spendingRollupRepository.findReport(user.getId(), accountId, from, to));
+    }
+
+    private record RollupKey(Long categoryId, LocalDate month, String type) {
+    }
+
+    private static class Total {
+        private long amount;
+        private long count;
+    }
+}
@@ -0,0 +1,62 @@
+package com.finance.app.service;
+
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.ETransactionType;
+import com.finance.app.model.TransactionSearchFilter;
+import com.finance.app.model.TransactionSearchResult;
+import com.finance.app.search.TransactionSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Searches a user's transactions by the words in their payee and description, from the
+ * {@link TransactionSearchIndex} rather than the database.
+ */
+@Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
+public class TransactionSearchService {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionSearchIndex transactionSearchIndex;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    /**
+     * Searches the transactions of the authenticated user.
+     *
+     * @param token  The token for user authentication.
+     * @param filter The words to look for and the filters to apply.
+     * @param limit  The maximum number of transactions returned.
+     * @return the matching transactions, best match or newest first, and their total number
+     * @throws Exception if the user is not authenticated or the filter is invalid
+     */
+    public TransactionSearchResult search(String token, TransactionSearchFilter filter, int limit) throws Exception {
+        if (limit < 1 || limit > maxLimit) {
+            throw new Exception("Limit must be between 1 and " + maxLimit);
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new Exception("From date must not be after to date");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null
+                && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new Exception("Minimum amount must not be greater than maximum amount");
+        }
+        if (filter.getType() != null) {
+            try {
+                filter.setType(ETransactionType.valueOf(filter.getType().toUpperCase(Locale.ROOT)).name());
+            } catch (IllegalArgumentException exception) {
+                throw new Exception("Invalid transaction type: " + filter.getType());
+            }
+        }
+        AuthenticatedUser user = userService.getUser(token);
+        return transactionSearchIndex.search(user.getId(), filter, limit);
+    }
+}
@@ -1,15 +1,52 @@
 package com.finance.app.service;
 
+import com.finance.app.exporter.TransactionRowWriter;
+import com.finance.app.importer.StatementParser;
+import com.finance.app.importer.StatementRecord;
+import com.finance.app.journal.JournalRecord;
+import com.finance.app.journal.LedgerJournal;
 import com.finance.app.model.*;
+import com.finance.app.repository.JournalOffsetRepository;
 import com.finance.app.repository.TransactionRepository;
+import com.finance.app.util.ReferenceDataCache;
+import com.finance.app.util.Transactions;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
 public class TransactionService {
 
+    private static final String POSTING_TIMER = "finance.postings";
+
+    private static final String BULK_ROWS_COUNTER = "finance.postings.bulk.rows";
+
     @Autowired
     UserService userService;
 
@@ -19,8 +56,87 @@ public class TransactionService {
     @Autowired
     TransactionRepository transactionRepository;
 
+    @Autowired
+    PostingSequencer postingSequencer;
+
+    @Autowired
+    BalanceCheckpointService balanceCheckpointService;
+
+    @Autowired
+    SpendingRollupService spendingRollupService;
+
+    @Autowired
+    AccountEventService accountEventService;
+
+    @Autowired
+    CategoryService categoryService;
+
+    @Autowired
+    PayeeService payeeService;
+
+    @Autowired
+    JournalOffsetRepository journalOffsetRepository;
+
+    @Autowired(required = false)
+    LedgerJournal ledgerJournal;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${transaction.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${transaction.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${transaction.export.max-concurrent:2}")
+    private int maxConcurrentExports;
+
+    @Value("${transaction.export.timeout-seconds:600}")
+    private int exportTimeoutSeconds;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    private TransactionTemplate exportTransactionTemplate;
+
+    private Semaphore exportPermits;
+
+    @PostConstruct
+    void init() {
+        if (bulkChunkSize < 1) {
+            throw new IllegalStateException("transaction.bulk.chunk-size must be at least 1, was " + bulkChunkSize);
+        }
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        if (maxConcurrentExports < 1) {
+            throw new IllegalStateException("transaction.export.max-concurrent must be at least 1, was " + maxConcurrentExports);
+        }
+        exportPermits = new Semaphore(maxConcurrentExports);
+        exportTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        exportTransactionTemplate.setReadOnly(true);
+        exportTransactionTemplate.setTimeout(exportTimeoutSeconds);
+    }
+
     /**
      * Adds a transaction to an account based on the provided details.
+     * <p>
+     * Postings are sequenced per account by the {@link PostingSequencer} and each posting runs in a
+     * single database transaction that commits before the account locks are released. Balances
+     * are changed with atomic {@code current_balance = current_balance + ?} updates, so no account
+     * has to be read first.
+     * <p>
+     * When the ledger journal is enabled the validated posting is only appended to the journal and
+     * the {@link com.finance.app.journal.JournalProjector} applies it to the database shortly after.
      *
      * @param token       The token for user authentication and authorization.
      * @param accountId   The unique identifier of the account where the transaction needs to be added.
@@ -29,81 +145,539 @@ public class TransactionService {
      * @throws Exception if the user is not authenticated, the account is not found, the transaction type is invalid, or any other processing error occurs.
      */
     public Transaction addTransaction(String token, Long accountId, Transaction transaction) throws Exception {
-        Transaction newTransaction = null;
-
-        // Retrieve user using the provided token
-        User user = userService.getUser(token);
-        if (user != null) {
-
-            // Retrieve account using the provided account ID
-            Account account = accountService.getAccount(accountId);
-            if (account != null) {
-
-                // Determine transaction type based on the provided transaction details
-                ETransactionType transactionType = ETransactionType.valueOf(transaction.getType());
-
-                switch (transactionType) {
-                    case DEPOSIT:
-                        // If transaction type is DEPOSIT, decrease the account's current balance by the transaction amount
-                        account.setCurrentBalance(account.getCurrentBalance().subtract(transaction.getAmount()));
-                        // If the account type is CREDIT_CARD, increase the credit limit by the transaction amount
-                        if (account.getType().equals(EAccountType.CREDIT_CARD.name())) {
-                            account.setCreditLimit(account.getCreditLimit().add(transaction.getAmount()));
-                        }
-                        // Update the account in the database
-                        account.setUpdatedDate(LocalDateTime.now());
-                        accountService.updateAccount(accountId, account);
-                        break;
-                    case WITHDRAWAL:
-                        // If transaction type is WITHDRAWAL, increase the account's current balance by the transaction amount
-                        account.setCurrentBalance(account.getCurrentBalance().add(transaction.getAmount()));
-                        // If the account type is CREDIT_CARD, decrease the credit limit by the transaction amount
-                        if (account.getType().equals(EAccountType.CREDIT_CARD.name())) {
-                            account.setCreditLimit(account.getCreditLimit().subtract(transaction.getAmount()));
-                        }
-                        // Update the account in the database
-                        account.setUpdatedDate(LocalDateTime.now());
-                        accountService.updateAccount(accountId, account);
-                        break;
-                    case TRANSFER:
-                        // If transaction type is TRANSFER, subtract the transaction amount from the fromAccount's balance
-                        Account fromAccount = accountService.getAccount(transaction.getFromAccount().getId());
-                        Account toAccount = accountService.getAccount(transaction.getToAccount().getId());
-
-                        fromAccount.setCurrentBalance(fromAccount.getCurrentBalance().subtract(transaction.getAmount()));
-                        // And decrease the fromAccount's credit limit if account type is CREDIT_CARD
-                        if (fromAccount.getType().equals(EAccountType.CREDIT_CARD.name())) {
-                            fromAccount.setCreditLimit(fromAccount.getCreditLimit().subtract(transaction.getAmount()));
-                        }
-
-                        // then add the transaction amount to the toAccount's balance
-                        toAccount.setCurrentBalance(toAccount.getCurrentBalance().add(transaction.getAmount()));
-                        // and increase the toAccount's credit limit if account type is CREDIT_CARD
-                        if (toAccount.getType().equals(EAccountType.CREDIT_CARD.name())) {
-                            toAccount.setCreditLimit(toAccount.getCreditLimit().add(transaction.getAmount()));
-                        }
-
-                        // Update both accounts in the database
-                        fromAccount.setUpdatedDate(LocalDateTime.now());
-                        accountService.updateAccount(fromAccount.getId(), fromAccount);
-
-                        toAccount.setUpdatedDate(LocalDateTime.now());
-                        accountService.updateAccount(toAccount.getId(), toAccount);
-
-                        transaction.setFromAccount(fromAccount);
-                        transaction.setToAccount(toAccount);
-                        break;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ETransactionType transactionType = null;
+        String outcome = "failure";
+        try {
+            // Retrieve user using the provided token
+            AuthenticatedUser user = userService.getUser(token);
+            if (user == null) {
+                // Return null if any pre-conditions were not met
+                return null;
+            }
+
+            // Determine transaction type based on the provided transaction details
+            transactionType = validateTransaction(transaction);
+
+            // Check the accounts before the posting is accepted, so that the journal only holds
+            // postings that can be applied
+            List<Long> accountIds = referencedAccountIds(transaction);
+            accountIds.add(accountId);
+            accountService.verifyAccountsOwned(accountIds, user.getId());
+            transaction.setCategory(categoryService.resolve(transaction.getCategory()));
+            applyPayee(transaction, payeeService.resolve(user.getId(), transaction.getPayee()));
+
+            if (ledgerJournal != null) {
+                ledgerJournal.append(toJournalRecord(user.getId(), accountId, transactionType, transaction));
+                outcome = "journaled";
+                return transaction;
+            }
+
+            PostingDeltas deltas = new PostingDeltas();
+            deltas.addPosting(accountId, transactionType, transaction.getAmount(), fromAccountId(transaction), toAccountId(transaction));
+
+            // Lock the accounts whose balances this posting changes
+            ETransactionType type = transactionType;
+            Transaction savedTransaction = postingSequencer.execute(deltas.accountIds(),
+                    () -> Transactions.inTransaction(transactionTemplate,
+                            () -> postTransaction(user.getId(), accountId, type, transaction, deltas)));
+            outcome = "posted";
+            return savedTransaction;
+        } finally {
+            sample.stop(meterRegistry.timer(POSTING_TIMER,
+                    "type", transactionType != null ? transactionType.name() : "INVALID", "outcome", outcome));
+        }
+    }
+
+    /**
+     * @return true if postings are written to the ledger journal and applied to the database asynchronously
+     */
+    public boolean isJournalEnabled() {
+        return ledgerJournal != null;
+    }
+
+    /**
+     * Applies a batch of ledger journal records to the database in one database transaction and
+     * records the sequence of the last one as applied in the same transaction, so that every
+     * record is applied exactly once even if the application stops in between.
+     *
+     * @param records The journal records to apply, in sequence order.
+     * @throws Exception if an account is not found or the records cannot be written; nothing is applied then.
+     */
+    public void applyJournalRecords(List<JournalRecord> records) throws Exception {
+        // Payees belong to the user who entered them, and a batch may hold postings of many users
+        Map<Long, List<String>> payeeNames = new HashMap<>();
+        for (JournalRecord record : records) {
+            payeeNames.computeIfAbsent(record.userId(), userId -> new ArrayList<>()).add(record.payee());
+        }
+        Map<Long, Map<String, Payee>> payees = new HashMap<>();
+        for (Map.Entry<Long, List<String>> userPayeeNames : payeeNames.entrySet()) {
+            payees.put(userPayeeNames.getKey(), payeeService.resolveAll(userPayeeNames.getKey(), userPayeeNames.getValue()));
+        }
+        PostingDeltas deltas = new PostingDeltas();
+        List<Transaction> transactions = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            deltas.addPosting(record.accountId(), record.type(), record.amount(),
+                    idOrNull(record.fromAccountId()), idOrNull(record.toAccountId()));
+            Transaction transaction = new Transaction();
+            transaction.setDate(record.date());
+            transaction.setStatus(record.status());
+            transaction.setType(record.type().name());
+            transaction.setAmount(Money.toBigDecimal(record.amount(), Money.LEDGER_SCALE));
+            applyPayee(transaction, payees.get(record.userId()).get(ReferenceDataCache.key(record.payee())));
+            transaction.setDescription(record.description());
+            if (record.categoryId() != 0) {
+                transaction.setCategory(categoryService.getCategory(record.categoryId()));
+            }
+            transactions.add(transaction);
+        }
+
+        postingSequencer.execute(deltas.accountIds(), () -> Transactions.inTransaction(transactionTemplate, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            Map<List<Long>, List<Transaction>> postings = new LinkedHashMap<>();
+            for (int i = 0; i < records.size(); i++) {
+                JournalRecord record = records.get(i);
+                Transaction transaction = transactions.get(i);
+                transaction.setAccount(accountService.getAccountReference(record.accountId()));
+                if (record.type() == ETransactionType.TRANSFER) {
+                    transaction.setFromAccount(accountService.getAccountReference(record.fromAccountId()));
+                    transaction.setToAccount(accountService.getAccountReference(record.toAccountId()));
                 }
+                transaction.setCreatedDate(now);
+                transaction.setUpdatedDate(now);
+                postings.computeIfAbsent(List.of(record.userId(), record.accountId()), key -> new ArrayList<>()).add(transaction);
+            }
+            transactionRepository.saveAll(transactions);
+
+            deltas.forEach(accountService::applyBalanceDelta);
+            for (Map.Entry<List<Long>, List<Transaction>> posting : postings.entrySet()) {
+                balanceCheckpointService.applyPostings(posting.getKey().get(1), posting.getValue());
+                accountEventService.recordPostings(posting.getKey().get(1), posting.getValue());
+                spendingRollupService.recordPostings(posting.getKey().get(1), posting.getValue());
+                eventPublisher.publishEvent(new TransactionsPostedEvent(posting.getKey().get(0), posting.getKey().get(1), posting.getValue()));
+            }
+            journalOffsetRepository.advance(records.get(records.size() - 1).sequence());
+
+            entityManager.flush();
+            entityManager.clear();
+            return null;
+        }));
+    }
+
+    /**
+     * Adds a batch of transactions to an account.
+     * <p>
+     * The batch is written in chunks of {@code transaction.bulk.chunk-size} rows. Each chunk is
+     * inserted with batched statements in its own database transaction, and the net balance change
+     * of every account the chunk touches is applied once for the whole chunk. Invalid rows are
+     * skipped and reported with their position in the batch; if a chunk fails to write, all of its
+     * rows are reported as failed and the remaining chunks are still written.
+     *
+     * @param token        The token for user authentication and authorization.
+     * @param accountId    The unique identifier of the account where the transactions need to be added.
+     * @param transactions The transactions to be added, in the order they should be posted.
+     * @return A BulkTransactionResult with the number of created rows and the errors of the rejected ones.
+     * @throws Exception if the user is not authenticated or the account is not found.
+     */
+    public BulkTransactionResult addTransactions(String token, Long accountId, List<Transaction> transactions) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        if (user == null) {
+            throw new Exception("User not found");
+        }
+        accountService.verifyAccountsOwned(List.of(accountId), user.getId());
+
+        BulkTransactionResult result = new BulkTransactionResult();
+        result.setReceived(transactions.size());
+        for (int start = 0; start < transactions.size(); start += bulkChunkSize) {
+            int end = Math.min(start + bulkChunkSize, transactions.size());
+            List<Integer> rowNumbers = IntStream.range(start, end).boxed().toList();
+            addTransactionChunk(user.getId(), accountId, transactions.subList(start, end), rowNumbers, result);
+        }
+        return result;
+    }
+
+    /**
+     * Imports the transactions of a bank statement into an account.
+     * <p>
+     * Entries are pulled from the parser only as fast as chunks of {@code transaction.bulk.chunk-size}
+     * rows are written, so at most one chunk is held in memory no matter how long the statement is.
+     * Rows are written exactly like {@link #addTransactions(String, Long, List)} does; errors are
+     * reported with the line number of the offending entry.
+     *
+     * @param token     The token for user authentication and authorization.
+     * @param accountId The unique identifier of the account to import the statement into.
+     * @param parser    The parser reading the statement entries.
+     * @return A BulkTransactionResult with the number of imported rows and the errors of the rejected ones.
+     * @throws Exception if the user is not authenticated, the account is not found or the statement cannot be read.
+     */
+    public BulkTransactionResult importTransactions(String token, Long accountId, StatementParser parser) throws Exception {
+        AuthenticatedUser user = userService.getUser(token);
+        if (user == null) {
+            throw new Exception("User not found");
+        }
+        accountService.verifyAccountsOwned(List.of(accountId), user.getId());
+
+        BulkTransactionResult result = new BulkTransactionResult();
+        List<Transaction> chunk = new ArrayList<>(bulkChunkSize);
+        List<Integer> lineNumbers = new ArrayList<>(bulkChunkSize);
+        StatementRecord record;
+        while ((record = parser.next()) != null) {
+            result.setReceived(result.getReceived() + 1);
+            if (record.getError() != null) {
+                result.addError(record.getLineNumber(), record.getError());
+                continue;
+            }
+            chunk.add(record.getTransaction());
+            lineNumbers.add(record.getLineNumber());
+            if (chunk.size() == bulkChunkSize) {
+                addTransactionChunk(user.getId(), accountId, chunk, lineNumbers, result);
+                chunk = new ArrayList<>(bulkChunkSize);
+                lineNumbers = new ArrayList<>(bulkChunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            addTransactionChunk(user.getId(), accountId, chunk, lineNumbers, result);
+        }
+        return result;
+    }
+
+    /**
+     * Lists the transactions of an account, newest first, one page at a time.
+     * <p>
+     * Pages are addressed by an opaque keyset cursor over {@code (date, id)} rather than an offset,
+     * so every page is read with an index seek no matter how deep it is.
+     *
+     * @param token     The token for user authentication and authorization.
+     * @param accountId The unique identifier of the account to list.
+     * @param filter    The optional date range, type, status and category criteria.
+     * @param cursor    The nextCursor of the previous page, or null for the first page.
+     * @param limit     The maximum number of transactions to return.
+     * @return A TransactionPage with the transactions and the cursor of the next page.
+     * @throws Exception if the account is not found for the user or a criterion is invalid.
+     */
+    public TransactionPage listTransactions(String token, Long accountId, TransactionFilter filter, String cursor, int limit) throws Exception {
+        accountService.verifyAccountAccess(token, accountId);
+        if (limit < 1 || limit > maxPageSize) {
+            throw new Exception("Limit must be between 1 and " + maxPageSize);
+        }
+
+        String type = null;
+        String status = null;
+        try {
+            if (filter.getType() != null) {
+                type = ETransactionType.valueOf(filter.getType().toUpperCase()).name();
+            }
+        } catch (IllegalArgumentException exception) {
+            throw new Exception("Invalid transaction type: " + filter.getType());
+        }
+        try {
+            if (filter.getStatus() != null) {
+                status = ETransactionStatus.valueOf(filter.getStatus().toUpperCase()).name();
+            }
+        } catch (IllegalArgumentException exception) {
+            throw new Exception("Invalid transaction status: " + filter.getStatus());
+        }
+        LocalDateTime fromDate = filter.getFrom() != null ? filter.getFrom().atStartOfDay() : null;
+        LocalDateTime toDate = filter.getTo() != null ? filter.getTo().plusDays(1).atStartOfDay() : null;
 
-                // Save the new transaction to the database
-                transaction.setAccount(account);
-                transaction.setCreatedDate(LocalDateTime.now());
-                transaction.setUpdatedDate(LocalDateTime.now());
-                newTransaction = transactionRepository.save(transaction);
+        LocalDateTime cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorDate = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (RuntimeException exception) {
+                throw new Exception("Cursor is invalid");
             }
         }
 
-        // Return the newly created transaction object or null if any pre-conditions were not met
-        return newTransaction;
+        // Read one extra row to find out whether there is a next page
+        List<TransactionRow> rows = transactionRepository.findPageByAccountId(accountId, fromDate, toDate, type, status,
+                filter.getCategoryId(), cursorDate, cursorId, PageRequest.of(0, limit + 1));
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            TransactionRow last = rows.get(limit - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getDate() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new TransactionPage(rows, nextCursor);
+    }
+
+    /**
+     * Reserves one of the {@code transaction.export.max-concurrent} export slots. Each export holds
+     * a database connection for as long as the client takes to receive it, so the slots keep
+     * exports from taking over the connection pool.
+     *
+     * @return true if a slot was reserved and must be released with {@link #releaseExport()}
+     */
+    public boolean tryReserveExport() {
+        return exportPermits.tryAcquire();
+    }
+
+    /**
+     * Releases an export slot reserved with {@link #tryReserveExport()}.
+     */
+    public void releaseExport() {
+        exportPermits.release();
+    }
+
+    /**
+     * Writes all transactions of an account, oldest first, to the given writer.
+     * <p>
+     * Rows are read as flat projections from a forward-only database cursor and written as they
+     * arrive, so heap use does not depend on the size of the account's history. The first row is
+     * flushed immediately so the client starts receiving data right away. The export is aborted
+     * after {@code transaction.export.timeout-seconds}, which bounds how long it holds its connection.
+     *
+     * @param accountId The unique identifier of the account to export.
+     * @param writer    The writer receiving the rows.
+     * @return The number of exported rows.
+     * @throws Exception if the rows cannot be read or written.
+     */
+    public long exportTransactions(Long accountId, TransactionRowWriter writer) throws Exception {
+        return Transactions.inTransaction(exportTransactionTemplate, () -> {
+            long count = 0;
+            try (Stream<TransactionRow> rows = transactionRepository.streamRowsByAccountId(accountId)) {
+                Iterator<TransactionRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                    if (++count == 1) {
+                        writer.flush();
+                    }
+                }
+            }
+            writer.flush();
+            return count;
+        });
+    }
+
+    /**
+     * Validates one chunk of a bulk request and writes its valid rows.
+     *
+     * @param rowNumbers the number reported for each row of the chunk if it fails
+     */
+    private void addTransactionChunk(Long userId, Long accountId, List<Transaction> chunk, List<Integer> rowNumbers, BulkTransactionResult result) {
+        List<Transaction> validRows = new ArrayList<>();
+        List<ETransactionType> validTypes = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        Set<Long> referencedAccountIds = new HashSet<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Transaction transaction = chunk.get(i);
+            try {
+                ETransactionType transactionType = validateTransaction(transaction);
+                transaction.setCategory(categoryService.resolve(transaction.getCategory()));
+                PayeeService.normalize(transaction.getPayee());
+                referencedAccountIds.addAll(referencedAccountIds(transaction));
+                validRows.add(transaction);
+                validTypes.add(transactionType);
+                validIndexes.add(rowNumbers.get(i));
+            } catch (Exception exception) {
+                result.addError(rowNumbers.get(i), exception.getMessage());
+            }
+        }
+
+        // Check every from and to account the rows refer to with one query
+        Set<Long> ownedAccountIds = referencedAccountIds.isEmpty()
+                ? Set.of()
+                : accountService.findOwnedAccountIds(referencedAccountIds, userId);
+
+        List<Transaction> rows = new ArrayList<>();
+        List<Integer> rowIndexes = new ArrayList<>();
+        PostingDeltas deltas = new PostingDeltas();
+        for (int i = 0; i < validRows.size(); i++) {
+            Transaction transaction = validRows.get(i);
+            ETransactionType transactionType = validTypes.get(i);
+            if (!ownedAccountIds.containsAll(referencedAccountIds(transaction))) {
+                result.addError(validIndexes.get(i), "Account not found");
+                continue;
+            }
+            deltas.addPosting(accountId, transactionType, transaction.getAmount(), fromAccountId(transaction), toAccountId(transaction));
+            rows.add(transaction);
+            rowIndexes.add(validIndexes.get(i));
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            // New payees are created before the chunk's transaction so that it holds no payee locks
+            Map<String, Payee> payees = payeeService.resolveAll(userId, rows.stream().map(Transaction::getPayee).toList());
+            for (Transaction transaction : rows) {
+                applyPayee(transaction, payees.get(ReferenceDataCache.key(transaction.getPayee())));
+            }
+
+            postingSequencer.execute(deltas.accountIds(), () -> Transactions.inTransaction(transactionTemplate, () -> {
+                LocalDateTime now = LocalDateTime.now();
+                for (Transaction transaction : rows) {
+                    setAccountReferences(transaction);
+                    transaction.setAccount(accountService.getAccountReference(accountId));
+                    transaction.setCreatedDate(now);
+                    transaction.setUpdatedDate(now);
+                }
+                transactionRepository.saveAll(rows);
+
+                // Apply the net change of the whole chunk once per account
+                deltas.forEach(accountService::applyBalanceDelta);
+                balanceCheckpointService.applyPostings(accountId, rows);
+                accountEventService.recordPostings(accountId, rows);
+                spendingRollupService.recordPostings(accountId, rows);
+                eventPublisher.publishEvent(new TransactionsPostedEvent(userId, accountId, rows));
+
+                // Write the chunk and release its entities so memory does not grow with the batch
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            }));
+            result.setCreated(result.getCreated() + rows.size());
+            countRows(rows, "posted");
+        } catch (Exception exception) {
+            for (Integer index : rowIndexes) {
+                result.addError(index, "Transaction add failed :: " + exception.getMessage());
+            }
+            countRows(rows, "failure");
+        }
+    }
+
+    /**
+     * Applies the balance changes of a transaction, saves it, updates the balance checkpoints,
+     * account event streams and spending rollups and publishes a {@link TransactionsPostedEvent}.
+     * Must run inside a database transaction while holding the posting locks of the affected accounts.
+     *
+     * @return the saved Transaction object
+     * @throws Exception if any of the affected accounts is not found
+     */
+    private Transaction postTransaction(Long userId, Long accountId, ETransactionType transactionType, Transaction transaction,
+                                        PostingDeltas deltas) throws Exception {
+        if (transactionType == ETransactionType.TRANSFER) {
+            // The posting account itself is not changed by a transfer, but it must exist
+            if (!accountService.accountExists(accountId)) {
+                throw new Exception("Account not found");
+            }
+        }
+        setAccountReferences(transaction);
+
+        // Update the balances of all affected accounts in the database
+        deltas.forEach(accountService::applyBalanceDelta);
+
+        // Save the new transaction to the database
+        transaction.setAccount(accountService.getAccountReference(accountId));
+        transaction.setCreatedDate(LocalDateTime.now());
+        transaction.setUpdatedDate(LocalDateTime.now());
+        Transaction savedTransaction = transactionRepository.save(transaction);
+
+        balanceCheckpointService.applyPostings(accountId, List.of(savedTransaction));
+        accountEventService.recordPostings(accountId, List.of(savedTransaction));
+        spendingRollupService.recordPostings(accountId, List.of(savedTransaction));
+        eventPublisher.publishEvent(new TransactionsPostedEvent(userId, accountId, List.of(savedTransaction)));
+        return savedTransaction;
+    }
+
+    /**
+     * Checks that a transaction carries everything needed to post it.
+     *
+     * @param transaction the transaction to validate
+     * @return the type of the transaction
+     * @throws Exception if a required field is missing or the transaction type is invalid
+     */
+    private ETransactionType validateTransaction(Transaction transaction) throws Exception {
+        if (transaction == null) {
+            throw new Exception("Transaction is required");
+        }
+        ETransactionType transactionType;
+        try {
+            transactionType = ETransactionType.valueOf(transaction.getType());
+        } catch (IllegalArgumentException | NullPointerException exception) {
+            throw new Exception("Invalid transaction type: " + transaction.getType());
+        }
+        if (transaction.getAmount() == null) {
+            throw new Exception("Transaction amount is required");
+        }
+        try {
+            Money.toMinorUnits(transaction.getAmount(), Money.LEDGER_SCALE);
+        } catch (ArithmeticException exception) {
+            throw new Exception("Transaction amount must have at most " + Money.LEDGER_SCALE + " decimal places");
+        }
+        if (transaction.getDate() == null) {
+            throw new Exception("Transaction date is required");
+        }
+        if (transaction.getStatus() == null) {
+            throw new Exception("Transaction status is required");
+        }
+        if (transactionType == ETransactionType.TRANSFER && (transaction.getFromAccount() == null || transaction.getToAccount() == null)) {
+            throw new Exception("Transfer requires a from and a to account");
+        }
+        return transactionType;
+    }
+
+    /**
+     * Counts the rows of a bulk chunk per transaction type with the given outcome.
+     */
+    private void countRows(List<Transaction> rows, String outcome) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Transaction row : rows) {
+            counts.merge(row.getType(), 1, Integer::sum);
+        }
+        counts.forEach((type, count) -> meterRegistry.counter(BULK_ROWS_COUNTER, "type", type, "outcome", outcome).increment(count));
+    }
+
+    /**
+     * Stores the resolved payee on a transaction, replacing the payee as entered with its stored name.
+     */
+    private static void applyPayee(Transaction transaction, Payee payee) {
+        transaction.setPayee(payee != null ? payee.getName() : null);
+        transaction.setPayeeId(payee != null ? payee.getId() : null);
+    }
+
+    private static JournalRecord toJournalRecord(Long userId, Long accountId, ETransactionType transactionType, Transaction transaction) {
+        return new JournalRecord(0, userId, accountId, transactionType,
+                Money.toMinorUnits(transaction.getAmount(), Money.LEDGER_SCALE),
+                transactionType == ETransactionType.TRANSFER ? fromAccountId(transaction) : 0,
+                transactionType == ETransactionType.TRANSFER ? toAccountId(transaction) : 0,
+                transaction.getCategory() != null ? transaction.getCategory().getId() : 0,
+                transaction.getDate(), transaction.getStatus(), transaction.getPayee(), transaction.getDescription());
+    }
+
+    /**
+     * Replaces the from and to accounts of a transaction, as deserialized from the request, with
+     * references to the stored accounts.
+     */
+    private void setAccountReferences(Transaction transaction) {
+        if (transaction.getFromAccount() != null) {
+            transaction.setFromAccount(accountService.getAccountReference(fromAccountId(transaction)));
+        }
+        if (transaction.getToAccount() != null) {
+            transaction.setToAccount(accountService.getAccountReference(toAccountId(transaction)));
+        }
+    }
+
+    /**
+     * @return the ids of the from and to accounts a transaction names, of any type
+     */
+    private static List<Long> referencedAccountIds(Transaction transaction) {
+        List<Long> accountIds = new ArrayList<>(2);
+        if (transaction.getFromAccount() != null) {
+            accountIds.add(fromAccountId(transaction));
+        }
+        if (transaction.getToAccount() != null) {
+            accountIds.add(toAccountId(transaction));
+        }
+        return accountIds;
+    }
+
+    private static Long idOrNull(long id) {
+        return id != 0 ? id : null;
+    }
+
+    private static Long fromAccountId(Transaction transaction) {
+        return transaction.getFromAccount() != null ? transaction.getFromAccount().getId() : null;
+    }
+
+    private static Long toAccountId(Transaction transaction) {
+        return transaction.getToAccount() != null ? transaction.getToAccount().getId() : null;
     }
 }
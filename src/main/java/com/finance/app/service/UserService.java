@@ -1,11 +1,17 @@
 package com.finance.app.service;
 
+import com.finance.app.model.AuthenticatedUser;
 import com.finance.app.model.User;
+import com.finance.app.model.UserProfile;
+import com.finance.app.repository.AccountRepository;
 import com.finance.app.repository.UserRepository;
 import com.finance.app.security.jwt.JwtUtils;
+import com.finance.app.security.service.UserDetailsServiceImpl;
 import com.finance.app.util.CommonUtil;
+import com.finance.app.util.ExpiringCache;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -16,15 +22,32 @@ import java.time.LocalDateTime;
  * registration.
  */
 @Service
+@Timed(value = "finance.service", description = "Time spent in service methods")
 public class UserService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AccountRepository accountRepository;
+
     @Autowired
     JwtUtils jwtUtils;
 
-    PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Value("${user.cache.ttl-ms:60000}")
+    private long userCacheTtlMs;
+
+    private final ExpiringCache<String, AuthenticatedUser> userCache;
+
+    public UserService(@Value("${user.cache.max-size:10000}") int userCacheMaxSize) {
+        this.userCache = new ExpiringCache<>(userCacheMaxSize);
+    }
 
     /**
      * Registers a new user if the username and email are not already in use.
@@ -54,15 +77,15 @@ public class UserService {
     }
 
     /**
-     * Retrieves the User object associated with the provided token.
+     * Retrieves the authenticated user associated with the provided token.
      *
      * @param token the token used for user retrieval
-     * @return the User object corresponding to the token
+     * @return the authenticated user corresponding to the token
      * @throws Exception if the token is invalid or the user is not found
      */
-    public User getUser(String token) throws Exception {
+    public AuthenticatedUser getUser(String token) throws Exception {
         if (token != null && !token.isEmpty()) {
-            User user = getUserFromToken(CommonUtil.extractToken(token));
+            AuthenticatedUser user = getUserFromToken(CommonUtil.extractToken(token));
             if (user != null) {
                 return user;
             } else {
@@ -78,17 +101,22 @@ public class UserService {
      *
      * @param token the authentication token for user validation.
      * @param user the User object containing updated user information like first name, last name, and email.
-     * @return the updated User object with new information.
+     * @return the UserProfile of the updated user.
      * @throws Exception if the user associated with the token is not found.
      */
-    public User updateUser(String token, User user) throws Exception {
-        User existingUser = getUser(token);
+    public UserProfile updateUser(String token, User user) throws Exception {
+        User existingUser = getUserProfile(token);
         if (existingUser != null) {
             existingUser.setFirstName(user.getFirstName());
             existingUser.setLastName(user.getLastName());
             existingUser.setEmail(user.getEmail());
             existingUser.setUpdatedDate(LocalDateTime.now());
-            return userRepository.save(existingUser);
+            User updatedUser = userRepository.save(existingUser);
+
+            // Drop the cached copies so the next request sees the updated user
+            userCache.evict(updatedUser.getUsername());
+            userDetailsService.evict(updatedUser.getUsername());
+            return UserProfile.of(updatedUser, accountRepository.findViewsByUserId(updatedUser.getId()));
         } else {
             throw new Exception("User not found");
         }
@@ -96,19 +124,61 @@ public class UserService {
     }
 
     /**
-     * Retrieves a User object based on the provided JWT token.
+     * Retrieves the profile of the user for the provided token with a summary of the user's
+     * accounts. The user with its roles and the account summaries are read with one query each,
+     * regardless of how many accounts and transactions the user has.
+     *
+     * @param token the token used for user retrieval
+     * @return the UserProfile of the user
+     * @throws Exception if the token is invalid or the user is not found
+     */
+    public UserProfile getProfile(String token) throws Exception {
+        User user = getUserProfile(token);
+        return UserProfile.of(user, accountRepository.findViewsByUserId(user.getId()));
+    }
+
+    /**
+     * Retrieves a freshly loaded User with its roles for the provided token, bypassing the user cache. Use this
+     * when the caller modifies the user or navigates its lazy associations.
+     *
+     * @param token the token used for user retrieval
+     * @return the User object corresponding to the token
+     * @throws Exception if the token is invalid or the user is not found
+     */
+    public User getUserProfile(String token) throws Exception {
+        if (token != null && !token.isEmpty()) {
+            String username = jwtUtils.getUserNameFromJwtToken(CommonUtil.extractToken(token));
+            if (username != null) {
+                return userRepository.findWithRolesByUsername(username).orElseThrow(() -> new Exception("User Not Found with username: " + username));
+            } else {
+                throw new Exception("User not found");
+            }
+        } else {
+            throw new Exception("Token is invalid");
+        }
+    }
+
+    /**
+     * Retrieves the authenticated user based on the provided JWT token. Users are served from a
+     * short-lived cache as immutable views; use {@link #getUserProfile(String)} to load the entity.
      *
      * @param jwtToken the JWT token from which the user information will be extracted
-     * @return a User object corresponding to the given JWT token
+     * @return the authenticated user corresponding to the given JWT token
      * @throws Exception if the token validation fails or the user is not found
      */
-    public User getUserFromToken(String jwtToken) throws Exception {
-        // Validate the token using JWT utility
-        if (jwtUtils.validateJwtToken(jwtToken)) {
-            // Extract the username from the token
-            String username = jwtUtils.getUserNameFromJwtToken(jwtToken);
-            // Get the user details from the repository
-            return userRepository.findByUsername(username).orElseThrow(() -> new Exception("User Not Found with username: " + username));
+    public AuthenticatedUser getUserFromToken(String jwtToken) throws Exception {
+        // Validate the token and extract the username in a single verification step
+        String username = jwtUtils.getUserNameFromJwtToken(jwtToken);
+        if (username != null) {
+            AuthenticatedUser cachedUser = userCache.get(username);
+            if (cachedUser != null) {
+                return cachedUser;
+            }
+            // Get the user and its roles from the repository
+            User user = userRepository.findWithRolesByUsername(username).orElseThrow(() -> new Exception("User Not Found with username: " + username));
+            AuthenticatedUser authenticatedUser = AuthenticatedUser.of(user);
+            userCache.put(username, authenticatedUser, System.currentTimeMillis() + userCacheTtlMs);
+            return authenticatedUser;
         }
         return null;
     }
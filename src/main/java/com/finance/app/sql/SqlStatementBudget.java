@@ -0,0 +1,67 @@
+package com.finance.app.sql;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Assertions for tests that pin how many SQL statements a piece of code may issue, e.g.
+ * <pre>{@code
+ * SqlStatementBudget.assertAtMost(3, () -> mockMvc.perform(get("/api/v1/account/1")));
+ * }</pre>
+ * MockMvc runs the request on the calling thread, so the statements of the whole request,
+ * including its filters, are counted.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    /**
+     * Runs the action and fails if it issued more than {@code maxStatements} SQL statements on the
+     * current thread.
+     *
+     * @param maxStatements the number of statements the action may issue
+     * @param action        the code under test
+     * @return the result of the action
+     * @throws AssertionError if the budget was exceeded, listing the statements that were issued
+     * @throws Exception      any exception thrown by the action
+     */
+    public static <T> T assertAtMost(int maxStatements, Callable<T> action) throws Exception {
+        try (SqlStatementScope scope = SqlStatementRecorder.open()) {
+            T result = action.call();
+            if (scope.count() > maxStatements) {
+                throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                        + scope.count() + " were issued:" + describe(scope.statements()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Runs the action and fails if it issued any statement shape at least {@code threshold} times
+     * on the current thread, which indicates an N+1 query.
+     *
+     * @param threshold the number of statements of one shape that counts as an N+1 query
+     * @param action    the code under test
+     * @return the result of the action
+     * @throws AssertionError if a statement shape was repeated too often
+     * @throws Exception      any exception thrown by the action
+     */
+    public static <T> T assertNoRepeatedStatements(int threshold, Callable<T> action) throws Exception {
+        try (SqlStatementScope scope = SqlStatementRecorder.open()) {
+            T result = action.call();
+            Map<String, Integer> repeated = scope.repeatedShapes(threshold);
+            if (!repeated.isEmpty()) {
+                throw new AssertionError("Expected no statement to repeat " + threshold + " times:" + describe(repeated));
+            }
+            return result;
+        }
+    }
+
+    private static String describe(Map<String, Integer> statements) {
+        StringBuilder description = new StringBuilder();
+        statements.forEach((sql, times) -> description.append(System.lineSeparator())
+                .append("  ").append(times).append("x ").append(sql));
+        return description.toString();
+    }
+}
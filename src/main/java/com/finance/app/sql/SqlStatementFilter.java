@@ -0,0 +1,92 @@
+package com.finance.app.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request issues, including those of the security filters, records
+ * them as the {@code finance.sql.statements} distribution and logs statements repeated often enough
+ * to be an N+1 query, with the controller method that handled the request.
+ * <p>
+ * Only statements issued on the request thread are counted; streaming responses that write their
+ * body asynchronously are counted up to the point they go asynchronous.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute holding the request's open {@link SqlStatementScope}.
+     */
+    public static final String SCOPE_ATTRIBUTE = SqlStatementFilter.class.getName() + ".scope";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sql.n-plus-one.threshold:10}")
+    private int nPlusOneThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementScope scope = SqlStatementRecorder.open();
+        request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            record(request, scope);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementScope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("finance.sql.statements")
+                .description("SQL statements issued per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.count());
+
+        if (scope.count() < nPlusOneThreshold) {
+            return;
+        }
+        Map<String, Integer> repeated = scope.repeatedShapes(nPlusOneThreshold);
+        if (repeated.isEmpty()) {
+            return;
+        }
+        String handler = handlerOf(request);
+        meterRegistry.counter("finance.sql.n_plus_one", "handler", handler).increment();
+        repeated.forEach((shape, times) -> logger.warn("Possible N+1 query in {} ({} {}): {} statements of shape [{}]",
+                handler, request.getMethod(), uri, times, shape));
+    }
+
+    private static String handlerOf(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        }
+        return "UNKNOWN";
+    }
+}
@@ -0,0 +1,15 @@
+package com.finance.app.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Passes every SQL statement Hibernate prepares to the {@link SqlStatementRecorder}, unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementRecorder.record(sql);
+        return sql;
+    }
+}
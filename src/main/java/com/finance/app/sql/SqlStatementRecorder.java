@@ -0,0 +1,44 @@
+package com.finance.app.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Hands the SQL statements Hibernate issues to the {@link SqlStatementScope}s open on the issuing
+ * thread. Threads without an open scope, such as background jobs, only pay for a thread-local lookup.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<Deque<SqlStatementScope>> scopes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlStatementRecorder() {
+    }
+
+    /**
+     * Opens a scope counting the statements issued on the current thread until it is closed.
+     *
+     * @return the new scope, to be closed on the same thread
+     */
+    public static SqlStatementScope open() {
+        SqlStatementScope scope = new SqlStatementScope();
+        scopes.get().push(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        Deque<SqlStatementScope> open = scopes.get();
+        if (!open.isEmpty()) {
+            for (SqlStatementScope scope : open) {
+                scope.record(sql);
+            }
+        }
+    }
+
+    static void close(SqlStatementScope scope) {
+        Deque<SqlStatementScope> open = scopes.get();
+        open.remove(scope);
+        if (open.isEmpty()) {
+            scopes.remove();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.finance.app.sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements issued on the current thread between {@link SqlStatementRecorder#open()}
+ * and {@link #close()}. Scopes nest: a statement is counted by every scope open on the thread.
+ */
+public class SqlStatementScope implements AutoCloseable {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+
+    private final Map<String, Integer> statements = new HashMap<>();
+
+    private int count;
+
+    private boolean closed;
+
+    SqlStatementScope() {
+    }
+
+    void record(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    /**
+     * @return the number of statements issued in this scope so far
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return every distinct statement issued in this scope with the number of times it was issued
+     */
+    public Map<String, Integer> statements() {
+        return Map.copyOf(statements);
+    }
+
+    /**
+     * Groups the statements by shape, that is with whitespace, literals and the length of
+     * {@code in (?, ?, ...)} lists normalized, and returns the shapes issued at least
+     * {@code threshold} times, most frequent first. Many statements of one shape in a single
+     * request usually mean an association is loaded once per row (an N+1 query).
+     *
+     * @param threshold the minimum number of statements of one shape to report
+     * @return the repeated shapes with their counts
+     */
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> shapes = new HashMap<>();
+        statements.forEach((sql, times) -> shapes.merge(shapeOf(sql), times, Integer::sum));
+
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> shape : shapes.entrySet()) {
+            if (shape.getValue() >= threshold) {
+                repeated.add(shape);
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        repeated.forEach(shape -> result.put(shape.getKey(), shape.getValue()));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            SqlStatementRecorder.close(this);
+        }
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+}
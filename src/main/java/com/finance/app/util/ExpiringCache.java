@@ -0,0 +1,228 @@
+package com.finance.app.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded, thread-safe cache whose entries expire at a per-entry deadline.
+ * <p>
+ * Entries live in a {@link ConcurrentHashMap}, so reads take no lock and only mark the entry as
+ * used; this keeps caches read on every request, such as verified tokens and users, from
+ * serialising requests. Expired entries are dropped lazily on read. When a new entry takes the
+ * cache past its capacity, entries are evicted with the CLOCK algorithm: a hand walks the entries,
+ * sparing each one read since it last passed, and evicts the first expired or unused one. This
+ * approximates least-recently-used eviction, so the cache keeps caching the keys in current use
+ * however many other keys are churned through it. Capacity is counted in entries, or in the
+ * weight of the values when the cache is created with a weigher.
+ * <p>
+ * {@link #get}, {@link #put} and {@link #evict} take constant time, apart from puts that evict,
+ * which are serialised with each other and usually visit a few entries. {@link #evictIf} and
+ * {@link #clear} visit every entry.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final long maxWeight;
+
+    private final ToLongFunction<? super V> weigher;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong weight = new AtomicLong();
+
+    /**
+     * The CLOCK hand, guarded by itself.
+     */
+    private final Object evictionLock = new Object();
+
+    private Iterator<Map.Entry<K, Entry<V>>> hand;
+
+    /**
+     * Creates a cache holding at most {@code maxSize} entries.
+     *
+     * @param maxSize the maximum number of entries kept in the cache
+     */
+    public ExpiringCache(int maxSize) {
+        this(maxSize, value -> 1);
+    }
+
+    /**
+     * Creates a cache holding values of at most {@code maxWeight} total weight.
+     *
+     * @param maxWeight the maximum total weight of the values kept in the cache
+     * @param weigher   the weight of a value, at least 1
+     */
+    public ExpiringCache(long maxWeight, ToLongFunction<? super V> weigher) {
+        this(maxWeight, weigher, System::currentTimeMillis);
+    }
+
+    ExpiringCache(long maxWeight, ToLongFunction<? super V> weigher, LongSupplier clock) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value for the given key if present and not yet expired.
+     *
+     * @param key the key to look up
+     * @return the cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= clock.getAsLong()) {
+            remove(key, entry);
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Caches a value until the given absolute deadline, evicting other entries if the cache would
+     * otherwise exceed its capacity. A value heavier than the whole capacity is not cached.
+     *
+     * @param key             the key to cache the value under
+     * @param value           the value to cache
+     * @param expiresAtMillis the epoch millisecond at which the entry stops being served
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (expiresAtMillis <= clock.getAsLong() || valueWeight > maxWeight) {
+            evict(key);
+            return;
+        }
+        Entry<V> entry = new Entry<>(value, expiresAtMillis, valueWeight);
+        Entry<V> previous = entries.put(key, entry);
+        weight.addAndGet(previous != null ? valueWeight - previous.weight : valueWeight);
+        if (weight.get() > maxWeight) {
+            synchronized (evictionLock) {
+                while (weight.get() > maxWeight && evictOne(key)) {
+                    // keep evicting until the new entry fits
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the entry for the given key, if any.
+     *
+     * @param key the key to evict
+     */
+    public void evict(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight.addAndGet(-removed.weight);
+        }
+    }
+
+    /**
+     * Removes every entry whose value matches the given predicate. Visits every entry.
+     *
+     * @param predicate the condition selecting values to evict
+     */
+    public void evictIf(Predicate<V> predicate) {
+        entries.forEach((key, entry) -> {
+            if (predicate.test(entry.value)) {
+                remove(key, entry);
+            }
+        });
+    }
+
+    /**
+     * Removes all entries from the cache. Visits every entry.
+     */
+    public void clear() {
+        entries.forEach(this::remove);
+    }
+
+    /**
+     * @return the current number of entries, including ones that expired but were not yet dropped
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the current entries; the number of entries without a weigher
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Advances the CLOCK hand to the first entry other than {@code keep} that is expired or was not
+     * read since the hand last passed it, clearing the read mark of the entries it passes, and
+     * evicts that entry. After two rounds the entry under the hand is evicted regardless, so a
+     * cache full of hot entries cannot keep the hand spinning. Must hold the eviction lock.
+     *
+     * @return false if there was nothing to evict
+     */
+    private boolean evictOne(K keep) {
+        long now = clock.getAsLong();
+        long maxScanned = 2L * entries.size() + 1;
+        for (long scanned = 0; scanned <= maxScanned; scanned++) {
+            if (hand == null || !hand.hasNext()) {
+                hand = entries.entrySet().iterator();
+                if (!hand.hasNext()) {
+                    return false;
+                }
+            }
+            Map.Entry<K, Entry<V>> candidate = hand.next();
+            if (candidate.getKey().equals(keep)) {
+                continue;
+            }
+            Entry<V> entry = candidate.getValue();
+            if (entry.referenced && entry.expiresAtMillis > now && scanned < maxScanned) {
+                entry.referenced = false;
+                continue;
+            }
+            if (remove(candidate.getKey(), entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry if it is still the one cached under the key, keeping the total weight in step.
+     */
+    private boolean remove(K key, Entry<V> entry) {
+        if (entries.remove(key, entry)) {
+            weight.addAndGet(-entry.weight);
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+        private final long weight;
+
+        /**
+         * Set when the entry is read and cleared when the CLOCK hand passes it.
+         */
+        private volatile boolean referenced;
+
+        private Entry(V value, long expiresAtMillis, long weight) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.finance.app.util;
+
+import com.finance.app.model.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Autocomplete over a set of terms ranked by how often they were used.
+ * <p>
+ * Terms are kept in one array sorted by their lower-cased form, so the terms starting with a
+ * prefix are a contiguous range found with a binary search, and the most used ones are picked
+ * from that range with a heap of {@code limit} entries. Adding a use of a known term only bumps
+ * its count; a new term is inserted in place. At most {@code maxTerms} terms are kept, further
+ * new terms are ignored.
+ */
+public class PrefixIndex {
+
+    private final int maxTerms;
+
+    private String[] keys;
+
+    private String[] texts;
+
+    private long[] counts;
+
+    private int size;
+
+    /**
+     * Builds an index from terms and their use counts. Terms that only differ in case or
+     * whitespace are merged and shown as the first of them.
+     *
+     * @param terms    the terms with their counts, most used first if there are more than {@code maxTerms}
+     * @param maxTerms the maximum number of terms kept
+     */
+    public PrefixIndex(Map<String, Long> terms, int maxTerms) {
+        this.maxTerms = maxTerms;
+        TreeMap<String, Map.Entry<String, Long>> sorted = new TreeMap<>();
+        for (Map.Entry<String, Long> term : terms.entrySet()) {
+            String key = ReferenceDataCache.key(term.getKey());
+            if (key == null) {
+                continue;
+            }
+            Map.Entry<String, Long> known = sorted.get(key);
+            if (known != null) {
+                sorted.put(key, Map.entry(known.getKey(), known.getValue() + term.getValue()));
+            } else if (sorted.size() < maxTerms) {
+                sorted.put(key, Map.entry(ReferenceDataCache.normalize(term.getKey()), term.getValue()));
+            }
+        }
+
+        int capacity = Math.max(16, sorted.size() + sorted.size() / 4);
+        keys = new String[capacity];
+        texts = new String[capacity];
+        counts = new long[capacity];
+        for (Map.Entry<String, Map.Entry<String, Long>> term : sorted.entrySet()) {
+            keys[size] = term.getKey();
+            texts[size] = term.getValue().getKey();
+            counts[size] = term.getValue().getValue();
+            size++;
+        }
+    }
+
+    /**
+     * Records one more use of a term.
+     *
+     * @param text the term as entered; null and blank terms are ignored
+     */
+    public synchronized void add(String text) {
+        String key = ReferenceDataCache.key(text);
+        if (key == null) {
+            return;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            counts[index]++;
+            return;
+        }
+        if (size == maxTerms) {
+            return;
+        }
+
+        int insertAt = -index - 1;
+        if (size == keys.length) {
+            int capacity = Math.min(maxTerms, keys.length * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(texts, insertAt, texts, insertAt + 1, size - insertAt);
+        System.arraycopy(counts, insertAt, counts, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        texts[insertAt] = ReferenceDataCache.normalize(text);
+        counts[insertAt] = 1;
+        size++;
+    }
+
+    /**
+     * Returns the most used terms starting with a prefix, ignoring case.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions
+     * @return the suggestions, most used first and alphabetically among equally used ones
+     */
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        String key = prefix != null ? prefix.stripLeading().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT) : "";
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        int from = index >= 0 ? index : -index - 1;
+
+        // Min-heap of the best matches so far: lowest count on top, then the alphabetically last
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1,
+                (a, b) -> counts[a] != counts[b] ? Long.compare(counts[a], counts[b]) : keys[b].compareTo(keys[a]));
+        for (int i = from; i < size && keys[i].startsWith(key); i++) {
+            best.add(i);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int i = best.poll();
+            suggestions.add(new Suggestion(texts[i], counts[i]));
+        }
+        Collections.reverse(suggestions);
+        return suggestions;
+    }
+
+    /**
+     * @return the number of terms in the index
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
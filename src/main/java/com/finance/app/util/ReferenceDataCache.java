@@ -0,0 +1,119 @@
+package com.finance.app.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory copy of a small, read-mostly table, looked up by id and by case-insensitive name
+ * without touching the database.
+ * <p>
+ * {@link #load(Collection)} replaces the whole copy at once, so readers see either the old or the
+ * new contents and never a half-loaded one. Rows added in between are {@link #put(Object) put}
+ * as they are created or found. A row put while a load is running may be missing from the new
+ * copy; callers fall back to the database on a miss and put the row again.
+ * <p>
+ * Cached values are shared between threads and must be treated as read-only.
+ *
+ * @param <T> the entity type
+ */
+public class ReferenceDataCache<T> {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Function<T, Long> idOf;
+
+    private final Function<T, String> nameOf;
+
+    private volatile Contents<T> contents = new Contents<>(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    public ReferenceDataCache(Function<T, Long> idOf, Function<T, String> nameOf) {
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+    }
+
+    /**
+     * Replaces the cached rows with the given ones.
+     *
+     * @param values every row of the table
+     */
+    public void load(Collection<T> values) {
+        Contents<T> loaded = new Contents<>(new ConcurrentHashMap<>(values.size() * 2), new ConcurrentHashMap<>(values.size() * 2));
+        for (T value : values) {
+            loaded.byId.put(idOf.apply(value), value);
+            loaded.byName.put(key(nameOf.apply(value)), value);
+        }
+        contents = loaded;
+    }
+
+    /**
+     * Adds or replaces one row.
+     *
+     * @param value the row
+     */
+    public void put(T value) {
+        Contents<T> current = contents;
+        current.byId.put(idOf.apply(value), value);
+        current.byName.put(key(nameOf.apply(value)), value);
+    }
+
+    /**
+     * @return the cached row with the given id, or null if it is not cached
+     */
+    public T byId(Long id) {
+        return id != null ? contents.byId.get(id) : null;
+    }
+
+    /**
+     * @return the cached row with the given name, ignoring case and surrounding or repeated
+     * whitespace, or null if it is not cached
+     */
+    public T byName(String name) {
+        String key = key(name);
+        return key != null ? contents.byName.get(key) : null;
+    }
+
+    /**
+     * @return every cached row
+     */
+    public List<T> values() {
+        return List.copyOf(contents.byId.values());
+    }
+
+    /**
+     * @return the number of cached rows
+     */
+    public int size() {
+        return contents.byId.size();
+    }
+
+    /**
+     * Trims a name and collapses runs of whitespace to a single space, which is the form names
+     * are stored in.
+     *
+     * @param name the name as entered
+     * @return the normalized name, or null if it is null or blank
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = WHITESPACE.matcher(name.trim()).replaceAll(" ");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * @return the key names are matched by, the normalized name in lower case, or null if the name is blank
+     */
+    public static String key(String name) {
+        String normalized = normalize(name);
+        return normalized != null ? normalized.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private record Contents<T>(Map<Long, T> byId, Map<String, T> byName) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.finance.app.util;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.Callable;
+
+public class Transactions {
+
+    /**
+     * Runs the given action in a database transaction of the given template, rolling it back if
+     * the action throws any exception, checked or not, and rethrowing that exception unchanged.
+     *
+     * @param template The template defining the transaction to run in.
+     * @param action   The action to run.
+     * @return The result of the action.
+     * @throws Exception any exception thrown by the action.
+     */
+    public static <T> T inTransaction(TransactionTemplate template, Callable<T> action) throws Exception {
+        try {
+            return template.execute(status -> {
+                try {
+                    return action.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new UndeclaredThrowableException(e);
+                }
+            });
+        } catch (UndeclaredThrowableException e) {
+            throw (Exception) e.getUndeclaredThrowable();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.finance.app;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the MySQL data source with an in-memory H2 database in MySQL mode. The pool is built
+ * here rather than from {@code spring.datasource.*} so that the MySQL driver settings of the
+ * application properties are not passed on to H2, which rejects unknown connection settings.
+ */
+@Configuration
+@Profile("test")
+public class TestDataSourceConfiguration {
+
+    @Bean
+    public DataSource dataSource(@Value("${test.datasource.url}") String url) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.h2.Driver");
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setPoolName("test");
+        return new HikariDataSource(config);
+    }
+}
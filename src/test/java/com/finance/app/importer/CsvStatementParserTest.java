@@ -0,0 +1,105 @@
+package com.finance.app.importer;
+
+import com.finance.app.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvStatementParserTest {
+
+    @Test
+    void readsSignedAmountsInAnyColumnOrder() throws IOException {
+        List<StatementRecord> records = parse("""
+                Description,Amount,Date,Payee
+                Salary,2500.00,2024-01-31,ACME Ltd
+                "Groceries, weekly",-45.10,2024-02-01T18:30:00,"The ""Corner"" Shop"
+                """);
+
+        assertEquals(2, records.size());
+        Transaction salary = records.get(0).getTransaction();
+        assertEquals(2, records.get(0).getLineNumber());
+        assertEquals(LocalDateTime.of(2024, 1, 31, 0, 0), salary.getDate());
+        assertEquals(new BigDecimal("2500.00"), salary.getAmount());
+        assertEquals("DEPOSIT", salary.getType());
+        assertEquals("UNRECONCILED", salary.getStatus());
+        assertEquals("ACME Ltd", salary.getPayee());
+
+        Transaction groceries = records.get(1).getTransaction();
+        assertEquals(LocalDateTime.of(2024, 2, 1, 18, 30), groceries.getDate());
+        assertEquals(new BigDecimal("45.10"), groceries.getAmount());
+        assertEquals("WITHDRAWAL", groceries.getType());
+        assertEquals("Groceries, weekly", groceries.getDescription());
+        assertEquals("The \"Corner\" Shop", groceries.getPayee());
+    }
+
+    @Test
+    void readsDebitAndCreditColumns() throws IOException {
+        List<StatementRecord> records = parse("""
+                \uFEFFPosted Date,Debit,Credit,Status
+                2024-03-01,12.00,,reconciled
+                2024-03-02,,"1,000.00",
+                2024-03-03,(7.25),,
+                """);
+
+        assertEquals(new BigDecimal("12.00"), records.get(0).getTransaction().getAmount());
+        assertEquals("WITHDRAWAL", records.get(0).getTransaction().getType());
+        assertEquals("RECONCILED", records.get(0).getTransaction().getStatus());
+        assertEquals(new BigDecimal("1000.00"), records.get(1).getTransaction().getAmount());
+        assertEquals("DEPOSIT", records.get(1).getTransaction().getType());
+        assertEquals(new BigDecimal("7.25"), records.get(2).getTransaction().getAmount());
+        assertEquals("WITHDRAWAL", records.get(2).getTransaction().getType());
+    }
+
+    @Test
+    void reportsBadLinesAndCarriesOn() throws IOException {
+        List<StatementRecord> records = parse("""
+                date,amount,type
+
+                2024-13-01,10.00,
+                2024-01-02,ten,
+                2024-01-03,10.00,TRANSFER
+                2024-01-04,10.00,WITHDRAWAL
+                """);
+
+        assertEquals(4, records.size());
+        assertEquals("Line 3: invalid date 2024-13-01", records.get(0).getError());
+        assertEquals(4, records.get(1).getLineNumber());
+        assertNotNull(records.get(1).getError());
+        assertEquals("Line 5: Transfers cannot be imported from a statement", records.get(2).getError());
+        assertNull(records.get(3).getError());
+        assertEquals("WITHDRAWAL", records.get(3).getTransaction().getType());
+    }
+
+    @Test
+    void rejectsAHeaderWithoutDateOrAmount() {
+        assertThrows(IOException.class, () -> parse("payee,description\nShop,Bread\n"));
+        assertThrows(IOException.class, () -> parse(""));
+    }
+
+    @Test
+    void splitsQuotedFields() {
+        assertEquals(List.of("a", "b,c", "d\"e", ""), CsvStatementParser.split("a,\"b,c\",\"d\"\"e\","));
+    }
+
+    private static List<StatementRecord> parse(String csv) throws IOException {
+        List<StatementRecord> records = new ArrayList<>();
+        try (CsvStatementParser parser = new CsvStatementParser(new BufferedReader(new StringReader(csv)))) {
+            StatementRecord record;
+            while ((record = parser.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,104 @@
+package com.finance.app.importer;
+
+import com.finance.app.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OfxStatementParserTest {
+
+    @Test
+    void readsSgmlTransactions() throws IOException {
+        List<StatementRecord> records = parse("""
+                OFXHEADER:100
+                DATA:OFXSGML
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                <BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240131120000.000[-5:EST]
+                <TRNAMT>-42.50
+                <NAME>Tom &amp; Jerry's
+                <MEMO>Dinner
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>XFER
+                <DTPOSTED>20240201
+                <TRNAMT>100.00
+                <PAYEE>Savings
+                </STMTTRN>
+                </BANKTRANLIST>
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """);
+
+        assertEquals(2, records.size());
+        Transaction dinner = records.get(0).getTransaction();
+        assertEquals(7, records.get(0).getLineNumber());
+        assertEquals(LocalDateTime.of(2024, 1, 31, 12, 0), dinner.getDate());
+        assertEquals(new BigDecimal("42.50"), dinner.getAmount());
+        assertEquals("WITHDRAWAL", dinner.getType());
+        assertEquals("Tom & Jerry's", dinner.getPayee());
+        assertEquals("Dinner", dinner.getDescription());
+
+        Transaction transfer = records.get(1).getTransaction();
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), transfer.getDate());
+        assertEquals("DEPOSIT", transfer.getType(), "a type that does not say which way falls back to the sign");
+        assertEquals("Savings", transfer.getPayee());
+        assertNull(transfer.getDescription());
+    }
+
+    @Test
+    void readsXmlTransactions() throws IOException {
+        List<StatementRecord> records = parse("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <OFX><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>INT</TRNTYPE><DTPOSTED>20240315093000</DTPOSTED><TRNAMT>1.23</TRNAMT><NAME>Interest</NAME></STMTTRN>
+                </BANKTRANLIST></OFX>
+                """);
+
+        assertEquals(1, records.size());
+        Transaction interest = records.get(0).getTransaction();
+        assertEquals(LocalDateTime.of(2024, 3, 15, 9, 30), interest.getDate());
+        assertEquals(new BigDecimal("1.23"), interest.getAmount());
+        assertEquals("DEPOSIT", interest.getType());
+        assertEquals("Interest", interest.getPayee());
+    }
+
+    @Test
+    void reportsIncompleteTransactionsAndCarriesOn() throws IOException {
+        List<StatementRecord> records = parse("""
+                <STMTTRN><TRNTYPE>DEBIT<TRNAMT>-1.00</STMTTRN>
+                <STMTTRN><DTPOSTED>2024<TRNAMT>-1.00</STMTTRN>
+                <STMTTRN><DTPOSTED>20240101<TRNAMT>-1.00</STMTTRN>
+                """);
+
+        assertEquals(3, records.size());
+        assertEquals("Line 1: DTPOSTED and TRNAMT are required", records.get(0).getError());
+        assertEquals("Line 2: invalid date 2024", records.get(1).getError());
+        assertNull(records.get(2).getError());
+        assertEquals("WITHDRAWAL", records.get(2).getTransaction().getType());
+    }
+
+    private static List<StatementRecord> parse(String ofx) throws IOException {
+        List<StatementRecord> records = new ArrayList<>();
+        try (OfxStatementParser parser = new OfxStatementParser(new BufferedReader(new StringReader(ofx)))) {
+            StatementRecord record;
+            while ((record = parser.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,155 @@
+package com.finance.app.journal;
+
+import com.finance.app.model.ETransactionType;
+import com.finance.app.repository.JournalOffsetRepository;
+import com.finance.app.service.JournalDeadLetterService;
+import com.finance.app.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JournalProjectorTest {
+
+    @TempDir
+    Path directory;
+
+    private final JournalOffsetRepository journalOffsetRepository = mock(JournalOffsetRepository.class);
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+
+    private final JournalDeadLetterService journalDeadLetterService = mock(JournalDeadLetterService.class);
+
+    /**
+     * The sequences of every batch applied successfully, copied because the projector reuses its batch list.
+     */
+    private final List<List<Long>> applied = new CopyOnWriteArrayList<>();
+
+    private LedgerJournal journal;
+
+    private JournalProjector projector;
+
+    @BeforeEach
+    void openJournal() throws Exception {
+        journal = new LedgerJournal();
+        journal.journalOffsetRepository = journalOffsetRepository;
+        ReflectionTestUtils.setField(journal, "directory", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentSize", 1 << 16);
+        ReflectionTestUtils.setField(journal, "fsyncIntervalMs", 1L);
+        ReflectionTestUtils.setField(journal, "fsyncBatchBytes", 1 << 20);
+        ReflectionTestUtils.setField(journal, "awaitDurable", true);
+        journal.open();
+        for (int i = 1; i <= 5; i++) {
+            journal.append(record(0, i));
+        }
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (projector != null) {
+            projector.stop();
+        }
+        journal.close();
+    }
+
+    @Test
+    void replaysRecordsAfterTheAppliedSequence() throws Exception {
+        when(journalOffsetRepository.findAppliedSequence()).thenReturn(Optional.of(2L));
+        recordAppliedBatches(sequences -> null);
+
+        start();
+
+        awaitApplied(List.of(List.of(3L, 4L, 5L)));
+        journal.append(record(0, 6));
+        awaitApplied(List.of(List.of(3L, 4L, 5L), List.of(6L)));
+    }
+
+    @Test
+    void deadLettersRecordsThatCannotBeApplied() throws Exception {
+        when(journalOffsetRepository.findAppliedSequence()).thenReturn(Optional.of(0L));
+        recordAppliedBatches(sequences -> sequences.contains(3L) ? new IllegalStateException("Account not found") : null);
+
+        start();
+
+        awaitApplied(List.of(List.of(1L), List.of(2L), List.of(4L), List.of(5L)));
+        verify(journalDeadLetterService).deadLetter(eq(record(3, 3)), any(IllegalStateException.class));
+    }
+
+    @Test
+    void retriesABatchWhileTheDatabaseIsDown() throws Exception {
+        when(journalOffsetRepository.findAppliedSequence()).thenReturn(Optional.of(0L));
+        AtomicBoolean down = new AtomicBoolean(true);
+        recordAppliedBatches(sequences -> down.getAndSet(false) ? new DataAccessResourceFailureException("database unavailable") : null);
+
+        start();
+
+        awaitApplied(List.of(List.of(1L, 2L, 3L, 4L, 5L)));
+        verify(transactionService, times(2)).applyJournalRecords(anyList());
+        verify(journalDeadLetterService, never()).deadLetter(any(), any());
+    }
+
+    private void start() {
+        projector = new JournalProjector();
+        projector.ledgerJournal = journal;
+        projector.transactionService = transactionService;
+        projector.journalDeadLetterService = journalDeadLetterService;
+        projector.journalOffsetRepository = journalOffsetRepository;
+        ReflectionTestUtils.setField(projector, "batchSize", 10);
+        projector.start();
+    }
+
+    /**
+     * Makes the transaction service throw the exception the given function returns for a batch,
+     * and record the batch as applied when it returns null.
+     */
+    private void recordAppliedBatches(Function<List<Long>, Exception> failure) throws Exception {
+        doAnswer(invocation -> {
+            List<JournalRecord> records = invocation.getArgument(0);
+            List<Long> sequences = new ArrayList<>();
+            for (JournalRecord record : records) {
+                sequences.add(record.sequence());
+            }
+            Exception exception = failure.apply(sequences);
+            if (exception != null) {
+                throw exception;
+            }
+            applied.add(sequences);
+            return null;
+        }).when(transactionService).applyJournalRecords(anyList());
+    }
+
+    private void awaitApplied(List<List<Long>> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!applied.equals(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, applied);
+    }
+
+    private static JournalRecord record(long sequence, long n) {
+        return new JournalRecord(sequence, 1, 2, ETransactionType.DEPOSIT, 100 * n, 0, 0, 0,
+                LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(n), "UNRECONCILED", "Payee", "Posting " + n);
+    }
+}
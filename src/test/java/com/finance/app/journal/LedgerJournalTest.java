@@ -0,0 +1,197 @@
+package com.finance.app.journal;
+
+import com.finance.app.model.ETransactionType;
+import com.finance.app.repository.JournalOffsetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LedgerJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    /**
+     * The type code follows the user and account ids in an encoded record.
+     */
+    private static final int TYPE_OFFSET = 2 * Long.BYTES;
+
+    @TempDir
+    Path directory;
+
+    private final JournalOffsetRepository journalOffsetRepository = mock(JournalOffsetRepository.class);
+
+    private LedgerJournal journal;
+
+    @AfterEach
+    void close() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void readsBackAppendedRecords() throws Exception {
+        journal = open();
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(i, journal.append(record(0, i)));
+        }
+
+        assertEquals(3, journal.durableSequence());
+        assertEquals(List.of(record(1, 1), record(2, 2), record(3, 3)), readAll(journal.openCursor(0)));
+        assertEquals(List.of(record(3, 3)), readAll(journal.openCursor(2)));
+    }
+
+    @Test
+    void continuesAfterARestart() throws Exception {
+        journal = open();
+        for (int i = 1; i <= 5; i++) {
+            journal.append(record(0, i));
+        }
+        reopen();
+
+        assertEquals(List.of(record(3, 3), record(4, 4), record(5, 5)), readAll(journal.openCursor(2)));
+        assertEquals(6, journal.append(record(0, 6)));
+    }
+
+    @Test
+    void dropsATornFrameOnRecovery() throws Exception {
+        journal = open();
+        for (int i = 1; i <= 3; i++) {
+            journal.append(record(0, i));
+        }
+        journal.close();
+        journal = null;
+
+        // Corrupt the payload of the third frame, as a crash in the middle of writing it would
+        int frameSize = JournalSegment.HEADER_SIZE + Long.BYTES + record(0, 3).encode().length;
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 2L * frameSize + JournalSegment.HEADER_SIZE + Long.BYTES);
+        }
+        journal = open();
+
+        assertEquals(List.of(record(1, 1), record(2, 2)), readAll(journal.openCursor(0)));
+        assertEquals(3, journal.append(record(0, 30)));
+        assertEquals(List.of(record(3, 30)), readAll(journal.openCursor(2)));
+    }
+
+    @Test
+    void rollsSegmentsAndReleasesAppliedOnes() throws Exception {
+        journal = open();
+        List<JournalRecord> expected = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            journal.append(record(0, i));
+            expected.add(record(i, i));
+        }
+        int segments = segmentFiles().size();
+        assertTrue(segments > 2, "expected the records to span several segments, found " + segments);
+        assertEquals(expected, readAll(journal.openCursor(0)));
+
+        journal.release(30);
+
+        assertTrue(segmentFiles().size() < segments);
+        assertEquals(expected.subList(30, 40), readAll(journal.openCursor(30)));
+    }
+
+    @Test
+    void neverReusesAppliedSequences() throws Exception {
+        when(journalOffsetRepository.findAppliedSequence()).thenReturn(Optional.of(10L));
+        journal = open();
+
+        assertEquals(11, journal.append(record(0, 1)));
+        assertEquals(List.of(record(11, 1)), readAll(journal.openCursor(10)));
+    }
+
+    @Test
+    void keepsTextFieldsAndAbsentValues() throws Exception {
+        journal = open();
+        JournalRecord transfer = new JournalRecord(0, 1, 2, ETransactionType.TRANSFER, 12_345, 2, 3, 0,
+                LocalDateTime.of(2024, 2, 29, 23, 59, 59, 999_999_999), "RECONCILED", null, "Ünïcödé €");
+        journal.append(transfer);
+
+        JournalRecord read = journal.openCursor(0).next();
+
+        assertEquals(new JournalRecord(1, 1, 2, ETransactionType.TRANSFER, 12_345, 2, 3, 0,
+                LocalDateTime.of(2024, 2, 29, 23, 59, 59, 999_999_999), "RECONCILED", null, "Ünïcödé €"), read);
+        assertNull(journal.openCursor(1).next());
+    }
+
+    @Test
+    void writesFixedTypeCodes() {
+        assertEquals(0, typeCodeOf(ETransactionType.WITHDRAWAL));
+        assertEquals(1, typeCodeOf(ETransactionType.DEPOSIT));
+        assertEquals(2, typeCodeOf(ETransactionType.TRANSFER));
+    }
+
+    @Test
+    void rejectsAnUnknownTypeCode() {
+        byte[] payload = record(0, 1).encode();
+        payload[TYPE_OFFSET] = 9;
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> JournalRecord.decode(5, ByteBuffer.wrap(payload)));
+        assertEquals("Unknown transaction type code 9 in journal record 5", exception.getMessage());
+    }
+
+    private static byte typeCodeOf(ETransactionType type) {
+        return new JournalRecord(0, 1, 2, type, 1, 0, 0, 0, LocalDateTime.of(2024, 1, 1, 0, 0),
+                null, null, null).encode()[TYPE_OFFSET];
+    }
+
+    private LedgerJournal open() throws IOException {
+        LedgerJournal journal = new LedgerJournal();
+        journal.journalOffsetRepository = journalOffsetRepository;
+        ReflectionTestUtils.setField(journal, "directory", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentSize", SEGMENT_SIZE);
+        ReflectionTestUtils.setField(journal, "fsyncIntervalMs", 1L);
+        ReflectionTestUtils.setField(journal, "fsyncBatchBytes", 1 << 20);
+        ReflectionTestUtils.setField(journal, "awaitDurable", true);
+        journal.open();
+        return journal;
+    }
+
+    private void reopen() throws Exception {
+        journal.close();
+        journal = null;
+        journal = open();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSegment::isSegmentFile).sorted().toList();
+        }
+    }
+
+    private static List<JournalRecord> readAll(JournalCursor cursor) {
+        List<JournalRecord> records = new ArrayList<>();
+        JournalRecord record;
+        while ((record = cursor.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static JournalRecord record(long sequence, long n) {
+        return new JournalRecord(sequence, 1, 2, ETransactionType.WITHDRAWAL, 100 * n, 0, 0, 4,
+                LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(n), "UNRECONCILED", "Payee " + n, "Posting " + n);
+    }
+}
@@ -0,0 +1,163 @@
+package com.finance.app.search;
+
+import com.finance.app.model.SearchableTransaction;
+import com.finance.app.model.Transaction;
+import com.finance.app.model.TransactionSearchFilter;
+import com.finance.app.model.TransactionSearchResult;
+import com.finance.app.model.TransactionsPostedEvent;
+import com.finance.app.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionSearchIndexTest {
+
+    private static final long COMMIT_INTERVAL_MS = 20;
+
+    @TempDir
+    Path indexDirectory;
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+
+    private TransactionSearchIndex index;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (index != null) {
+            index.stop();
+        }
+    }
+
+    @Test
+    void searchesPostedTransactionsOfOneUser() throws Exception {
+        when(transactionRepository.findSearchableCreatedSince(any(), anyLong(), any())).thenReturn(List.of());
+        index = start();
+
+        index.onTransactionsPosted(new TransactionsPostedEvent(1L, 10L, List.of(
+                transaction(1, "Corner Coffee", "Morning"),
+                transaction(2, "Grocer", "Coffee beans"))));
+        index.onTransactionsPosted(new TransactionsPostedEvent(2L, 20L, List.of(
+                transaction(3, "Corner Coffee", "Someone else's"))));
+
+        TransactionSearchResult result = await(() -> search(1L, "coffee"), found -> found.getTotalHits() == 2);
+        assertEquals(1L, result.getTransactions().get(0).getId(), "a payee match outranks a description match");
+        assertEquals(2L, result.getTransactions().get(1).getId());
+        assertTrue(result.getTransactions().stream().allMatch(transaction -> transaction.getUserId() == 1L));
+    }
+
+    @Test
+    void retriesAFailedStartupCatchUp() throws Exception {
+        when(transactionRepository.findSearchableCreatedSince(any(), anyLong(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(List.of(searchable(7, 1L, "Bookshop")));
+        index = start();
+
+        TransactionSearchResult result = await(() -> search(1L, "bookshop"), found -> found.getTotalHits() == 1);
+        assertEquals(7L, result.getTransactions().get(0).getId());
+    }
+
+    @Test
+    void keepsTheCommittedTimeWhileCatchUpFails() throws Exception {
+        when(transactionRepository.findSearchableCreatedSince(any(), anyLong(), any())).thenReturn(List.of());
+        index = start();
+        index.onTransactionsPosted(new TransactionsPostedEvent(1L, 10L, List.of(transaction(1, "Bakery", "Bread"))));
+        await(() -> search(1L, "bakery"), found -> found.getTotalHits() == 1);
+        Thread.sleep(5 * COMMIT_INTERVAL_MS);
+        index.stop();
+        index = null;
+        Map<String, String> committed = commitData();
+        assertFalse(committed.isEmpty());
+
+        when(transactionRepository.findSearchableCreatedSince(any(), anyLong(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+        index = start();
+        index.onTransactionsPosted(new TransactionsPostedEvent(1L, 10L, List.of(transaction(2, "Butcher", "Meat"))));
+        await(() -> search(1L, "butcher"), found -> found.getTotalHits() == 1);
+        Thread.sleep(5 * COMMIT_INTERVAL_MS);
+        index.stop();
+        index = null;
+
+        assertEquals(committed, commitData(), "a restart must catch up from before the failed catch-up");
+    }
+
+    private TransactionSearchIndex start() throws Exception {
+        TransactionSearchIndex index = new TransactionSearchIndex();
+        ReflectionTestUtils.setField(index, "transactionRepository", transactionRepository);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "indexDirectory", indexDirectory.toString());
+        ReflectionTestUtils.setField(index, "queueCapacity", 100);
+        ReflectionTestUtils.setField(index, "commitIntervalMs", COMMIT_INTERVAL_MS);
+        ReflectionTestUtils.setField(index, "catchUpMarginMs", 1_000L);
+        ReflectionTestUtils.setField(index, "catchUpChunkSize", 100);
+        ReflectionTestUtils.setField(index, "catchUpRetryMs", 10L);
+        index.open();
+        index.start();
+        return index;
+    }
+
+    private TransactionSearchResult search(Long userId, String query) throws Exception {
+        TransactionSearchFilter filter = new TransactionSearchFilter();
+        filter.setQuery(query);
+        return index.search(userId, filter, 10);
+    }
+
+    private Map<String, String> commitData() throws Exception {
+        try (Directory directory = FSDirectory.open(indexDirectory);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            return reader.getIndexCommit().getUserData();
+        }
+    }
+
+    private static <T> T await(Callable<T> read, Predicate<T> done) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            T value = read.call();
+            if (done.test(value)) {
+                return value;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out, last read " + value);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Transaction transaction(long id, String payee, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDate(LocalDateTime.of(2024, 3, 1, 12, 0).plusHours(id));
+        transaction.setType("WITHDRAWAL");
+        transaction.setAmount(new BigDecimal("12.50"));
+        transaction.setPayee(payee);
+        transaction.setDescription(description);
+        return transaction;
+    }
+
+    private static SearchableTransaction searchable(long id, Long userId, String payee) {
+        return new SearchableTransaction(id, userId, 10L, LocalDateTime.of(2024, 3, 1, 12, 0),
+                "WITHDRAWAL", new BigDecimal("12.50"), null, payee, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.finance.app.security.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RejectedTokenCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void remembersRejectedTokens() {
+        RejectedTokenCache cache = new RejectedTokenCache(100, 1_000, now::get);
+        cache.add("bad-token");
+
+        assertTrue(cache.contains("bad-token"));
+        assertFalse(cache.contains("good-token"));
+    }
+
+    @Test
+    void neverReportsATokenThatWasNotAdded() {
+        RejectedTokenCache cache = new RejectedTokenCache(2_000, 1_000, now::get);
+        for (int i = 0; i < 1_000; i++) {
+            cache.add("rejected-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(cache.contains("accepted-" + i));
+        }
+    }
+
+    @Test
+    void remembersATokenForOneTtlAndForgetsItAfterTwo() {
+        RejectedTokenCache cache = new RejectedTokenCache(100, 1_000, now::get);
+        cache.add("bad-token");
+
+        now.addAndGet(1_000);
+        cache.add("other-token");
+        assertTrue(cache.contains("bad-token"));
+
+        now.addAndGet(1_000);
+        cache.add("third-token");
+        assertFalse(cache.contains("bad-token"));
+        assertTrue(cache.contains("other-token"));
+    }
+
+    @Test
+    void stopsRememberingOnceTheGenerationIsFull() {
+        RejectedTokenCache cache = new RejectedTokenCache(4, 1_000, now::get);
+        cache.add("first");
+        cache.add("second");
+        cache.add("third");
+
+        assertTrue(cache.contains("first"));
+        assertTrue(cache.contains("second"));
+        assertFalse(cache.contains("third"));
+    }
+
+    @Test
+    void remembersNothingWhenDisabled() {
+        RejectedTokenCache cache = new RejectedTokenCache(0, 1_000, now::get);
+        cache.add("bad-token");
+
+        assertFalse(cache.contains("bad-token"));
+    }
+}
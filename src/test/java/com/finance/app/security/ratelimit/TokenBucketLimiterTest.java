@@ -0,0 +1,95 @@
+package com.finance.app.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    /**
+     * One permit every 100 ns with a burst of three.
+     */
+    private static final RateLimitRule.Limit LIMIT = new RateLimitRule.Limit(RateLimitKey.IP, 100, 200);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private TokenBucketLimiter limiter(int maxKeys) {
+        return new TokenBucketLimiter(maxKeys, now::get);
+    }
+
+    @Test
+    void allowsTheBurstThenWaitsForTheNextPermit() {
+        TokenBucketLimiter limiter = limiter(10);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("signin:IP", "10.0.0.1", LIMIT));
+        }
+        assertEquals(100, limiter.acquire("signin:IP", "10.0.0.1", LIMIT));
+
+        now.addAndGet(100);
+        assertEquals(0, limiter.acquire("signin:IP", "10.0.0.1", LIMIT));
+        assertEquals(100, limiter.acquire("signin:IP", "10.0.0.1", LIMIT));
+    }
+
+    @Test
+    void keepsOneBucketPerGroupAndValue() {
+        TokenBucketLimiter limiter = limiter(10);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("signin:IP", "10.0.0.1", LIMIT);
+        }
+
+        assertEquals(0, limiter.acquire("signin:IP", "10.0.0.2", LIMIT));
+        assertEquals(0, limiter.acquire("signup:IP", "10.0.0.1", LIMIT));
+        assertEquals(3, limiter.size());
+    }
+
+    @Test
+    void sweepDropsOnlyFullBuckets() {
+        TokenBucketLimiter limiter = limiter(10);
+        limiter.acquire("signin:IP", "idle", new RateLimitRule.Limit(RateLimitKey.IP, 10, 0));
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("signin:IP", "busy", LIMIT);
+        }
+
+        now.addAndGet(50);
+        assertEquals(1, limiter.sweep());
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.acquire("signin:IP", "busy", LIMIT) > 0);
+    }
+
+    @Test
+    void evictsAnIdleBucketBeforeABusyOneWhenFull() {
+        TokenBucketLimiter limiter = limiter(2);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("signin:IP", "busy", LIMIT);
+        }
+        limiter.acquire("signin:IP", "idle", new RateLimitRule.Limit(RateLimitKey.IP, 10, 0));
+
+        now.addAndGet(50);
+        assertEquals(0, limiter.acquire("signin:IP", "new", LIMIT));
+        assertEquals(2, limiter.size());
+        assertEquals(1, limiter.evictions());
+        assertEquals(50, limiter.acquire("signin:IP", "busy", LIMIT));
+    }
+
+    @Test
+    void givesEveryNewKeyItsOwnBucketWithinTheKeyLimit() {
+        TokenBucketLimiter limiter = limiter(10);
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(0, limiter.acquire("signin:IP", "10.0.0." + i, LIMIT));
+            }
+        }
+
+        assertEquals(10, limiter.size());
+        assertEquals(90, limiter.evictions());
+    }
+
+    @Test
+    void rejectsAKeyLimitBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(0));
+    }
+}
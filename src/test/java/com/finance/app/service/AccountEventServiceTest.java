@@ -0,0 +1,346 @@
+package com.finance.app.service;
+
+import com.finance.app.model.Account;
+import com.finance.app.model.AccountBalance;
+import com.finance.app.model.AccountEvent;
+import com.finance.app.model.AccountEventTail;
+import com.finance.app.model.AccountSnapshot;
+import com.finance.app.model.AccountView;
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.EAccountType;
+import com.finance.app.model.ETransactionType;
+import com.finance.app.model.Money;
+import com.finance.app.model.Transaction;
+import com.finance.app.repository.AccountEventRepository;
+import com.finance.app.repository.AccountRepository;
+import com.finance.app.repository.AccountSnapshotRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.finance.app.service.TestFixtures.account;
+import static com.finance.app.service.TestFixtures.transaction;
+import static com.finance.app.service.TestFixtures.transfer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountEventServiceTest {
+
+    private final AccountRepository accounts = mock(AccountRepository.class);
+
+    private final AccountSnapshotRepository snapshots = mock(AccountSnapshotRepository.class);
+
+    private final AccountEventRepository events = mock(AccountEventRepository.class);
+
+    private AccountEventService service;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+
+        service = new AccountEventService();
+        service.accountRepository = accounts;
+        service.accountSnapshotRepository = snapshots;
+        service.accountEventRepository = events;
+        service.postingSequencer = new PostingSequencer(16);
+        service.transactionTemplate = transactionTemplate;
+        ReflectionTestUtils.setField(service, "snapshotInterval", 100);
+        ReflectionTestUtils.setField(service, "rebuildChunkSize", 2);
+        ReflectionTestUtils.setField(service, "rebuildParallelism", 2);
+    }
+
+    @Test
+    void rebuildsAnAccountFromItsSnapshotAndTail() throws Exception {
+        Account card = account(1L, EAccountType.CREDIT_CARD, "0.00", "500.00");
+        AccountSnapshot snapshot = snapshot(1L, 10_000, 50_000, 100);
+        when(accounts.findAllForUpdate(List.of(1L))).thenReturn(List.of(card));
+        when(snapshots.findAllForUpdate(List.of(1L))).thenReturn(List.of(snapshot));
+        when(events.sumTailsAfterSnapshots(List.of(1L))).thenReturn(List.of(new AccountEventTail(1L, 3L, 2_550L, -2_550L, 103L)));
+
+        AccountBalance balance = service.rebuildAccount(1L);
+
+        assertEquals(new BigDecimal("125.50"), balance.getBalance());
+        assertEquals(new BigDecimal("125.50"), card.getCurrentBalance());
+        assertEquals(new BigDecimal("474.50"), card.getCreditLimit());
+        assertEquals(103, snapshot.getVersion(), "the tail is folded into the snapshot");
+        assertEquals(12_550, snapshot.getBalance());
+    }
+
+    @Test
+    void keepsTheCreditLimitOfOtherAccounts() throws Exception {
+        Account savings = account(1L, EAccountType.SAVINGS, "100.00", null);
+        when(accounts.findAllForUpdate(List.of(1L))).thenReturn(List.of(savings));
+        when(snapshots.findAllForUpdate(List.of(1L))).thenReturn(List.of(snapshot(1L, 10_000, 0, 1)));
+
+        service.rebuildAccount(1L);
+
+        assertEquals(new BigDecimal("100.00"), savings.getCurrentBalance());
+        assertNull(savings.getCreditLimit());
+        assertNull(savings.getUpdatedDate(), "an account that already matches its events is left alone");
+    }
+
+    @Test
+    void refusesToRebuildAnAccountWithoutStream() {
+        when(accounts.findAllForUpdate(List.of(1L))).thenReturn(List.of(account(1L, EAccountType.SAVINGS, "1.00", null)));
+        Exception noStream = assertThrows(Exception.class, () -> service.rebuildAccount(1L));
+        assertEquals("Account has no event stream", noStream.getMessage());
+
+        Exception notFound = assertThrows(Exception.class, () -> service.rebuildAccount(2L));
+        assertEquals("Account not found", notFound.getMessage());
+    }
+
+    @Test
+    void rebuildsAllAccountsInChunks() throws Exception {
+        when(accounts.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(accounts.findIdsAfter(2L, PageRequest.of(0, 2))).thenReturn(List.of(3L, 4L));
+        when(accounts.findIdsAfter(4L, PageRequest.of(0, 2))).thenReturn(List.of(5L));
+        List<Account> all = new ArrayList<>();
+        when(accounts.findAllForUpdate(anyCollection())).thenAnswer(invocation -> {
+            List<Account> chunk = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                chunk.add(account(id, EAccountType.SAVINGS, "0.00", null));
+            }
+            synchronized (all) {
+                all.addAll(chunk);
+            }
+            return chunk;
+        });
+        // Account 5 predates event streams
+        when(snapshots.findAllForUpdate(anyCollection())).thenAnswer(invocation -> {
+            List<AccountSnapshot> chunk = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                if (id != 5L) {
+                    chunk.add(snapshot(id, id * 100, 0, 1));
+                }
+            }
+            return chunk;
+        });
+
+        assertEquals(4, service.rebuildAllAccounts());
+
+        assertEquals(5, all.size());
+        for (Account account : all) {
+            BigDecimal expected = account.getId() == 5L ? new BigDecimal("0.00") : BigDecimal.valueOf(account.getId(), 0);
+            assertEquals(0, expected.compareTo(account.getCurrentBalance()), "balance of account " + account.getId());
+        }
+    }
+
+    @Test
+    void numbersPostedEventsAfterTheStream() throws Exception {
+        ReflectionTestUtils.setField(service, "snapshotInterval", 5);
+        AccountSnapshot from = snapshot(1L, 0, 0, 1);
+        from.setStreamVersion(3);
+        AccountSnapshot to = snapshot(2L, 0, 0, 1);
+        to.setStreamVersion(5);
+        when(snapshots.findForUpdate(1L)).thenReturn(Optional.of(from));
+        when(snapshots.findForUpdate(2L)).thenReturn(Optional.of(to));
+        when(accounts.findViewsByIds(anyCollection())).thenReturn(List.of(
+                AccountView.of(account(1L, EAccountType.SAVINGS, "0.00", null)),
+                AccountView.of(account(2L, EAccountType.SAVINGS, "0.00", null))));
+        Transaction transfer = transfer("4.00", LocalDateTime.of(2024, 1, 15, 9, 0), 1L, 2L);
+        transfer.setId(9L);
+
+        service.recordPostings(1L, List.of(transfer));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AccountEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(events, times(2)).saveAll(saved.capture());
+        AccountEvent out = saved.getAllValues().get(0).get(0);
+        AccountEvent in = saved.getAllValues().get(1).get(0);
+        assertEquals("TRANSFER_OUT", out.getType());
+        assertEquals(-400, out.getBalanceDelta());
+        assertEquals(4, out.getVersion());
+        assertEquals("TRANSFER_IN", in.getType());
+        assertEquals(400, in.getBalanceDelta());
+        assertEquals(6, in.getVersion());
+        assertEquals(9L, in.getTransactionId());
+        assertEquals(0, in.getCreditDelta(), "a posting leaves the credit limit of a savings account alone");
+        assertEquals("SAVINGS", in.getAccountType());
+        // Only the stream that reached the snapshot interval is folded
+        verify(events, never()).sumTail(eq(1L), anyLong());
+        verify(events).sumTail(2L, 1L);
+    }
+
+    /**
+     * Posts transactions to and updates accounts, writing the accounts the way the application
+     * writes them, then rebuilds copies of the accounts with lost balances and credit limits from
+     * their events and checks that they come back as written.
+     */
+    @Test
+    void rebuildsAccountsAsTheyWereWrittenAcrossUpdates() throws Exception {
+        ReflectionTestUtils.setField(service, "snapshotInterval", 3);
+        Map<Long, Account> table = new HashMap<>();
+        List<AccountEvent> stored = new ArrayList<>();
+        Map<Long, AccountSnapshot> storedSnapshots = new HashMap<>();
+        storeEventsIn(table, stored, storedSnapshots);
+        AccountService accountService = accountService(table);
+
+        table.put(1L, account(1L, EAccountType.SAVINGS, "100.00", null));
+        table.put(2L, account(2L, EAccountType.CREDIT_CARD, "0.00", "500.00"));
+        table.put(3L, account(3L, EAccountType.CREDIT_CARD, "0.00", null));
+        for (Account account : table.values()) {
+            service.recordAccountOpened(account);
+        }
+
+        post(table, 1L, transaction("DEPOSIT", "20.00", LocalDateTime.of(2024, 1, 1, 9, 0)));
+        post(table, 2L, transaction("WITHDRAWAL", "30.00", LocalDateTime.of(2024, 1, 2, 9, 0)));
+        post(table, 1L, transfer("15.00", LocalDateTime.of(2024, 1, 3, 9, 0), 1L, 2L));
+        post(table, 3L, transaction("WITHDRAWAL", "5.00", LocalDateTime.of(2024, 1, 4, 9, 0)));
+        accountService.updateAccount("token", 2L, account(2L, EAccountType.SAVINGS, balanceOf(table, 2L), null));
+        post(table, 2L, transaction("WITHDRAWAL", "10.00", LocalDateTime.of(2024, 1, 5, 9, 0)));
+        post(table, 2L, transfer("7.00", LocalDateTime.of(2024, 1, 6, 9, 0), 2L, 1L));
+        accountService.updateAccount("token", 1L, account(1L, EAccountType.CREDIT_CARD, "200.00", null));
+        post(table, 1L, transaction("DEPOSIT", "3.00", LocalDateTime.of(2024, 1, 7, 9, 0)));
+        accountService.updateAccount("token", 2L, account(2L, EAccountType.CREDIT_CARD, balanceOf(table, 2L), null));
+        post(table, 2L, transaction("DEPOSIT", "4.00", LocalDateTime.of(2024, 1, 8, 9, 0)));
+
+        assertEquals(List.of("OPENED", "WITHDRAWAL", "TRANSFER_IN", "TYPE_CHANGED", "WITHDRAWAL", "TRANSFER_OUT",
+                        "TYPE_CHANGED", "DEPOSIT"),
+                stored.stream().filter(event -> event.getAccountId() == 2L).map(AccountEvent::getType).toList());
+        assertEquals(List.of("OPENED", "DEPOSIT", "TRANSFER_OUT", "TRANSFER_IN", "ADJUSTMENT", "TYPE_CHANGED", "DEPOSIT"),
+                stored.stream().filter(event -> event.getAccountId() == 1L).map(AccountEvent::getType).toList());
+
+        for (Account written : table.values()) {
+            Account lost = account(written.getId(), EAccountType.valueOf(written.getType()), "0.00", null);
+            when(accounts.findAllForUpdate(List.of(written.getId()))).thenReturn(List.of(lost));
+
+            service.rebuildAccount(written.getId());
+
+            assertEquals(written.getCurrentBalance(), lost.getCurrentBalance(), "balance of account " + written.getId());
+            assertEquals(written.getCreditLimit(), lost.getCreditLimit(), "credit limit of account " + written.getId());
+        }
+    }
+
+    /**
+     * Backs the event, snapshot and account view queries with the given in-memory rows.
+     */
+    private void storeEventsIn(Map<Long, Account> table, List<AccountEvent> stored, Map<Long, AccountSnapshot> storedSnapshots) {
+        EntityManager entityManager = mock(EntityManager.class);
+        doAnswer(invocation -> {
+            AccountSnapshot snapshot = invocation.getArgument(0);
+            storedSnapshots.put(snapshot.getAccountId(), snapshot);
+            return null;
+        }).when(entityManager).persist(any(AccountSnapshot.class));
+        service.entityManager = entityManager;
+
+        when(events.save(any())).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(events.saveAll(anyList())).thenAnswer(invocation -> {
+            stored.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(events.sumTail(anyLong(), anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(tail(stored, invocation.getArgument(0), invocation.getArgument(1))));
+        when(events.sumTailsAfterSnapshots(anyCollection())).thenAnswer(invocation -> {
+            List<AccountEventTail> tails = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                AccountEventTail tail = tail(stored, id, storedSnapshots.get(id).getVersion());
+                if (tail != null) {
+                    tails.add(tail);
+                }
+            }
+            return tails;
+        });
+        when(snapshots.findForUpdate(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(storedSnapshots.get(invocation.<Long>getArgument(0))));
+        when(snapshots.findAllForUpdate(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(storedSnapshots::get).toList());
+        when(accounts.findViewsByIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(table::get).map(AccountView::of).toList());
+    }
+
+    private AccountService accountService(Map<Long, Account> table) throws Exception {
+        AccountService accountService = new AccountService();
+        ReflectionTestUtils.setField(accountService, "accountRepository", accounts);
+        accountService.userService = mock(UserService.class);
+        accountService.accountEventService = service;
+        accountService.postingSequencer = service.postingSequencer;
+        accountService.transactionTemplate = service.transactionTemplate;
+        when(accountService.userService.getUser("token")).thenReturn(new AuthenticatedUser(7L, "user", List.of()));
+        when(accounts.existsByIdAndUserId(anyLong(), eq(7L))).thenReturn(true);
+        when(accounts.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<Long>getArgument(0))));
+        when(accounts.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return accountService;
+    }
+
+    /**
+     * Applies a posting to the in-memory accounts like the balance update statement, which only
+     * changes the credit limit of credit cards that have one, and records its events.
+     */
+    private void post(Map<Long, Account> table, Long accountId, Transaction transaction) throws Exception {
+        transaction.setId(transaction.getDate().getDayOfMonth() * 10L);
+        PostingDeltas.changesOf(accountId, ETransactionType.valueOf(transaction.getType()),
+                Money.toMinorUnits(transaction.getAmount(), Money.LEDGER_SCALE),
+                transaction.getFromAccount() != null ? transaction.getFromAccount().getId() : null,
+                transaction.getToAccount() != null ? transaction.getToAccount().getId() : null,
+                (id, balanceDelta, creditDelta) -> {
+                    Account account = table.get(id);
+                    account.setCurrentBalance(account.getCurrentBalance().add(Money.toBigDecimal(balanceDelta, Money.LEDGER_SCALE)));
+                    if (EAccountType.CREDIT_CARD.name().equals(account.getType()) && account.getCreditLimit() != null) {
+                        account.setCreditLimit(account.getCreditLimit().add(Money.toBigDecimal(creditDelta, Money.LEDGER_SCALE)));
+                    }
+                });
+        service.recordPostings(accountId, List.of(transaction));
+    }
+
+    private static String balanceOf(Map<Long, Account> table, Long accountId) {
+        return table.get(accountId).getCurrentBalance().toPlainString();
+    }
+
+    private static AccountEventTail tail(List<AccountEvent> stored, Long accountId, long afterVersion) {
+        long count = 0;
+        long balanceDelta = 0;
+        long creditDelta = 0;
+        long lastVersion = 0;
+        for (AccountEvent event : stored) {
+            if (event.getAccountId().equals(accountId) && event.getVersion() > afterVersion) {
+                count++;
+                balanceDelta += event.getBalanceDelta();
+                creditDelta += event.getCreditDelta();
+                lastVersion = Math.max(lastVersion, event.getVersion());
+            }
+        }
+        return count == 0 ? null : new AccountEventTail(accountId, count, balanceDelta, creditDelta, lastVersion);
+    }
+
+    private static AccountSnapshot snapshot(Long accountId, long balance, long creditLimit, long version) {
+        AccountSnapshot snapshot = new AccountSnapshot();
+        snapshot.setAccountId(accountId);
+        snapshot.setBalance(balance);
+        snapshot.setCreditLimit(creditLimit);
+        snapshot.setVersion(version);
+        snapshot.setStreamVersion(version);
+        return snapshot;
+    }
+}
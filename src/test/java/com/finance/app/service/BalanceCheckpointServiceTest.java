@@ -0,0 +1,201 @@
+package com.finance.app.service;
+
+import com.finance.app.model.BalanceCheckpoint;
+import com.finance.app.model.Transaction;
+import com.finance.app.repository.BalanceCheckpointRepository;
+import com.finance.app.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+import static com.finance.app.service.TestFixtures.transaction;
+import static com.finance.app.service.TestFixtures.transfer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Posts transactions through {@link BalanceCheckpointService} against an in-memory ledger and
+ * checks that every checkpoint plus the transactions after it adds up to the balance computed
+ * from all postings.
+ */
+class BalanceCheckpointServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2024, 6, 30);
+
+    private static final Map<Long, BigDecimal> STARTING_BALANCES = Map.of(1L, new BigDecimal("100.00"), 2L, new BigDecimal("0.00"));
+
+    /**
+     * The posted transactions with the account each was posted to.
+     */
+    private final List<Map.Entry<Long, Transaction>> ledger = new ArrayList<>();
+
+    private final Map<Long, TreeMap<LocalDate, BigDecimal>> checkpoints = new HashMap<>();
+
+    private BalanceCheckpointService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new BalanceCheckpointService();
+        service.accountService = mock(AccountService.class);
+        service.balanceCheckpointRepository = checkpointRepository();
+        service.transactionRepository = transactionRepository();
+        for (Map.Entry<Long, BigDecimal> account : STARTING_BALANCES.entrySet()) {
+            when(service.accountService.getStartingBalance(account.getKey())).thenReturn(account.getValue());
+        }
+    }
+
+    @Test
+    void checkpointsAndTailsAddUpToThePostings() throws Exception {
+        post(1L, transaction("WITHDRAWAL", "10.00", LocalDateTime.of(2024, 3, 5, 9, 0)),
+                transaction("DEPOSIT", "2.50", LocalDateTime.of(2024, 3, 31, 23, 59)));
+        assertBalancesMatchPostings();
+
+        // Back-dated into a month before every checkpoint, and into a month between two of them
+        post(1L, transaction("WITHDRAWAL", "7.25", LocalDateTime.of(2024, 1, 10, 12, 0)));
+        post(1L, transaction("DEPOSIT", "1.00", LocalDateTime.of(2024, 2, 29, 8, 0)),
+                transaction("WITHDRAWAL", "3.00", LocalDateTime.of(2024, 5, 1, 0, 0)));
+        assertBalancesMatchPostings();
+
+        post(1L, transfer("20.00", LocalDateTime.of(2024, 2, 14, 10, 0), 1L, 2L),
+                transfer("5.00", LocalDateTime.of(2024, 4, 2, 10, 0), 2L, 1L));
+        assertBalancesMatchPostings();
+
+        // Postings that cancel out within a month still give the month its checkpoint
+        post(2L, transaction("WITHDRAWAL", "4.00", LocalDateTime.of(2024, 6, 3, 10, 0)),
+                transaction("DEPOSIT", "4.00", LocalDateTime.of(2024, 6, 4, 10, 0)));
+        assertBalancesMatchPostings();
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 4, 30), LocalDate.of(2024, 6, 30)),
+                new ArrayList<>(checkpoints.get(2L).keySet()));
+    }
+
+    /**
+     * Saves the transactions to the ledger and applies them, as a posting does in one database transaction.
+     */
+    private void post(Long accountId, Transaction... transactions) throws Exception {
+        for (Transaction transaction : transactions) {
+            ledger.add(Map.entry(accountId, transaction));
+        }
+        service.applyPostings(accountId, List.of(transactions));
+    }
+
+    private void assertBalancesMatchPostings() throws Exception {
+        for (Long accountId : STARTING_BALANCES.keySet()) {
+            for (Map.Entry<LocalDate, BigDecimal> checkpoint : checkpoints.getOrDefault(accountId, new TreeMap<>()).entrySet()) {
+                assertEquals(expectedBalance(accountId, checkpoint.getKey()), checkpoint.getValue(),
+                        "checkpoint of account " + accountId + " on " + checkpoint.getKey());
+            }
+            for (LocalDate day = FIRST_DAY; !day.isAfter(LAST_DAY); day = day.plusDays(1)) {
+                assertEquals(expectedBalance(accountId, day), service.getBalance("token", accountId, day).getBalance(),
+                        "balance of account " + accountId + " on " + day);
+            }
+        }
+    }
+
+    /**
+     * The starting balance plus every posting dated on or before the day, worked out from the
+     * ledger without checkpoints.
+     */
+    private BigDecimal expectedBalance(Long accountId, LocalDate day) {
+        BigDecimal balance = STARTING_BALANCES.get(accountId);
+        for (Map.Entry<Long, Transaction> posting : ledger) {
+            Transaction transaction = posting.getValue();
+            if (transaction.getDate().toLocalDate().isAfter(day)) {
+                continue;
+            }
+            switch (transaction.getType()) {
+                case "DEPOSIT" -> balance = posting.getKey().equals(accountId) ? balance.subtract(transaction.getAmount()) : balance;
+                case "WITHDRAWAL" -> balance = posting.getKey().equals(accountId) ? balance.add(transaction.getAmount()) : balance;
+                default -> {
+                    if (transaction.getFromAccount().getId() == accountId) {
+                        balance = balance.subtract(transaction.getAmount());
+                    }
+                    if (transaction.getToAccount().getId() == accountId) {
+                        balance = balance.add(transaction.getAmount());
+                    }
+                }
+            }
+        }
+        return balance;
+    }
+
+    private BalanceCheckpointRepository checkpointRepository() {
+        BalanceCheckpointRepository repository = mock(BalanceCheckpointRepository.class);
+        when(repository.shiftFrom(any(), any(), any())).thenAnswer(invocation -> {
+            Map<LocalDate, BigDecimal> shifted = checkpointsOf(invocation.getArgument(0))
+                    .tailMap(invocation.getArgument(1), true);
+            BigDecimal delta = invocation.getArgument(2);
+            shifted.replaceAll((periodEnd, balance) -> balance.add(delta));
+            return shifted.size();
+        });
+        when(repository.existsByAccountIdAndPeriodEnd(any(), any())).thenAnswer(invocation ->
+                checkpointsOf(invocation.getArgument(0)).containsKey(invocation.<LocalDate>getArgument(1)));
+        when(repository.findTopByAccountIdAndPeriodEndLessThanOrderByPeriodEndDesc(any(), any())).thenAnswer(invocation ->
+                checkpoint(invocation.getArgument(0), checkpointsOf(invocation.getArgument(0)).lowerEntry(invocation.getArgument(1))));
+        when(repository.findTopByAccountIdAndPeriodEndLessThanEqualOrderByPeriodEndDesc(any(), any())).thenAnswer(invocation ->
+                checkpoint(invocation.getArgument(0), checkpointsOf(invocation.getArgument(0)).floorEntry(invocation.getArgument(1))));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            BalanceCheckpoint checkpoint = invocation.getArgument(0);
+            checkpointsOf(checkpoint.getAccountId()).put(checkpoint.getPeriodEnd(), checkpoint.getBalance());
+            return checkpoint;
+        });
+        return repository;
+    }
+
+    /**
+     * Sums the ledger the way the repository queries do: dates from inclusive, to exclusive, and
+     * no lower bound without a from date.
+     */
+    private TransactionRepository transactionRepository() {
+        TransactionRepository repository = mock(TransactionRepository.class);
+        when(repository.sumPostingChange(any(), any(), any())).thenAnswer(invocation -> sum(invocation.getArgument(1), invocation.getArgument(2),
+                (accountId, transaction) -> accountId.equals(invocation.getArgument(0)) && !transaction.getType().equals("TRANSFER")
+                        ? (transaction.getType().equals("DEPOSIT") ? transaction.getAmount().negate() : transaction.getAmount())
+                        : BigDecimal.ZERO));
+        when(repository.sumTransfersIn(any(), any(), any())).thenAnswer(invocation -> sum(invocation.getArgument(1), invocation.getArgument(2),
+                (accountId, transaction) -> transaction.getType().equals("TRANSFER")
+                        && transaction.getToAccount().getId() == invocation.<Long>getArgument(0) ? transaction.getAmount() : BigDecimal.ZERO));
+        when(repository.sumTransfersOut(any(), any(), any())).thenAnswer(invocation -> sum(invocation.getArgument(1), invocation.getArgument(2),
+                (accountId, transaction) -> transaction.getType().equals("TRANSFER")
+                        && transaction.getFromAccount().getId() == invocation.<Long>getArgument(0) ? transaction.getAmount() : BigDecimal.ZERO));
+        return repository;
+    }
+
+    private BigDecimal sum(LocalDateTime fromDate, LocalDateTime toDate, BiFunction<Long, Transaction, BigDecimal> amount) {
+        BigDecimal sum = new BigDecimal("0.00");
+        for (Map.Entry<Long, Transaction> posting : ledger) {
+            LocalDateTime date = posting.getValue().getDate();
+            if ((fromDate == null || !date.isBefore(fromDate)) && date.isBefore(toDate)) {
+                sum = sum.add(amount.apply(posting.getKey(), posting.getValue()));
+            }
+        }
+        return sum;
+    }
+
+    private TreeMap<LocalDate, BigDecimal> checkpointsOf(Long accountId) {
+        return checkpoints.computeIfAbsent(accountId, id -> new TreeMap<>());
+    }
+
+    private static Optional<BalanceCheckpoint> checkpoint(Long accountId, Map.Entry<LocalDate, BigDecimal> entry) {
+        if (entry == null) {
+            return Optional.empty();
+        }
+        BalanceCheckpoint checkpoint = new BalanceCheckpoint();
+        checkpoint.setAccountId(accountId);
+        checkpoint.setPeriodEnd(entry.getKey());
+        checkpoint.setBalance(entry.getValue());
+        return Optional.of(checkpoint);
+    }
+}
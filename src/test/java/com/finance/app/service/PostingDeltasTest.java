@@ -0,0 +1,77 @@
+package com.finance.app.service;
+
+import com.finance.app.model.ETransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PostingDeltasTest {
+
+    @Test
+    void movesMoneyByTransactionType() throws Exception {
+        PostingDeltas deltas = new PostingDeltas();
+        deltas.addPosting(1L, ETransactionType.DEPOSIT, new BigDecimal("10.00"), null, null);
+        deltas.addPosting(2L, ETransactionType.WITHDRAWAL, new BigDecimal("2.5"), null, null);
+        deltas.addPosting(1L, ETransactionType.TRANSFER, new BigDecimal("3.00"), 3L, 2L);
+
+        assertEquals(List.of(
+                List.of(1L, -1000L, 1000L),
+                List.of(2L, 550L, 50L),
+                List.of(3L, -300L, -300L)), changes(deltas));
+    }
+
+    @Test
+    void netsPostingsPerAccount() throws Exception {
+        PostingDeltas deltas = new PostingDeltas();
+        for (int i = 0; i < 100; i++) {
+            deltas.addPosting(7L, ETransactionType.WITHDRAWAL, 125, null, null);
+            deltas.addPosting(7L, ETransactionType.DEPOSIT, 25, null, null);
+        }
+
+        assertEquals(List.of(7L), new ArrayList<>(deltas.accountIds()));
+        assertEquals(List.of(List.of(7L, 10_000L, -10_000L)), changes(deltas));
+    }
+
+    @Test
+    void listsAccountsInAscendingOrder() {
+        PostingDeltas deltas = new PostingDeltas();
+        deltas.addPosting(9L, ETransactionType.TRANSFER, 1, 9L, 4L);
+        deltas.addPosting(6L, ETransactionType.DEPOSIT, 1, null, null);
+
+        assertEquals(List.of(4L, 6L, 9L), new ArrayList<>(deltas.accountIds()));
+    }
+
+    @Test
+    void reportsTheChangesOfOnePosting() {
+        List<List<Long>> changes = new ArrayList<>();
+        PostingDeltas.changesOf(1L, ETransactionType.TRANSFER, 500, 1L, 2L,
+                (accountId, balanceDelta, creditDelta) -> changes.add(List.of(accountId, balanceDelta, creditDelta)));
+
+        assertEquals(List.of(List.of(1L, -500L, -500L), List.of(2L, 500L, 500L)), changes);
+    }
+
+    @Test
+    void rejectsAmountsFinerThanTheLedgerScale() {
+        PostingDeltas deltas = new PostingDeltas();
+        assertThrows(ArithmeticException.class,
+                () -> deltas.addPosting(1L, ETransactionType.DEPOSIT, new BigDecimal("0.001"), null, null));
+    }
+
+    @Test
+    void rejectsOverflow() {
+        PostingDeltas deltas = new PostingDeltas();
+        deltas.addPosting(1L, ETransactionType.WITHDRAWAL, Long.MAX_VALUE, null, null);
+        assertThrows(ArithmeticException.class, () -> deltas.addPosting(1L, ETransactionType.WITHDRAWAL, 1, null, null));
+    }
+
+    private static List<List<Long>> changes(PostingDeltas deltas) throws Exception {
+        List<List<Long>> changes = new ArrayList<>();
+        deltas.forEach((accountId, balanceDelta, creditDelta) -> changes.add(List.of(accountId, balanceDelta, creditDelta)));
+        return changes;
+    }
+}
@@ -0,0 +1,169 @@
+package com.finance.app.service;
+
+import com.finance.app.model.AuthenticatedUser;
+import com.finance.app.model.SpendingRollup;
+import com.finance.app.model.Transaction;
+import com.finance.app.repository.SpendingRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.finance.app.service.TestFixtures.categorized;
+import static com.finance.app.service.TestFixtures.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Records postings through {@link SpendingRollupService} into in-memory rollup rows and checks
+ * that every row holds the total and count of exactly the postings that fall into it, and that a
+ * rebuild keeps postings out while it recounts.
+ */
+class SpendingRollupServiceTest {
+
+    private static final Long[] CATEGORIES = {null, 5L, 6L};
+
+    private static final String[] TYPES = {"DEPOSIT", "WITHDRAWAL"};
+
+    /**
+     * The rollup rows, keyed by account, category, month and type.
+     */
+    private final Map<List<Object>, Total> rollups = new HashMap<>();
+
+    private SpendingRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        SpendingRollupRepository repository = mock(SpendingRollupRepository.class);
+        when(repository.addToRollup(any(), any(), any(), any(), any(), anyLong())).thenAnswer(invocation -> {
+            List<Object> key = List.of(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3));
+            rollups.computeIfAbsent(key, k -> new Total()).add(invocation.getArgument(4), invocation.getArgument(5));
+            return 1;
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+
+        service = new SpendingRollupService();
+        service.userService = mock(UserService.class);
+        service.accountService = mock(AccountService.class);
+        service.spendingRollupRepository = repository;
+        service.transactionTemplate = transactionTemplate;
+        service.postingSequencer = new PostingSequencer(16);
+    }
+
+    @Test
+    void rollupTotalsMatchTheirPostings() {
+        Random random = new Random(42);
+        Map<List<Object>, Total> expected = new HashMap<>();
+        for (int batch = 0; batch < 20; batch++) {
+            Long accountId = 1L + random.nextInt(2);
+            List<Transaction> transactions = new ArrayList<>();
+            for (int i = random.nextInt(30); i >= 0; i--) {
+                Long categoryId = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                Transaction transaction = categorized(transaction(TYPES[random.nextInt(TYPES.length)],
+                        BigDecimal.valueOf(1 + random.nextInt(100_000), 2).toPlainString(),
+                        LocalDateTime.of(2024, 1 + random.nextInt(3), 1, 0, 0).plusMinutes(random.nextInt(28 * 24 * 60))), categoryId);
+                transactions.add(transaction);
+
+                List<Object> key = List.of(accountId, categoryId != null ? categoryId : SpendingRollup.NO_CATEGORY,
+                        transaction.getDate().toLocalDate().withDayOfMonth(1), transaction.getType());
+                expected.computeIfAbsent(key, k -> new Total()).add(transaction.getAmount(), 1);
+            }
+            service.recordPostings(accountId, transactions);
+        }
+
+        assertEquals(expected, rollups);
+    }
+
+    @Test
+    void writesEachRollupRowOnce() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            transactions.add(categorized(transaction("WITHDRAWAL", "1.10", LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i * 7)), 5L));
+        }
+
+        service.recordPostings(9L, transactions);
+
+        Total total = new Total();
+        total.add(new BigDecimal("55.00"), 50);
+        assertEquals(Map.of(List.of(9L, 5L, LocalDate.of(2024, 1, 1), "WITHDRAWAL"), total), rollups);
+        assertEquals(1, rollups.values().iterator().next().writes);
+    }
+
+    @Test
+    void rebuildsWhileHoldingThePostingLocksOfTheUsersAccounts() throws Exception {
+        when(service.userService.getUser("token")).thenReturn(new AuthenticatedUser(7L, "user", List.of()));
+        when(service.accountService.getAccountIds(7L)).thenReturn(List.of(1L, 2L));
+        CompletableFuture<Boolean> posting = new CompletableFuture<>();
+        when(service.spendingRollupRepository.deleteByUserId(7L)).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    posting.complete(service.postingSequencer.execute(List.of(2L), () -> true));
+                } catch (Exception e) {
+                    posting.completeExceptionally(e);
+                }
+            });
+            assertThrows(TimeoutException.class, () -> posting.get(100, TimeUnit.MILLISECONDS),
+                    "a posting to the user's account must wait for the rebuild");
+            return 3;
+        });
+        when(service.spendingRollupRepository.rebuildForUser(7L)).thenReturn(4);
+
+        assertEquals(4, service.rebuildRollups("token"));
+        assertTrue(posting.get(5, TimeUnit.SECONDS));
+        verify(service.spendingRollupRepository).rebuildForUser(7L);
+    }
+
+    @Test
+    void rejectsAnInvalidMonth() {
+        Exception exception = assertThrows(Exception.class, () -> service.getMonthlyReport("token", 2024, 13, null));
+        assertEquals("Month must be between 1 and 12", exception.getMessage());
+    }
+
+    private static final class Total {
+        private BigDecimal amount = new BigDecimal("0.00");
+        private long count;
+        private int writes;
+
+        private void add(BigDecimal amount, long count) {
+            this.amount = this.amount.add(amount);
+            this.count += count;
+            writes++;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Total total && amount.equals(total.amount) && count == total.count;
+        }
+
+        @Override
+        public int hashCode() {
+            return amount.hashCode() * 31 + Long.hashCode(count);
+        }
+
+        @Override
+        public String toString() {
+            return amount + " x" + count;
+        }
+    }
+}
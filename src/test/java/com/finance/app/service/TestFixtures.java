@@ -0,0 +1,51 @@
+package com.finance.app.service;
+
+import com.finance.app.model.Account;
+import com.finance.app.model.Category;
+import com.finance.app.model.EAccountType;
+import com.finance.app.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entities for the service tests, with only the fields the posting paths read.
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    static Transaction transaction(String type, String amount, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDate(date);
+        return transaction;
+    }
+
+    static Transaction transfer(String amount, LocalDateTime date, Long fromAccountId, Long toAccountId) {
+        Transaction transaction = transaction("TRANSFER", amount, date);
+        transaction.setFromAccount(account(fromAccountId, EAccountType.SAVINGS, "0.00", null));
+        transaction.setToAccount(account(toAccountId, EAccountType.SAVINGS, "0.00", null));
+        return transaction;
+    }
+
+    static Transaction categorized(Transaction transaction, Long categoryId) {
+        if (categoryId != null) {
+            Category category = new Category();
+            category.setId(categoryId);
+            transaction.setCategory(category);
+        }
+        return transaction;
+    }
+
+    static Account account(Long id, EAccountType type, String balance, String creditLimit) {
+        Account account = new Account();
+        account.setId(id);
+        account.setType(type.name());
+        account.setCurrentBalance(new BigDecimal(balance));
+        account.setCreditLimit(creditLimit != null ? new BigDecimal(creditLimit) : null);
+        return account;
+    }
+}
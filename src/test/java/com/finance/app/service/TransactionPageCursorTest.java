@@ -0,0 +1,91 @@
+package com.finance.app.service;
+
+import com.finance.app.model.TransactionFilter;
+import com.finance.app.model.TransactionPage;
+import com.finance.app.model.TransactionRow;
+import com.finance.app.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The keyset cursor of {@link TransactionService#listTransactions}: the cursor handed out with one
+ * page must address the rows after the last row of that page.
+ */
+class TransactionPageCursorTest {
+
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2024, 5, 31, 23, 59, 59, 123_000_000);
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService();
+        transactionService.accountService = mock(AccountService.class);
+        transactionService.transactionRepository = transactionRepository;
+        ReflectionTestUtils.setField(transactionService, "maxPageSize", 100);
+    }
+
+    @Test
+    void nextCursorAddressesTheRowsAfterThePage() throws Exception {
+        when(transactionRepository.findPageByAccountId(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), isNull(), eq(PageRequest.of(0, 4)))).thenReturn(rows(4, 100));
+
+        TransactionPage first = transactionService.listTransactions("token", 1L, new TransactionFilter(), null, 3);
+
+        assertEquals(3, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+        assertEquals(-1, first.getNextCursor().indexOf('='), "the cursor is unpadded so it can go in a URL as is");
+
+        TransactionRow last = first.getItems().get(2);
+        when(transactionRepository.findPageByAccountId(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(last.getDate()), eq(last.getId()), eq(PageRequest.of(0, 4)))).thenReturn(rows(1, 97));
+
+        TransactionPage second = transactionService.listTransactions("token", 1L, new TransactionFilter(), first.getNextCursor(), 3);
+
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor(), "the last page has no next cursor");
+        verify(transactionRepository).findPageByAccountId(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(last.getDate()), eq(last.getId()), any());
+    }
+
+    @Test
+    void rejectsAMalformedCursor() {
+        TransactionFilter filter = new TransactionFilter();
+        Exception notBase64 = assertThrows(Exception.class, () -> transactionService.listTransactions("token", 1L, filter, "not base64!", 3));
+        assertEquals("Cursor is invalid", notBase64.getMessage());
+        // "2024-01-01" without an id
+        Exception noId = assertThrows(Exception.class, () -> transactionService.listTransactions("token", 1L, filter, "MjAyNC0wMS0wMQ", 3));
+        assertEquals("Cursor is invalid", noId.getMessage());
+    }
+
+    private static List<TransactionRow> rows(int size, long firstId) {
+        List<TransactionRow> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TransactionRow row = new TransactionRow();
+            row.setId(firstId - i);
+            row.setAccountId(1L);
+            row.setDate(NEWEST.minusHours(i));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
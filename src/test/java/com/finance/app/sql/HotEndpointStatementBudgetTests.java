@@ -0,0 +1,157 @@
+package com.finance.app.sql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements the most frequently called endpoints issue, so that a change
+ * adding a query per row or per account fails here instead of in production. Budgets are fixed
+ * numbers that must not grow with the number of rows a request handles.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotEndpointStatementBudgetTests {
+
+    private static final LocalDateTime POSTING_DATE = LocalDate.now().withDayOfMonth(1).atTime(12, 0);
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${sql.n-plus-one.threshold:10}")
+    int repeatedStatementThreshold;
+
+    private String token;
+
+    private List<Long> accountIds;
+
+    @BeforeEach
+    void signUp() throws Exception {
+        String username = "budget-" + UUID.randomUUID().toString().substring(0, 8);
+        perform(post("/api/v1/users/signup"), Map.of(
+                "username", username, "password", "password",
+                "email", username + "@example.com", "firstName", "Budget", "lastName", "Test"));
+        token = "Bearer " + perform(post("/api/v1/users/signin"), Map.of("username", username, "password", "password"))
+                .path("token").asText();
+        for (int a = 0; a < 2; a++) {
+            perform(post("/api/v1/account/add"), Map.of(
+                    "name", "Account " + a, "type", "SAVINGS", "currency", "EUR",
+                    "startingBalance", new BigDecimal("1000.00"), "currentBalance", new BigDecimal("1000.00")));
+        }
+        accountIds = new ArrayList<>();
+        for (JsonNode account : perform(get("/api/v1/users/user"), null).path("accounts")) {
+            accountIds.add(account.path("id").asLong());
+        }
+        for (Long accountId : accountIds) {
+            perform(post("/api/v1/transaction/" + accountId + "/bulk"), transactions(20));
+        }
+    }
+
+    @Test
+    void addTransaction() throws Exception {
+        Map<String, Object> transaction = transactions(1).get(0);
+        withinBudget(25, () -> perform(post("/api/v1/transaction/" + accountIds.get(0)), transaction));
+    }
+
+    @Test
+    void addTransactionsInBulk() throws Exception {
+        JsonNode result = withinBudget(40, () -> perform(post("/api/v1/transaction/" + accountIds.get(0) + "/bulk"), transactions(100)));
+        assertEquals(100, result.path("created").asInt());
+    }
+
+    @Test
+    void listTransactions() throws Exception {
+        JsonNode page = withinBudget(3, () -> perform(get("/api/v1/transaction/" + accountIds.get(0) + "?limit=10"), null));
+        assertEquals(10, page.path("items").size());
+    }
+
+    @Test
+    void getAccount() throws Exception {
+        withinBudget(2, () -> perform(get("/api/v1/account/" + accountIds.get(0)), null));
+    }
+
+    @Test
+    void listAccounts() throws Exception {
+        JsonNode profile = withinBudget(3, () -> perform(get("/api/v1/users/user"), null));
+        assertEquals(2, profile.path("accounts").size());
+    }
+
+    @Test
+    void monthlyReport() throws Exception {
+        withinBudget(2, () -> perform(get("/api/v1/report/spending/monthly?year=" + POSTING_DATE.getYear()
+                + "&month=" + POSTING_DATE.getMonthValue()), null));
+    }
+
+    @Test
+    void adHocReport() throws Exception {
+        withinBudget(6, () -> perform(post("/api/v1/report/query"), Map.of("groupBy", List.of("ACCOUNT", "TYPE"))));
+    }
+
+    /**
+     * Runs a request and fails if it issued more than {@code maxStatements} statements or repeated
+     * any statement shape often enough to be an N+1 query.
+     */
+    private <T> T withinBudget(int maxStatements, Callable<T> request) throws Exception {
+        return SqlStatementBudget.assertAtMost(maxStatements,
+                () -> SqlStatementBudget.assertNoRepeatedStatements(repeatedStatementThreshold, request));
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        if (token != null) {
+            request.header("Authorization", token);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+        }
+        MvcResult result = mockMvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    /**
+     * Creates transactions that all fall into the same month with the same payee, so that the
+     * rollup and checkpoint updates they cause do not depend on the number of rows.
+     */
+    private static List<Map<String, Object>> transactions(int size) {
+        List<Map<String, Object>> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> transaction = new LinkedHashMap<>();
+            transaction.put("type", i % 3 == 0 ? "DEPOSIT" : "WITHDRAWAL");
+            transaction.put("amount", BigDecimal.valueOf(100 + i, 2));
+            transaction.put("date", POSTING_DATE.plusMinutes(i).toString());
+            transaction.put("status", "COMPLETED");
+            transaction.put("payee", "Budget Payee");
+            transaction.put("description", "Budget transaction " + i);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
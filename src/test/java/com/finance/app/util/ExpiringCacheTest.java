@@ -0,0 +1,119 @@
+package com.finance.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    private <V> ExpiringCache<String, V> cache(long maxWeight) {
+        return new ExpiringCache<>(maxWeight, value -> 1, now::get);
+    }
+
+    @Test
+    void servesEntriesUntilTheirDeadline() {
+        ExpiringCache<String, String> cache = cache(10);
+        cache.put("a", "1", 2_000);
+
+        now.set(1_999);
+        assertEquals("1", cache.get("a"));
+        now.set(2_000);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void ignoresEntriesThatAlreadyExpired() {
+        ExpiringCache<String, String> cache = cache(10);
+        cache.put("a", "1", 1_000);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsAnEntryNotReadSinceItWasCachedWhenFull() {
+        ExpiringCache<String, String> cache = cache(2);
+        cache.put("a", "1", 5_000);
+        cache.put("b", "2", 5_000);
+        cache.get("a");
+
+        cache.put("c", "3", 5_000);
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void keepsCachingNewKeysUnderChurn() {
+        ExpiringCache<String, String> cache = cache(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("key" + i, "value" + i, 5_000);
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals("value9999", cache.get("key9999"));
+        assertNull(cache.get("key0"));
+    }
+
+    @Test
+    void keepsEntriesThatAreReadUnderChurn() {
+        ExpiringCache<String, String> cache = cache(100);
+        cache.put("hot", "value", 5_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("value", cache.get("hot"));
+            cache.put("key" + i, "value" + i, 5_000);
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals("value", cache.get("hot"));
+    }
+
+    @Test
+    void replacingAnEntryDoesNotEvictOthers() {
+        ExpiringCache<String, String> cache = cache(2);
+        cache.put("a", "1", 5_000);
+        cache.put("b", "2", 5_000);
+
+        cache.put("a", "3", 5_000);
+
+        assertEquals("3", cache.get("a"));
+        assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    void boundsTheTotalWeight() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, String::length, now::get);
+        cache.put("a", "aaaa", 5_000);
+        cache.put("b", "bbbb", 5_000);
+        cache.get("b");
+        cache.put("c", "cccc", 5_000);
+
+        assertNull(cache.get("a"));
+        assertEquals(8, cache.weight());
+
+        cache.put("d", "ddddddddddd", 5_000);
+        assertNull(cache.get("d"));
+        assertEquals(8, cache.weight());
+    }
+
+    @Test
+    void evictIfRemovesMatchingValues() {
+        ExpiringCache<String, String> cache = cache(10);
+        cache.put("a", "keep", 5_000);
+        cache.put("b", "drop", 5_000);
+
+        cache.evictIf("drop"::equals);
+
+        assertEquals("keep", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.weight());
+    }
+}
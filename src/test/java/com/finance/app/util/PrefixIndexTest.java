@@ -0,0 +1,83 @@
+package com.finance.app.util;
+
+import com.finance.app.model.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrefixIndexTest {
+
+    private static PrefixIndex index(int maxTerms, Object... termsAndCounts) {
+        Map<String, Long> terms = new LinkedHashMap<>();
+        for (int i = 0; i < termsAndCounts.length; i += 2) {
+            terms.put((String) termsAndCounts[i], ((Number) termsAndCounts[i + 1]).longValue());
+        }
+        return new PrefixIndex(terms, maxTerms);
+    }
+
+    @Test
+    void suggestsTheMostUsedTermsStartingWithThePrefixIgnoringCase() {
+        PrefixIndex index = index(100, "Tesco", 5, "Tesla", 2, "Target", 9, "tesco extra", 1);
+
+        assertEquals(List.of(new Suggestion("Tesco", 5L), new Suggestion("Tesla", 2L), new Suggestion("tesco extra", 1L)),
+                index.suggest("TE", 10));
+        assertEquals(List.of(new Suggestion("tesco extra", 1L)), index.suggest("tesco  ex", 10));
+        assertEquals(List.of(), index.suggest("x", 10));
+    }
+
+    @Test
+    void returnsAtMostTheLimitAndOrdersTiesAlphabetically() {
+        PrefixIndex index = index(100, "b", 1, "c", 1, "a", 1, "d", 3);
+
+        assertEquals(List.of(new Suggestion("d", 3L), new Suggestion("a", 1L)), index.suggest("", 2));
+        assertEquals(List.of(new Suggestion("d", 3L), new Suggestion("a", 1L), new Suggestion("b", 1L), new Suggestion("c", 1L)),
+                index.suggest(null, 10));
+    }
+
+    @Test
+    void mergesTermsThatOnlyDifferInCaseOrWhitespace() {
+        PrefixIndex index = index(100, "Corner  Shop", 2, " corner shop ", 3);
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(new Suggestion("Corner Shop", 5L)), index.suggest("corner", 10));
+    }
+
+    @Test
+    void addBumpsKnownTermsAndInsertsNewOnesInOrder() {
+        PrefixIndex index = index(100, "Tesco", 1);
+        index.add("TESCO");
+        index.add("Aldi");
+        index.add("Zara");
+        index.add(" ");
+        index.add(null);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(new Suggestion("Tesco", 2L), new Suggestion("Aldi", 1L), new Suggestion("Zara", 1L)),
+                index.suggest("", 10));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        PrefixIndex index = index(100);
+        for (int i = 0; i < 40; i++) {
+            index.add(String.format("payee %02d", i));
+        }
+
+        assertEquals(40, index.size());
+        assertEquals(List.of(new Suggestion("payee 30", 1L), new Suggestion("payee 31", 1L)), index.suggest("payee 3", 2));
+    }
+
+    @Test
+    void keepsAtMostMaxTerms() {
+        PrefixIndex index = index(2, "a", 5, "b", 4, "c", 3);
+        index.add("d");
+        index.add("a");
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(new Suggestion("a", 6L), new Suggestion("b", 4L)), index.suggest("", 10));
+    }
+}